@@ -0,0 +1,91 @@
+package com.gerenciador.reservas.benchmark;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.gerenciador.reservas.ReservasApplication;
+import com.gerenciador.reservas.model.Sala;
+import com.gerenciador.reservas.repository.SalaRepository;
+import com.gerenciador.reservas.service.IndiceDeReservas;
+
+/**
+ * Sobe a aplicação inteira (com um banco H2 próprio) para os benchmarks e
+ * preenche o banco direto por JDBC, que é bem mais rápido que passar pelo JPA
+ * quando são milhões de reservas.
+ */
+class AmbienteDeBenchmark implements AutoCloseable {
+
+    private static final int LOTE_JDBC = 10_000;
+
+    private final ConfigurableApplicationContext contexto;
+    private long proximoId = 1;
+
+    AmbienteDeBenchmark() {
+        contexto = new SpringApplicationBuilder(ReservasApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:jmh-" + UUID.randomUUID(),
+                        "spring.h2.console.enabled=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    <T> T bean(Class<T> tipo) {
+        return contexto.getBean(tipo);
+    }
+
+    ConfigurableApplicationContext getContexto() {
+        return contexto;
+    }
+
+    Sala criarSala(String id, int capacidade) {
+        return bean(SalaRepository.class).save(new Sala(id, "Sala " + id, capacidade));
+    }
+
+    /**
+     * Grava 'quantidade' reservas de uma hora, uma após a outra, a partir de
+     * 'inicio'. Devolve o fim da última.
+     */
+    LocalDateTime inserirReservas(String idSala, int quantidade, LocalDateTime inicio) {
+        JdbcTemplate jdbc = bean(JdbcTemplate.class);
+        LocalDateTime atual = inicio;
+        List<Object[]> lote = new ArrayList<>(LOTE_JDBC);
+        for (int i = 0; i < quantidade; i++) {
+            lote.add(new Object[] { proximoId++, "Bench " + i, idSala, Timestamp.valueOf(atual),
+                    Timestamp.valueOf(atual.plusMinutes(50)) });
+            atual = atual.plusHours(1);
+            if (lote.size() == LOTE_JDBC) {
+                inserir(jdbc, lote);
+            }
+        }
+        inserir(jdbc, lote);
+        return atual;
+    }
+
+    // Ajusta a sequência e recarrega o índice depois das inserções por JDBC.
+    void concluirCarga() {
+        bean(JdbcTemplate.class).execute("alter sequence reserva_seq restart with " + (proximoId + 100));
+        bean(IndiceDeReservas.class).carregar();
+    }
+
+    private void inserir(JdbcTemplate jdbc, List<Object[]> lote) {
+        if (!lote.isEmpty()) {
+            jdbc.batchUpdate("insert into reserva (id_reserva, nome_responsavel, sala_id, data_inicio, data_fim) "
+                    + "values (?, ?, ?, ?, ?)", lote);
+            lote.clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        contexto.close();
+    }
+}
@@ -0,0 +1,114 @@
+package com.gerenciador.reservas.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.web.csrf.CsrfToken;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+import org.springframework.ui.Model;
+import org.springframework.validation.support.BindingAwareModelMap;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.View;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+
+import com.gerenciador.reservas.controller.ReservaController;
+import com.gerenciador.reservas.service.GerenciadorDeReservas;
+import com.gerenciador.reservas.viewModel.PaginaDeReservas;
+
+/**
+ * Página principal em três partes: a consulta da listagem (projeção direto em
+ * ReservaViewModel), o método do controller inteiro e a renderização do
+ * index.html com o modelo já pronto.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class PaginaPrincipalBenchmark {
+
+    private static final int SALAS = 50;
+
+    // No maior caso (50 x 20 mil = 1 milhão de reservas) o heap vivo, medido com
+    // jcmd GC.heap_info depois de um GC completo, fica em cerca de 890 MB: banco
+    // H2 em memória, IndiceDeReservas, bits de ocupação e contadores de
+    // utilização, uns 0,9 KB por reserva. Cabe no -Xmx2g do fork; 5 milhões não
+    // caberiam.
+    @Param({ "1000", "20000" })
+    public int reservasPorSala;
+
+    private AmbienteDeBenchmark ambiente;
+    private GerenciadorDeReservas gerenciador;
+    private ReservaController controller;
+    private View index;
+    private Model modeloPronto;
+    private MockServletContext servletContext;
+    private LocalDateTime agora;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        ambiente = new AmbienteDeBenchmark();
+        gerenciador = ambiente.bean(GerenciadorDeReservas.class);
+        controller = ambiente.bean(ReservaController.class);
+
+        // Metade das reservas no passado, metade no futuro
+        agora = LocalDateTime.now();
+        LocalDateTime inicio = agora.minusHours(reservasPorSala / 2);
+        for (int i = 0; i < SALAS; i++) {
+            String idSala = String.format("B%03d", i);
+            ambiente.criarSala(idSala, 10 + i);
+            ambiente.inserirReservas(idSala, reservasPorSala, inicio.plusMinutes(i));
+        }
+        ambiente.concluirCarga();
+
+        index = ambiente.bean(ThymeleafViewResolver.class).resolveViewName("index", Locale.getDefault());
+        servletContext = new MockServletContext();
+        modeloPronto = new BindingAwareModelMap();
+        controller.exibirFormulario(modeloPronto);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        ambiente.close();
+    }
+
+    @Benchmark
+    public PaginaDeReservas listarReservas() {
+        return gerenciador.listarReservas(null, agora, null, null, null, 20);
+    }
+
+    @Benchmark
+    public Model exibirFormulario() {
+        Model model = new BindingAwareModelMap();
+        controller.exibirFormulario(model);
+        return model;
+    }
+
+    @Benchmark
+    public String renderizarIndex() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/");
+        request.setAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, ambiente.getContexto());
+        request.setAttribute(CsrfToken.class.getName(), new DefaultCsrfToken("X-CSRF-TOKEN", "_csrf", "token"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        index.render(modeloPronto.asMap(), request, response);
+        return response.getContentAsString();
+    }
+}
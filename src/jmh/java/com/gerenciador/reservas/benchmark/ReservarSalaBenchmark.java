@@ -0,0 +1,78 @@
+package com.gerenciador.reservas.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gerenciador.reservas.model.Reserva;
+import com.gerenciador.reservas.model.Sala;
+import com.gerenciador.reservas.service.GerenciadorDeReservas;
+
+/**
+ * Custo de uma reserva (checagem de conflito + gravação) numa sala que já tem
+ * 10, 10 mil ou 1 milhão de reservas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ReservarSalaBenchmark {
+
+    @Param({ "10", "10000", "1000000" })
+    public int reservasExistentes;
+
+    private AmbienteDeBenchmark ambiente;
+    private GerenciadorDeReservas gerenciador;
+    private Sala sala;
+    private LocalDateTime proximoHorario;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        ambiente = new AmbienteDeBenchmark();
+        gerenciador = ambiente.bean(GerenciadorDeReservas.class);
+        sala = ambiente.criarSala("BENCH", 20);
+        proximoHorario = ambiente.inserirReservas(sala.getId(), reservasExistentes,
+                LocalDateTime.of(2020, 1, 1, 0, 0));
+        ambiente.concluirCarga();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        ambiente.close();
+    }
+
+    // Cada chamada reserva o horário livre seguinte ao último gravado.
+    @Benchmark
+    public Reserva reservarSala() {
+        LocalDateTime inicio = proximoHorario;
+        proximoHorario = inicio.plusHours(1);
+        return gerenciador.reservarSala(sala, "Bench", inicio, inicio.plusMinutes(50));
+    }
+
+    // Pedido que sempre conflita: mede só a checagem, sem gravação.
+    @Benchmark
+    public boolean checarConflito() {
+        LocalDateTime inicio = LocalDateTime.of(2020, 1, 1, 0, 0).plusHours(reservasExistentes / 2);
+        try {
+            gerenciador.reservarSala(sala, "Bench", inicio, inicio.plusMinutes(30));
+            return false;
+        } catch (IllegalStateException e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.gerenciador.reservas.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas periódicas (@Scheduled), como a verificação noturna dos
+ * contadores de utilização (UtilizacaoDasSalas).
+ */
+@Configuration
+@EnableScheduling
+public class AgendamentoConfig {
+}
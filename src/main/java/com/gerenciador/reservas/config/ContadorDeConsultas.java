@@ -0,0 +1,71 @@
+package com.gerenciador.reservas.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Conta os comandos SQL que o Hibernate envia ao banco durante cada requisição e
+ * publica o total como reservas.requisicao.consultas, por método e rota.
+ *
+ * A contagem é por thread: o interceptor zera o contador no início da requisição
+ * e o Hibernate (como StatementInspector, ver MetricasConfig) o incrementa a cada
+ * comando. Consultas feitas fora de requisições (carga do índice, por exemplo)
+ * não são contadas.
+ */
+@Component
+public class ContadorDeConsultas implements StatementInspector, AsyncHandlerInterceptor {
+
+    private static final ThreadLocal<int[]> consultas = new ThreadLocal<>();
+
+    // O inspetor é criado junto com o Hibernate, antes do registro de métricas
+    @Autowired
+    private ObjectProvider<MeterRegistry> registro;
+
+    @Override
+    public String inspect(String sql) {
+        int[] contador = consultas.get();
+        if (contador != null) {
+            contador[0]++;
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        consultas.set(new int[1]);
+        return true;
+    }
+
+    // Requisição assíncrona (POST /reservar): a thread volta para o servidor antes
+    // de a resposta ficar pronta, então a contagem dela é descartada.
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        consultas.remove();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        int[] contador = consultas.get();
+        consultas.remove();
+        if (contador == null) {
+            return;
+        }
+        Object rota = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("reservas.requisicao.consultas")
+                .description("Comandos SQL enviados ao banco por requisição")
+                .tag("method", request.getMethod())
+                .tag("uri", rota != null ? rota.toString() : "UNKNOWN")
+                .register(registro.getObject())
+                .record(contador[0]);
+    }
+}
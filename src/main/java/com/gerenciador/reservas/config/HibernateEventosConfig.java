@@ -0,0 +1,38 @@
+package com.gerenciador.reservas.config;
+
+import com.gerenciador.reservas.model.CatalogoListener;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registra no Hibernate os listeners que não podem ser declarados via
+ * @EntityListeners (eventos de coleção, por exemplo).
+ */
+@Configuration
+public class HibernateEventosConfig {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CatalogoListener catalogoListener;
+
+    @PostConstruct
+    public void registrarListeners() {
+        EventListenerRegistry registro = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registro.appendListeners(EventType.POST_INSERT, catalogoListener);
+        registro.appendListeners(EventType.POST_UPDATE, catalogoListener);
+        registro.appendListeners(EventType.POST_DELETE, catalogoListener);
+        registro.appendListeners(EventType.POST_COLLECTION_RECREATE, catalogoListener);
+        registro.appendListeners(EventType.POST_COLLECTION_UPDATE, catalogoListener);
+        registro.appendListeners(EventType.POST_COLLECTION_REMOVE, catalogoListener);
+    }
+}
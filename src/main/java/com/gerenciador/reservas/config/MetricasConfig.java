@@ -0,0 +1,72 @@
+package com.gerenciador.reservas.config;
+
+import com.gerenciador.reservas.service.CatalogoDeSalas;
+import com.gerenciador.reservas.service.IndiceDeReservas;
+import com.gerenciador.reservas.service.OcupacaoDasSalas;
+import com.gerenciador.reservas.service.UtilizacaoDasSalas;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Métricas próprias da aplicação, publicadas junto com as do Spring Boot em
+ * /actuator/prometheus.
+ *
+ * O Boot já publica o tempo de cada handler (http.server.requests, por rota), o
+ * pool de conexões (hikaricp.connections.*) e as estatísticas do Hibernate
+ * (hibernate.*). Aqui entram o catálogo de salas, o índice de reservas e o
+ * número de consultas SQL por requisição.
+ */
+@Configuration
+public class MetricasConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ContadorDeConsultas contadorDeConsultas;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(contadorDeConsultas);
+    }
+
+    // Só registra o contador se nenhum outro inspetor foi configurado por
+    // propriedade (o PlanoDeConsultasTest usa o dele).
+    @Bean
+    public HibernatePropertiesCustomizer inspetorDeConsultas(ContadorDeConsultas contador) {
+        return propriedades -> propriedades.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, contador);
+    }
+
+    @Bean
+    public MeterBinder metricasDeReservas(CatalogoDeSalas catalogo, IndiceDeReservas indice,
+            OcupacaoDasSalas ocupacao, UtilizacaoDasSalas utilizacao) {
+        return registro -> {
+            FunctionCounter.builder("reservas.catalogo.acertos", catalogo, c -> c.getEstatisticas().acertos())
+                    .description("Leituras de salas e equipamentos atendidas pelo catálogo em memória")
+                    .register(registro);
+            FunctionCounter.builder("reservas.catalogo.faltas", catalogo, c -> c.getEstatisticas().faltas())
+                    .description("Leituras que precisaram recarregar o catálogo do banco")
+                    .register(registro);
+            FunctionCounter.builder("reservas.catalogo.invalidacoes", catalogo,
+                    c -> c.getEstatisticas().invalidacoes())
+                    .description("Invalidações do catálogo por alterações em salas ou equipamentos")
+                    .register(registro);
+            Gauge.builder("reservas.indice.reservas", indice, IndiceDeReservas::getTotalIndexado)
+                    .description("Reservas no índice em memória")
+                    .register(registro);
+            Gauge.builder("reservas.ocupacao.bytes", ocupacao, OcupacaoDasSalas::getBytes)
+                    .description("Estimativa do heap usado pelos bits de ocupação das salas")
+                    .baseUnit("bytes")
+                    .register(registro);
+            Gauge.builder("reservas.utilizacao.bytes", utilizacao, UtilizacaoDasSalas::getBytes)
+                    .description("Estimativa do heap usado pelos contadores de utilização das salas")
+                    .baseUnit("bytes")
+                    .register(registro);
+        };
+    }
+}
@@ -22,9 +22,9 @@ public class SecurityConfig {
                         // Por enquanto, permite todas as outras requisições (ajustaremos isso depois)
                         .anyRequest().permitAll())
                 // Desabilita CSRF (Cross-Site Request Forgery) especificamente para o H2
-                // console
+                // console e para a API JSON (que não usa sessão nem formulários)
                 .csrf(csrf -> csrf
-                        .ignoringRequestMatchers(toH2Console()))
+                        .ignoringRequestMatchers(toH2Console(), new AntPathRequestMatcher("/api/**")))
                 // Permite que o H2 console seja exibido em um frame no navegador
                 .headers(headers -> headers
                         .frameOptions(frameOptions -> frameOptions.sameOrigin()));
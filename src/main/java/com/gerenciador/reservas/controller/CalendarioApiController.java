@@ -0,0 +1,56 @@
+package com.gerenciador.reservas.controller;
+
+import com.gerenciador.reservas.service.CalendarioDeOcupacao;
+import com.gerenciador.reservas.service.CatalogoDeSalas;
+import com.gerenciador.reservas.service.VersoesDasReservas;
+import com.gerenciador.reservas.viewModel.GradeDeOcupacao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/calendario")
+public class CalendarioApiController {
+
+    @Autowired
+    private CalendarioDeOcupacao calendario;
+
+    @Autowired
+    private VersoesDasReservas versoes;
+
+    @Autowired
+    private CatalogoDeSalas catalogo;
+
+    // Grade de ocupação em faixas de 15 minutos, uma linha por sala (todas, ou só
+    // as de 'idSala', que pode se repetir). Sem 'de', começa na segunda-feira da
+    // semana atual. A ETag junta as versões das reservas e do catálogo.
+    @GetMapping
+    public ResponseEntity<GradeDeOcupacao> grade(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(defaultValue = "7") int dias,
+            @RequestParam(required = false) List<String> idSala,
+            WebRequest request) {
+        LocalDate primeiroDia = de != null ? de
+                : LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        String etag = RespostaCondicional.etag("calendario", versoes.getVersao(), catalogo.getVersao(), primeiroDia,
+                dias, idSala);
+        try {
+            return RespostaCondicional.responder(request, etag,
+                    () -> ResponseEntity.ok(calendario.montar(primeiroDia, dias, idSala)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.gerenciador.reservas.controller;
+
+import com.gerenciador.reservas.model.Equipamento;
+import com.gerenciador.reservas.service.CatalogoDeSalas;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/equipamentos")
+public class EquipamentoApiController {
+
+    @Autowired
+    private CatalogoDeSalas catalogo;
+
+    // Todos os equipamentos, do catálogo em memória
+    @GetMapping
+    public ResponseEntity<List<Equipamento>> listarEquipamentos(WebRequest request) {
+        return RespostaCondicional.responder(request, RespostaCondicional.etag("equipamentos", catalogo.getVersao()),
+                () -> ResponseEntity.ok(catalogo.getEquipamentos()));
+    }
+}
@@ -0,0 +1,46 @@
+package com.gerenciador.reservas.controller;
+
+import com.gerenciador.reservas.service.ImportadorDeCadastros;
+import com.gerenciador.reservas.viewModel.ResultadoImportacao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+// Importação de cadastros por upload de CSV (campo "arquivo", em UTF-8). A
+// resposta é 200 mesmo com linhas rejeitadas; 400 só quando o arquivo inteiro
+// não pode ser lido (cabeçalho sem as colunas obrigatórias, por exemplo).
+@RestController
+@RequestMapping("/api/v1/importacao")
+public class ImportacaoApiController {
+
+    @Autowired
+    private ImportadorDeCadastros importador;
+
+    @PostMapping("/salas")
+    public ResultadoImportacao importarSalas(@RequestParam MultipartFile arquivo) throws IOException {
+        try (Reader leitor = new InputStreamReader(arquivo.getInputStream(), StandardCharsets.UTF_8)) {
+            return importador.importarSalas(leitor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    @PostMapping("/equipamentos")
+    public ResultadoImportacao importarEquipamentos(@RequestParam MultipartFile arquivo) throws IOException {
+        try (Reader leitor = new InputStreamReader(arquivo.getInputStream(), StandardCharsets.UTF_8)) {
+            return importador.importarEquipamentos(leitor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.gerenciador.reservas.controller;
+
+import com.gerenciador.reservas.model.Sala;
+import com.gerenciador.reservas.service.CatalogoDeSalas;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * As opções (&lt;option&gt;) dos seletores de sala da página principal, já em
+ * HTML. Com milhares de salas, avaliar três th:each de uma opção por sala a cada
+ * requisição custava segundos; o HTML só é montado de novo quando o catálogo
+ * muda (CatalogoDeSalas.getVersao).
+ */
+@Component
+class OpcoesDeSalas {
+
+    @Autowired
+    private CatalogoDeSalas catalogo;
+
+    private volatile Opcoes opcoes;
+
+    // Uma opção por sala, em ordem de id
+    String getOpcoes() {
+        return atual().html;
+    }
+
+    // As mesmas opções, com a sala informada já selecionada (se existir)
+    String getOpcoes(String idSalaSelecionada) {
+        String html = atual().html;
+        if (idSalaSelecionada == null) {
+            return html;
+        }
+        String opcao = abertura(idSalaSelecionada);
+        int posicao = html.indexOf(opcao);
+        if (posicao < 0) {
+            return html;
+        }
+        int fim = posicao + opcao.length() - 1;
+        return html.substring(0, fim) + " selected" + html.substring(fim);
+    }
+
+    private Opcoes atual() {
+        Opcoes o = opcoes;
+        // A versão é lida antes das salas: uma alteração no meio da montagem faz a
+        // próxima leitura montar de novo, como em CatalogoDeSalas.
+        long versao = catalogo.getVersao();
+        if (o != null && o.versao == versao) {
+            return o;
+        }
+        StringBuilder html = new StringBuilder();
+        for (Sala sala : catalogo.getSalas()) {
+            html.append(abertura(sala.getId())).append(HtmlUtils.htmlEscape(sala.getNome(), "UTF-8"))
+                    .append("</option>");
+        }
+        o = new Opcoes(versao, html.toString());
+        opcoes = o;
+        return o;
+    }
+
+    private static String abertura(String idSala) {
+        return "<option value=\"" + HtmlUtils.htmlEscape(idSala, "UTF-8") + "\">";
+    }
+
+    private record Opcoes(long versao, String html) {
+    }
+}
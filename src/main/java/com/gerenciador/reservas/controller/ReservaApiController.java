@@ -0,0 +1,164 @@
+package com.gerenciador.reservas.controller;
+
+import com.gerenciador.reservas.service.ArquivoDeReservas;
+import com.gerenciador.reservas.service.ExportadorDeReservas;
+import com.gerenciador.reservas.service.ExportadorDeReservas.Formato;
+import com.gerenciador.reservas.service.CatalogoDeSalas;
+import com.gerenciador.reservas.service.GerenciadorDeReservas;
+import com.gerenciador.reservas.service.TransmissorDeReservas;
+import com.gerenciador.reservas.service.VersoesDasReservas;
+import com.gerenciador.reservas.viewModel.PaginaDeReservas;
+import com.gerenciador.reservas.viewModel.PedidoReserva;
+import com.gerenciador.reservas.viewModel.ResultadoLote;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/v1/reservas")
+public class ReservaApiController {
+
+    @Autowired
+    private GerenciadorDeReservas gerenciador;
+
+    @Autowired
+    private ExportadorDeReservas exportador;
+
+    @Autowired
+    private VersoesDasReservas versoes;
+
+    @Autowired
+    private CatalogoDeSalas catalogo;
+
+    @Autowired
+    private TransmissorDeReservas transmissor;
+
+    @Autowired
+    private ArquivoDeReservas arquivo;
+
+    private static final int TAMANHO_MAXIMO_DA_PAGINA = 500;
+
+    @Value("${reservas.listagem.tamanho-pagina:20}")
+    private int tamanhoPagina;
+
+    // Mesma listagem da página principal, paginada por chave: para a próxima
+    // página, repita o pedido com aposInicio/aposId = proximoInicio/proximoId.
+    //
+    // A ETag junta a versão das reservas (só as da sala, quando há filtro), a do
+    // catálogo (a resposta traz o nome da sala) e o 'de' efetivo. Sem 'de' vale o
+    // minuto atual: durante um mesmo minuto, quem consulta de novo recebe 304.
+    @GetMapping
+    public ResponseEntity<PaginaDeReservas> listarReservas(@RequestParam(required = false) String idSala,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime aposInicio,
+            @RequestParam(required = false) Long aposId,
+            @RequestParam(required = false) Integer tamanho,
+            WebRequest request) {
+        LocalDateTime desde = de != null ? de : LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        long versaoDasReservas = idSala != null ? versoes.getVersao(idSala) : versoes.getVersao();
+        int itens = tamanho != null ? Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_DA_PAGINA)) : tamanhoPagina;
+
+        String etag = RespostaCondicional.etag("reservas", versaoDasReservas, catalogo.getVersao(), desde);
+        try {
+            return RespostaCondicional.responder(request, etag, () -> ResponseEntity
+                    .ok(gerenciador.listarReservas(idSala, desde, ate, aposInicio, aposId, itens)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    // Reservas arquivadas (ver ArquivoDeReservas) que começam em [de, ate), com a
+    // mesma paginação da listagem acima. O histórico só muda quando o arquivamento
+    // roda, então a ETag junta só a versão dele e a do catálogo.
+    @GetMapping("/historico")
+    public ResponseEntity<PaginaDeReservas> listarHistorico(@RequestParam(required = false) String idSala,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime aposInicio,
+            @RequestParam(required = false) Long aposId,
+            @RequestParam(required = false) Integer tamanho,
+            WebRequest request) {
+        int itens = tamanho != null ? Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_DA_PAGINA)) : tamanhoPagina;
+
+        String etag = RespostaCondicional.etag("historico", arquivo.getVersao(), catalogo.getVersao());
+        try {
+            return RespostaCondicional.responder(request, etag, () -> ResponseEntity
+                    .ok(arquivo.listar(idSala, de, ate, aposInicio, aposId, itens)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    // Stream (Server-Sent Events) de reservas criadas, alteradas e canceladas,
+    // opcionalmente só de uma sala e de um período. Cada evento traz a reserva
+    // inteira: a tela carrega o estado inicial pela listagem acima e depois só
+    // aplica os eventos. Ao reconectar, o navegador manda o Last-Event-ID e recebe
+    // o que perdeu (ver TransmissorDeReservas).
+    @GetMapping(path = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter eventos(@RequestParam(required = false) String idSala,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+            @RequestHeader(name = "Last-Event-ID", required = false) String ultimoIdRecebido) {
+        try {
+            return transmissor.conectar(new TransmissorDeReservas.Filtro(idSala, de, ate), ultimoIdRecebido);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
+        }
+    }
+
+    // Importação em lote: 201 quando tudo foi gravado, 422 quando alguma linha foi
+    // rejeitada (e portanto nada foi gravado).
+    @PostMapping("/lote")
+    public ResponseEntity<ResultadoLote> reservarEmLote(@RequestBody List<PedidoReserva> pedidos) {
+        ResultadoLote resultado = gerenciador.reservarEmLote(pedidos);
+        HttpStatus status = resultado.gravado() ? HttpStatus.CREATED : HttpStatus.UNPROCESSABLE_ENTITY;
+        return ResponseEntity.status(status).body(resultado);
+    }
+
+    // Exportação de todas as reservas que começam em [de, ate), em CSV ou NDJSON.
+    // As linhas são escritas na resposta à medida que saem do banco.
+    @GetMapping("/exportacao")
+    public void exportar(@RequestParam(defaultValue = "csv") String formato,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+            HttpServletResponse response) throws IOException {
+        Formato escolhido;
+        try {
+            escolhido = Formato.valueOf(formato.toUpperCase(Locale.ROOT));
+            exportador.validarPeriodo(de, ate);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return;
+        }
+
+        response.setContentType(escolhido.getTipo());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"reservas." + escolhido.getExtensao() + "\"");
+        exportador.exportar(escolhido, de, ate, response.getWriter());
+    }
+}
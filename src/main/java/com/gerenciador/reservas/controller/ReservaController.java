@@ -1,66 +1,189 @@
 package com.gerenciador.reservas.controller;
 
-import com.gerenciador.reservas.model.Reserva;
 import com.gerenciador.reservas.model.Sala;
+import com.gerenciador.reservas.service.CatalogoDeSalas;
 import com.gerenciador.reservas.service.GerenciadorDeReservas;
+import com.gerenciador.reservas.service.VersoesDasReservas;
+import com.gerenciador.reservas.viewModel.PaginaDeReservas;
 import com.gerenciador.reservas.viewModel.ReservaViewModel;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @Controller
 public class ReservaController {
 
+    // Quando o pedido conflita, sugere horários livres nos próximos dias
+    private static final int DIAS_DE_SUGESTAO = 7;
+    private static final int QUANTIDADE_DE_SUGESTOES = 3;
+
+    // Atributos com o resultado de um pedido de reserva: vão no fragmento ou, no
+    // POST clássico, como flash attributes para o GET seguinte.
+    private static final List<String> RESULTADO = List.of("mensagemSucesso", "mensagemErro", "horariosSugeridos",
+            "reservaCriada");
+
     @Autowired
     private GerenciadorDeReservas gerenciador;
 
+    @Autowired
+    private VersoesDasReservas versoes;
+
+    @Autowired
+    private CatalogoDeSalas catalogo;
+
+    @Autowired
+    private OpcoesDeSalas opcoesDeSalas;
+
+    @Value("${reservas.listagem.tamanho-pagina:20}")
+    private int tamanhoPagina;
+
+    @Value("${reservas.salas.tamanho-pagina:50}")
+    private int tamanhoPaginaDeSalas;
+
     // O UsuarioRepository foi REMOVIDO
 
+    // GET condicional, como na API: a ETag junta as versões em memória das
+    // reservas e do catálogo, o 'de' efetivo (o minuto atual, sem filtro) e a
+    // sessão, já que a página traz o token CSRF dela. Quem volta à página sem
+    // mudança nenhuma recebe 304 sem consulta ao banco. A página com a mensagem
+    // de um pedido de reserva (flash attributes) é montada sempre e sem ETag.
     @GetMapping("/")
-    public String exibirFormulario(Model model) {
-        List<Reserva> reservas = gerenciador.getReservas();
-        List<Sala> salasDisponiveis = gerenciador.getSalas();
+    public String exibirFormulario(@RequestParam(required = false) String filtroSala,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime filtroDe,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime filtroAte,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime aposInicio,
+            @RequestParam(required = false) Long aposId,
+            Model model, ServletWebRequest request) {
+        try {
+            PaginaDeReservas.validarCursor(aposInicio, aposId);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        String idSala = (filtroSala == null || filtroSala.isBlank()) ? null : filtroSala;
+        // Por padrão só as reservas que ainda não terminaram
+        LocalDateTime de = filtroDe != null ? filtroDe : LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
 
-        List<ReservaViewModel> reservasViewModel = reservas.stream().map(reserva -> {
-            String nomeSala = reserva.getSala().getNome();
-            // LÓGICA ATUALIZADA
-            String nomeResponsavel = reserva.getNomeResponsavel();
+        if (request != null && RESULTADO.stream().noneMatch(model::containsAttribute)) {
+            long versaoDasReservas = idSala != null ? versoes.getVersao(idSala) : versoes.getVersao();
+            String etag = RespostaCondicional.etag("pagina", versaoDasReservas, catalogo.getVersao(), idSala, de,
+                    filtroAte, aposInicio, aposId, Integer.toHexString(request.getSessionId().hashCode()));
+            // private: a página é da sessão; no-cache: o navegador guarda, mas revalida
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL,
+                    CacheControl.noCache().cachePrivate().getHeaderValue());
+            if (request.checkNotModified(etag)) {
+                // checkNotModified já marcou 304; não há página para montar
+                return null;
+            }
+        }
 
-            return new ReservaViewModel(nomeResponsavel, nomeSala, reserva.getDataInicio(),
-                    reserva.getDataFim());
-        }).collect(Collectors.toList());
+        PaginaDeReservas pagina = gerenciador.listarReservas(idSala, de, filtroAte, aposInicio, aposId,
+                tamanhoPagina);
+        List<Sala> salasDisponiveis = gerenciador.getSalas();
+        // Os detalhes (equipamentos) só da primeira página de salas, como em
+        // /salas; o resto fica a um clique, na lista paginada.
+        List<Sala> salasDetalhadas = catalogo.getSalas(null, tamanhoPaginaDeSalas + 1);
+        boolean maisSalas = salasDetalhadas.size() > tamanhoPaginaDeSalas;
+        if (maisSalas) {
+            salasDetalhadas = salasDetalhadas.subList(0, tamanhoPaginaDeSalas);
+        }
 
-        model.addAttribute("reservas", reservasViewModel);
+        model.addAttribute("reservas", pagina.reservas());
+        model.addAttribute("pagina", pagina);
+        model.addAttribute("filtroSala", idSala);
+        model.addAttribute("filtroDe", filtroDe);
+        model.addAttribute("filtroAte", filtroAte);
         model.addAttribute("salas", salasDisponiveis);
+        model.addAttribute("salasDetalhadas", salasDetalhadas);
+        model.addAttribute("maisSalas", maisSalas);
+        // Os seletores de sala vêm prontos, sem um th:each por sala
+        model.addAttribute("opcoesDeSalas", opcoesDeSalas.getOpcoes());
+        model.addAttribute("opcoesDoFiltro", opcoesDeSalas.getOpcoes(idSala));
 
         return "index";
     }
 
+    // Primeira página, sem filtros e sem GET condicional
+    public String exibirFormulario(Model model) {
+        return exibirFormulario(null, null, null, null, null, model, null);
+    }
+
+    // O pedido não monta a página inteira de novo (todas as salas e a listagem):
+    // - vindo do script da página (X-Requested-With: XMLHttpRequest), a resposta é
+    //   só o fragmento 'resultado-reserva' do index.html, com a mensagem e a linha
+    //   da reserva criada;
+    // - num POST clássico, Post/Redirect/Get: o resultado vai como flash attribute
+    //   e o navegador segue para o GET /, que tem GET condicional.
+    //
+    // O resultado volta por CompletableFuture: no modo FILA a requisição espera o
+    // escritor da sala sem ocupar a thread do servidor; no modo DIRETO o futuro já
+    // vem pronto e a resposta é montada na mesma thread.
     @PostMapping("/reservar")
-    public String processarReserva(@RequestParam String idSala,
+    public CompletableFuture<String> processarReserva(@RequestParam String idSala,
             @RequestParam String nomeResponsavel, // Apenas o nome é necessário agora
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataInicio,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim,
-            Model model) {
+            @RequestHeader(name = "X-Requested-With", required = false) String requisitadoPor,
+            Model model, RedirectAttributes redirectAttributes) {
+        boolean fragmento = "XMLHttpRequest".equals(requisitadoPor);
+        Sala sala;
         try {
-            Sala sala = gerenciador.getSalaById(idSala);
-
-            // LÓGICA SIMPLIFICADA
-            gerenciador.reservarSala(sala, nomeResponsavel, dataInicio, dataFim);
-
-            model.addAttribute("mensagemSucesso", "Reserva realizada com sucesso!");
-        } catch (IllegalArgumentException | IllegalStateException e) {
+            sala = gerenciador.getSalaById(idSala);
+        } catch (IllegalArgumentException e) {
             model.addAttribute("mensagemErro", e.getMessage());
+            return CompletableFuture.completedFuture(responder(fragmento, model, redirectAttributes));
         }
 
-        return exibirFormulario(model);
+        // LÓGICA SIMPLIFICADA
+        return gerenciador.reservar(sala, nomeResponsavel, dataInicio, dataFim).handle((reserva, erro) -> {
+            Throwable causa = erro instanceof CompletionException ? erro.getCause() : erro;
+            if (causa == null) {
+                model.addAttribute("mensagemSucesso", "Reserva realizada com sucesso!");
+                model.addAttribute("reservaCriada", new ReservaViewModel(reserva.getIdReserva(),
+                        reserva.getNomeResponsavel(), sala.getNome(), reserva.getDataInicio(), reserva.getDataFim()));
+            } else if (causa instanceof IllegalStateException) {
+                model.addAttribute("mensagemErro", causa.getMessage());
+                // Horário ocupado: mostra junto do erro quando a sala fica livre de novo
+                model.addAttribute("horariosSugeridos", gerenciador.proximosHorariosLivres(sala,
+                        Duration.between(dataInicio, dataFim), dataInicio, dataInicio.plusDays(DIAS_DE_SUGESTAO),
+                        QUANTIDADE_DE_SUGESTOES));
+            } else if (causa instanceof IllegalArgumentException || causa instanceof RejectedExecutionException) {
+                model.addAttribute("mensagemErro", causa.getMessage());
+            } else {
+                throw new CompletionException(causa);
+            }
+            return responder(fragmento, model, redirectAttributes);
+        });
+    }
+
+    private String responder(boolean fragmento, Model model, RedirectAttributes redirectAttributes) {
+        if (fragmento) {
+            return "index :: resultado-reserva";
+        }
+        for (String atributo : RESULTADO) {
+            if (model.containsAttribute(atributo)) {
+                redirectAttributes.addFlashAttribute(atributo, model.getAttribute(atributo));
+            }
+        }
+        return "redirect:/";
     }
 }
\ No newline at end of file
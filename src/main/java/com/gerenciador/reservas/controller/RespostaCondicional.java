@@ -0,0 +1,42 @@
+package com.gerenciador.reservas.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * GET condicional da API JSON: a ETag é montada com as versões em memória dos
+ * dados (CatalogoDeSalas, VersoesDasReservas), então um If-None-Match que ainda
+ * vale é respondido com 304 sem consultar o banco nem serializar nada.
+ */
+final class RespostaCondicional {
+
+    // As versões recomeçam do zero quando a aplicação reinicia; o instante de
+    // início entra na ETag para uma versão antiga nunca coincidir com uma nova.
+    private static final String INICIO = Long.toString(System.currentTimeMillis(), 36);
+
+    private RespostaCondicional() {
+    }
+
+    static String etag(Object... partes) {
+        return Stream.concat(Stream.of(INICIO), Stream.of(partes).map(String::valueOf))
+                .collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    // O corpo só é montado se o cliente não tiver a versão atual. no-cache: o
+    // cliente pode guardar a resposta, mas deve revalidar a cada uso.
+    static <T> ResponseEntity<T> responder(WebRequest request, String etag, Supplier<ResponseEntity<T>> corpo) {
+        if (request.checkNotModified(etag)) {
+            // checkNotModified já marcou 304 e a ETag na resposta
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).build();
+        }
+        ResponseEntity<T> resposta = corpo.get();
+        return ResponseEntity.status(resposta.getStatusCode()).headers(resposta.getHeaders()).eTag(etag)
+                .cacheControl(CacheControl.noCache()).body(resposta.getBody());
+    }
+}
@@ -0,0 +1,69 @@
+package com.gerenciador.reservas.controller;
+
+import com.gerenciador.reservas.model.Sala;
+import com.gerenciador.reservas.service.CatalogoDeSalas;
+import com.gerenciador.reservas.service.GerenciadorDeReservas;
+import com.gerenciador.reservas.viewModel.EstatisticasDoCatalogo;
+import com.gerenciador.reservas.viewModel.HorarioLivre;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/salas")
+public class SalaApiController {
+
+    @Autowired
+    private GerenciadorDeReservas gerenciador;
+
+    @Autowired
+    private CatalogoDeSalas catalogo;
+
+    // Salas com os equipamentos, do catálogo em memória. A ETag muda a cada
+    // alteração em salas ou equipamentos.
+    @GetMapping
+    public ResponseEntity<List<Sala>> listarSalas(WebRequest request) {
+        return RespostaCondicional.responder(request, RespostaCondicional.etag("salas", catalogo.getVersao()),
+                () -> ResponseEntity.ok(catalogo.getSalas()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Sala> buscarSala(@PathVariable String id, WebRequest request) {
+        return RespostaCondicional.responder(request, RespostaCondicional.etag("sala", catalogo.getVersao()),
+                () -> ResponseEntity.of(catalogo.getSala(id)));
+    }
+
+    // Acertos, faltas e invalidações do catálogo de salas em memória
+    @GetMapping("/catalogo/estatisticas")
+    public EstatisticasDoCatalogo estatisticasDoCatalogo() {
+        return catalogo.getEstatisticas();
+    }
+
+    // Próximos K horários livres de pelo menos D minutos entre 'de' e 'ate'. Sala
+    // inexistente, duração que não é positiva ou 'ate' antes de 'de': 400.
+    @GetMapping("/{id}/horarios-livres")
+    public List<HorarioLivre> proximosHorariosLivres(@PathVariable String id,
+            @RequestParam long duracaoMinutos,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+            @RequestParam(defaultValue = "5") int quantidade) {
+        try {
+            Sala sala = gerenciador.getSalaById(id);
+            return gerenciador.proximosHorariosLivres(sala, Duration.ofMinutes(duracaoMinutos), de, ate, quantidade);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
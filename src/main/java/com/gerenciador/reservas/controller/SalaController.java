@@ -2,12 +2,14 @@ package com.gerenciador.reservas.controller;
 
 import org.springframework.dao.EmptyResultDataAccessException;
 import com.gerenciador.reservas.model.Sala;
-import com.gerenciador.reservas.repository.EquipamentoRepository; // Importar o repositório
 import com.gerenciador.reservas.repository.SalaRepository;
+import com.gerenciador.reservas.service.CatalogoDeSalas;
 
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -16,9 +18,11 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.springframework.dao.DataIntegrityViolationException;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,19 +34,59 @@ public class SalaController {
     private SalaRepository salaRepository;
 
     @Autowired
-    private EquipamentoRepository equipamentoRepository;
+    private CatalogoDeSalas catalogo;
 
+    @Value("${reservas.salas.tamanho-pagina:50}")
+    private int tamanhoPagina;
+
+    // Lista paginada por id, lida do catálogo em memória: nenhuma consulta ao
+    // banco e, com milhares de salas, só uma página para montar. Para a próxima
+    // página, aposId = id da última sala exibida.
     @GetMapping
-    public String listarSalas(Model model) {
-        List<Sala> salas = salaRepository.findAll();
+    public String listarSalas(@RequestParam(required = false) String aposId, Model model) {
+        // Lê uma sala a mais só para saber se existe próxima página
+        List<Sala> salas = catalogo.getSalas(aposId, tamanhoPagina + 1);
+        String proximoId = null;
+        if (salas.size() > tamanhoPagina) {
+            salas = salas.subList(0, tamanhoPagina);
+            proximoId = salas.get(salas.size() - 1).getId();
+        }
         model.addAttribute("salas", salas);
+        model.addAttribute("proximoId", proximoId);
         return "salas-lista";
     }
 
+    // Busca de salas livres num intervalo, com capacidade mínima e equipamentos
+    // obrigatórios. Sem intervalo informado, mostra apenas o formulário.
+    @GetMapping("/disponiveis")
+    public String buscarSalasDisponiveis(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim,
+            @RequestParam(defaultValue = "1") int capacidade,
+            @RequestParam(required = false) List<Long> equipamentos,
+            Model model) {
+        List<Long> exigidos = equipamentos != null ? equipamentos : List.of();
+        model.addAttribute("todosEquipamentos", catalogo.getEquipamentos());
+        model.addAttribute("dataInicio", dataInicio);
+        model.addAttribute("dataFim", dataFim);
+        model.addAttribute("capacidade", capacidade);
+        model.addAttribute("equipamentosExigidos", exigidos);
+
+        if (dataInicio != null && dataFim != null) {
+            try {
+                model.addAttribute("salasLivres",
+                        catalogo.buscarSalasLivres(dataInicio, dataFim, capacidade, exigidos));
+            } catch (IllegalArgumentException e) {
+                model.addAttribute("mensagemErro", e.getMessage());
+            }
+        }
+        return "salas-disponiveis";
+    }
+
     @GetMapping("/nova")
     public String exibirFormularioNovaSala(Model model) {
         // Envia uma lista de todos os equipamentos para o formulário
-        model.addAttribute("todosEquipamentos", equipamentoRepository.findAll());
+        model.addAttribute("todosEquipamentos", catalogo.getEquipamentos());
         model.addAttribute("sala", new Sala());
         return "sala-form";
     }
@@ -57,7 +101,7 @@ public class SalaController {
         if (bindingResult.hasErrors()) {
             // Se houver erros, não tenta salvar.
             // Retorna para o formulário para mostrar os erros.
-            model.addAttribute("todosEquipamentos", equipamentoRepository.findAll()); // Recarrega os equipamentos
+            model.addAttribute("todosEquipamentos", catalogo.getEquipamentos()); // Recarrega os equipamentos
             return "sala-form";
         }
 
@@ -78,7 +122,7 @@ public class SalaController {
             return "redirect:/salas";
         }
         // Envia a lista de todos os equipamentos também para o formulário de edição
-        model.addAttribute("todosEquipamentos", equipamentoRepository.findAll());
+        model.addAttribute("todosEquipamentos", catalogo.getEquipamentos());
         model.addAttribute("sala", salaOptional.get());
         return "sala-form";
     }
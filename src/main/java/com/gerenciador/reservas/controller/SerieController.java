@@ -0,0 +1,92 @@
+package com.gerenciador.reservas.controller;
+
+import com.gerenciador.reservas.model.Frequencia;
+import com.gerenciador.reservas.model.Sala;
+import com.gerenciador.reservas.model.SerieDeReservas;
+import com.gerenciador.reservas.service.GerenciadorDeReservas;
+import com.gerenciador.reservas.service.GerenciadorDeSeries;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.time.LocalDateTime;
+
+@Controller
+@RequestMapping("/series")
+public class SerieController {
+
+    @Autowired
+    private GerenciadorDeSeries gerenciadorDeSeries;
+
+    @Autowired
+    private GerenciadorDeReservas gerenciador;
+
+    @GetMapping
+    public String listarSeries(Model model) {
+        model.addAttribute("series", gerenciadorDeSeries.getSeries());
+        return "series-lista";
+    }
+
+    // Vem do formulário de reserva recorrente da página principal
+    @PostMapping("/criar")
+    public String criarSerie(@RequestParam String idSala,
+            @RequestParam String nomeResponsavel,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim,
+            @RequestParam Frequencia frequencia,
+            @RequestParam int ocorrencias,
+            RedirectAttributes redirectAttributes) {
+        try {
+            Sala sala = gerenciador.getSalaById(idSala);
+            SerieDeReservas serie = gerenciadorDeSeries.criarSerie(sala, nomeResponsavel, frequencia, dataInicio,
+                    dataFim, ocorrencias);
+            redirectAttributes.addFlashAttribute("mensagemSucesso",
+                    "Reserva recorrente criada com " + serie.getOcorrencias() + " ocorrências!");
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            redirectAttributes.addFlashAttribute("mensagemErro", e.getMessage());
+        }
+        return "redirect:/";
+    }
+
+    @GetMapping("/editar/{id}")
+    public String exibirFormularioEditar(@PathVariable Long id, Model model) {
+        model.addAttribute("serie", gerenciadorDeSeries.getSerieById(id));
+        model.addAttribute("frequencias", Frequencia.values());
+        return "serie-form";
+    }
+
+    @PostMapping("/salvar")
+    public String salvarSerie(@RequestParam Long id,
+            @RequestParam String nomeResponsavel,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim,
+            @RequestParam Frequencia frequencia,
+            @RequestParam int ocorrencias,
+            RedirectAttributes redirectAttributes) {
+        try {
+            gerenciadorDeSeries.editarSerie(id, nomeResponsavel, frequencia, dataInicio, dataFim, ocorrencias);
+            redirectAttributes.addFlashAttribute("mensagemSucesso", "Reserva recorrente atualizada com sucesso!");
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            redirectAttributes.addFlashAttribute("mensagemErro", e.getMessage());
+        }
+        return "redirect:/series";
+    }
+
+    @GetMapping("/cancelar/{id}")
+    public String cancelarSerie(@PathVariable Long id, RedirectAttributes redirectAttributes) {
+        try {
+            gerenciadorDeSeries.cancelarSerie(id);
+            redirectAttributes.addFlashAttribute("mensagemSucesso", "Reserva recorrente cancelada com sucesso!");
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            redirectAttributes.addFlashAttribute("mensagemErro", e.getMessage());
+        }
+        return "redirect:/series";
+    }
+}
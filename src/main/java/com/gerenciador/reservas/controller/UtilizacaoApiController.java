@@ -0,0 +1,59 @@
+package com.gerenciador.reservas.controller;
+
+import com.gerenciador.reservas.service.CatalogoDeSalas;
+import com.gerenciador.reservas.service.RelatorioDeUtilizacao;
+import com.gerenciador.reservas.service.UtilizacaoDasSalas;
+import com.gerenciador.reservas.viewModel.UtilizacaoNoPeriodo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/utilizacao")
+public class UtilizacaoApiController {
+
+    // Sem período informado, as últimas semanas completas
+    private static final int SEMANAS_PADRAO = 4;
+
+    @Autowired
+    private RelatorioDeUtilizacao relatorio;
+
+    @Autowired
+    private UtilizacaoDasSalas utilizacao;
+
+    @Autowired
+    private CatalogoDeSalas catalogo;
+
+    // Taxas de ocupação em [de, ate) por sala (todas, ou só as de 'idSala', que
+    // pode se repetir), por dia da semana e por hora. A ETag junta a versão dos
+    // contadores de utilização e a do catálogo.
+    @GetMapping
+    public ResponseEntity<UtilizacaoNoPeriodo> relatorio(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+            @RequestParam(required = false) List<String> idSala,
+            WebRequest request) {
+        LocalDate fim = ate != null ? ate : LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate inicio = de != null ? de : fim.minusWeeks(SEMANAS_PADRAO);
+        String etag = RespostaCondicional.etag("utilizacao", utilizacao.getVersao(), catalogo.getVersao(), inicio,
+                fim, idSala);
+        try {
+            return RespostaCondicional.responder(request, etag,
+                    () -> ResponseEntity.ok(relatorio.montar(inicio, fim, idSala)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.gerenciador.reservas.model;
+
+import com.gerenciador.reservas.service.CatalogoDeSalas;
+
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Avisa o CatalogoDeSalas sempre que uma Sala ou um Equipamento muda, depois do
+ * commit.
+ *
+ * Usa os eventos do Hibernate em vez de @PostUpdate porque associar ou
+ * desassociar equipamentos altera apenas a coleção da Sala, e nesse caso os
+ * callbacks JPA da entidade não são chamados. Registrado em HibernateEventosConfig.
+ */
+@Component
+public class CatalogoListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionRecreateEventListener, PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    // @Lazy pelo mesmo motivo do ReservaListener
+    @Autowired
+    @Lazy
+    private CatalogoDeSalas catalogo;
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        aposAlterar(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        aposAlterar(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        aposAlterar(event.getEntity());
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        aposAlterarColecao(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        aposAlterarColecao(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        aposAlterarColecao(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void aposAlterarColecao(AbstractCollectionEvent event) {
+        aposAlterar(event.getAffectedOwnerOrNull());
+    }
+
+    private void aposAlterar(Object entidade) {
+        if (!(entidade instanceof Sala) && !(entidade instanceof Equipamento)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            catalogo.invalidar();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                catalogo.invalidar();
+            }
+        });
+    }
+}
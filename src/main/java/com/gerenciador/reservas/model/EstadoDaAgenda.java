@@ -0,0 +1,9 @@
+package com.gerenciador.reservas.model;
+
+/**
+ * O que o modo OTIMISTA precisa saber da sala antes de gravar: o contador de
+ * reservas gravadas (a versão da agenda) e se o horário pedido já está ocupado.
+ * Lidos juntos, numa única consulta.
+ */
+public record EstadoDaAgenda(long reservasGravadas, boolean ocupada) {
+}
@@ -0,0 +1,27 @@
+package com.gerenciador.reservas.model;
+
+import java.time.Period;
+
+/**
+ * De quanto em quanto tempo uma série de reservas se repete.
+ */
+public enum Frequencia {
+    DIARIA("Diária", Period.ofDays(1)),
+    SEMANAL("Semanal", Period.ofWeeks(1));
+
+    private final String descricao;
+    private final Period intervalo;
+
+    Frequencia(String descricao, Period intervalo) {
+        this.descricao = descricao;
+        this.intervalo = intervalo;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public Period getIntervalo() {
+        return intervalo;
+    }
+}
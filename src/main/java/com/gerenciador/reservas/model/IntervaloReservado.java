@@ -0,0 +1,10 @@
+package com.gerenciador.reservas.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção enxuta de uma Reserva: apenas o necessário para saber quando a sala
+ * está ocupada. Usada para carregar o índice em memória sem hidratar entidades.
+ */
+public record IntervaloReservado(Long idReserva, String idSala, LocalDateTime dataInicio, LocalDateTime dataFim) {
+}
@@ -1,17 +1,35 @@
 package com.gerenciador.reservas.model;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 
+// Índices das consultas mais frequentes (ver PlanoDeConsultasTest):
+// - conflito/janela por sala: sala_id = ? and data_inicio < ? and data_fim > ?
+// - listagem paginada: order by data_inicio, id_reserva
+// - ocorrências de uma série: serie_id = ?
 @Entity
+@EntityListeners(ReservaListener.class)
+@Table(indexes = {
+        @Index(name = "idx_reserva_sala_periodo", columnList = "sala_id, data_inicio, data_fim"),
+        @Index(name = "idx_reserva_inicio_id", columnList = "data_inicio, id_reserva"),
+        @Index(name = "idx_reserva_serie", columnList = "serie_id")
+})
 public class Reserva {
 
+    // Sequência com alocação em bloco (pooled): o Hibernate reserva 50 ids por ida
+    // ao banco e consegue agrupar os INSERTs em lote (ver hibernate.jdbc.batch_size).
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reserva_seq")
+    @SequenceGenerator(name = "reserva_seq", sequenceName = "reserva_seq", allocationSize = 50)
     private Long idReserva;
 
     private String nomeResponsavel;
@@ -22,6 +40,10 @@ public class Reserva {
     private LocalDateTime dataInicio;
     private LocalDateTime dataFim;
 
+    // Preenchido apenas para ocorrências de uma reserva recorrente
+    @ManyToOne(fetch = FetchType.LAZY)
+    private SerieDeReservas serie;
+
     public Reserva() {
     }
 
@@ -71,4 +93,12 @@ public class Reserva {
     public void setDataFim(LocalDateTime dataFim) {
         this.dataFim = dataFim;
     }
-}
\ No newline at end of file
+
+    public SerieDeReservas getSerie() {
+        return serie;
+    }
+
+    public void setSerie(SerieDeReservas serie) {
+        this.serie = serie;
+    }
+}
@@ -0,0 +1,76 @@
+package com.gerenciador.reservas.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Reserva já terminada, movida da tabela de reservas pelo ArquivoDeReservas.
+ * Mantém o id e os dados que a Reserva tinha; nada aqui é alterado depois.
+ *
+ * Sem EntityListeners: arquivar não é cancelar, então nem o índice nem as telas
+ * conectadas recebem eventos por linha (o ArquivoDeReservas avisa o índice de
+ * uma vez, a cada bloco).
+ */
+// Índices das leituras do histórico:
+// - conflito/janela por sala: sala_id = ? and data_inicio < ? and data_fim > ?
+// - listagem paginada: order by data_inicio, id_reserva
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_reserva_arquivada_sala_periodo", columnList = "sala_id, data_inicio, data_fim"),
+        @Index(name = "idx_reserva_arquivada_inicio_id", columnList = "data_inicio, id_reserva")
+})
+public class ReservaArquivada {
+
+    @Id
+    private Long idReserva;
+
+    private String nomeResponsavel;
+
+    @ManyToOne
+    private Sala sala;
+
+    private LocalDateTime dataInicio;
+    private LocalDateTime dataFim;
+
+    private LocalDateTime arquivadaEm;
+
+    // Preenchido apenas para ocorrências de uma série (arquivada inteira)
+    @ManyToOne(fetch = FetchType.LAZY)
+    private SerieDeReservas serie;
+
+    public ReservaArquivada() {
+    }
+
+    public Long getIdReserva() {
+        return idReserva;
+    }
+
+    public String getNomeResponsavel() {
+        return nomeResponsavel;
+    }
+
+    public Sala getSala() {
+        return sala;
+    }
+
+    public LocalDateTime getDataInicio() {
+        return dataInicio;
+    }
+
+    public LocalDateTime getDataFim() {
+        return dataFim;
+    }
+
+    public LocalDateTime getArquivadaEm() {
+        return arquivadaEm;
+    }
+
+    public SerieDeReservas getSerie() {
+        return serie;
+    }
+}
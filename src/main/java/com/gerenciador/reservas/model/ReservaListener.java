@@ -0,0 +1,93 @@
+package com.gerenciador.reservas.model;
+
+import com.gerenciador.reservas.service.IndiceDeReservas;
+import com.gerenciador.reservas.viewModel.EventoDeReserva;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Mantém o IndiceDeReservas em sincronia com a tabela de reservas e avisa as
+ * telas conectadas (EventoDeReserva, ver TransmissorDeReservas).
+ *
+ * As alterações só chegam ao índice e às telas depois do commit, para que uma
+ * transação desfeita nunca deixe uma reserva "fantasma" em memória. A exceção é
+ * a maior duração do índice, que avança já antes do commit (ver
+ * IndiceDeReservas.anteciparDuracao). Do flush ao aviso depois do commit a
+ * alteração conta como pendente no índice (ver IndiceDeReservas.iniciarAlteracao).
+ */
+@Component
+public class ReservaListener {
+
+    // @Lazy: o listener é criado junto com o EntityManagerFactory, antes de o
+    // índice (que depende do repositório) poder existir.
+    @Autowired
+    @Lazy
+    private IndiceDeReservas indice;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @PostPersist
+    public void aposCriar(Reserva reserva) {
+        aposSalvar(reserva, EventoDeReserva.Tipo.CRIADA);
+    }
+
+    @PostUpdate
+    public void aposAlterar(Reserva reserva) {
+        aposSalvar(reserva, EventoDeReserva.Tipo.ALTERADA);
+    }
+
+    @PostRemove
+    public void aposRemover(Reserva reserva) {
+        Long idReserva = reserva.getIdReserva();
+        EventoDeReserva evento = evento(reserva, EventoDeReserva.Tipo.CANCELADA);
+        aposCommit(() -> {
+            indice.remover(idReserva);
+            eventos.publishEvent(evento);
+        });
+    }
+
+    private void aposSalvar(Reserva reserva, EventoDeReserva.Tipo tipo) {
+        IntervaloReservado intervalo = new IntervaloReservado(reserva.getIdReserva(), reserva.getSala().getId(),
+                reserva.getDataInicio(), reserva.getDataFim());
+        EventoDeReserva evento = evento(reserva, tipo);
+        indice.anteciparDuracao(intervalo);
+        aposCommit(() -> {
+            indice.registrar(intervalo);
+            eventos.publishEvent(evento);
+        });
+    }
+
+    private static EventoDeReserva evento(Reserva reserva, EventoDeReserva.Tipo tipo) {
+        return new EventoDeReserva(tipo, reserva.getIdReserva(), reserva.getSala().getId(),
+                reserva.getNomeResponsavel(), reserva.getDataInicio(), reserva.getDataFim());
+    }
+
+    private void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        indice.iniciarAlteracao();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                indice.concluirAlteracao();
+            }
+        });
+    }
+}
@@ -1,10 +1,18 @@
 package com.gerenciador.reservas.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.Column;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList; // Importar ArrayList
 import java.util.List;
@@ -31,8 +39,24 @@ public class Sala {
     @Min(value = 1, message = "A capacidade deve ser pelo menos 1")
     private int capacidade;
 
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    // Carregados só quando o caso de uso pede (ver os @EntityGraph do
+    // SalaRepository). O @BatchSize evita uma consulta por sala caso a coleção
+    // seja acessada em várias salas dentro da mesma sessão.
+    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
+    @JoinTable(name = "sala_equipamentos",
+            joinColumns = @JoinColumn(name = "sala_id"),
+            inverseJoinColumns = @JoinColumn(name = "equipamentos_id"),
+            indexes = @Index(name = "idx_sala_equipamentos_sala", columnList = "sala_id, equipamentos_id"))
     private List<Equipamento> equipamentos = new ArrayList<>();
+
+    // Contador de reservas gravadas na sala, usado como versão no modo OTIMISTA
+    // (ver ReservaOtimista). Só o UPDATE condicional do SalaRepository mexe nele:
+    // editar ou importar a sala nunca o sobrescreve.
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private long reservasGravadas;
+
     public Sala() {
     }
 
@@ -75,6 +99,13 @@ public class Sala {
         this.equipamentos = equipamentos;
     }
 
+    // Fica fora do JSON: o catálogo em memória serve salas lidas antes das
+    // últimas reservas, então o valor publicado estaria sempre atrasado.
+    @JsonIgnore
+    public long getReservasGravadas() {
+        return reservasGravadas;
+    }
+
     public void adicionarEquipamento(Equipamento equipamento) {
         if (this.equipamentos == null) {
             this.equipamentos = new ArrayList<>();
@@ -0,0 +1,139 @@
+package com.gerenciador.reservas.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reserva recorrente ("toda terça das 10h às 12h por 16 semanas"). Cada
+ * ocorrência vira uma Reserva comum apontando para a série, de modo que a
+ * checagem de conflitos e a listagem continuam funcionando sem mudanças.
+ *
+ * Quando a última ocorrência sai do horizonte do arquivo, o ArquivoDeReservas
+ * move todas as ocorrências de uma vez e marca a série como arquivada; a série
+ * fica para o histórico, mas não pode mais ser editada nem cancelada.
+ */
+@Entity
+public class SerieDeReservas {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    private String nomeResponsavel;
+
+    @ManyToOne
+    private Sala sala;
+
+    @Enumerated(EnumType.STRING)
+    private Frequencia frequencia;
+
+    // Início e fim da primeira ocorrência
+    private LocalDateTime dataInicio;
+    private LocalDateTime dataFim;
+
+    private int ocorrencias;
+
+    // As ocorrências já estão em reserva_arquivada (ver ArquivoDeReservas)
+    private boolean arquivada;
+
+    public SerieDeReservas() {
+    }
+
+    public SerieDeReservas(String nomeResponsavel, Sala sala, Frequencia frequencia, LocalDateTime dataInicio,
+            LocalDateTime dataFim, int ocorrencias) {
+        this.nomeResponsavel = nomeResponsavel;
+        this.sala = sala;
+        this.frequencia = frequencia;
+        this.dataInicio = dataInicio;
+        this.dataFim = dataFim;
+        this.ocorrencias = ocorrencias;
+    }
+
+    // Gera as ocorrências em ordem cronológica (a primeira é a própria dataInicio).
+    public List<IntervaloReservado> expandir() {
+        List<IntervaloReservado> resultado = new ArrayList<>(ocorrencias);
+        for (int i = 0; i < ocorrencias; i++) {
+            LocalDateTime inicio = dataInicio.plus(frequencia.getIntervalo().multipliedBy(i));
+            LocalDateTime fim = dataFim.plus(frequencia.getIntervalo().multipliedBy(i));
+            resultado.add(new IntervaloReservado(null, sala.getId(), inicio, fim));
+        }
+        return resultado;
+    }
+
+    public LocalDateTime getFimDaUltimaOcorrencia() {
+        return dataFim.plus(frequencia.getIntervalo().multipliedBy(ocorrencias - 1));
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNomeResponsavel() {
+        return nomeResponsavel;
+    }
+
+    public void setNomeResponsavel(String nomeResponsavel) {
+        this.nomeResponsavel = nomeResponsavel;
+    }
+
+    public Sala getSala() {
+        return sala;
+    }
+
+    public void setSala(Sala sala) {
+        this.sala = sala;
+    }
+
+    public Frequencia getFrequencia() {
+        return frequencia;
+    }
+
+    public void setFrequencia(Frequencia frequencia) {
+        this.frequencia = frequencia;
+    }
+
+    public LocalDateTime getDataInicio() {
+        return dataInicio;
+    }
+
+    public void setDataInicio(LocalDateTime dataInicio) {
+        this.dataInicio = dataInicio;
+    }
+
+    public LocalDateTime getDataFim() {
+        return dataFim;
+    }
+
+    public void setDataFim(LocalDateTime dataFim) {
+        this.dataFim = dataFim;
+    }
+
+    public int getOcorrencias() {
+        return ocorrencias;
+    }
+
+    public void setOcorrencias(int ocorrencias) {
+        this.ocorrencias = ocorrencias;
+    }
+
+    public boolean isArquivada() {
+        return arquivada;
+    }
+
+    public void setArquivada(boolean arquivada) {
+        this.arquivada = arquivada;
+    }
+}
@@ -0,0 +1,81 @@
+package com.gerenciador.reservas.repository;
+
+import com.gerenciador.reservas.model.IntervaloReservado;
+import com.gerenciador.reservas.model.ReservaArquivada;
+import com.gerenciador.reservas.viewModel.ReservaViewModel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface ReservaArquivadaRepository extends JpaRepository<ReservaArquivada, Long> {
+
+    // Copia as reservas para o histórico num único INSERT ... SELECT, sem carregar
+    // entidades. Quem chama apaga as mesmas linhas da tabela de reservas na mesma
+    // transação (ver ArquivoDeReservas).
+    @Modifying
+    @Query("insert into ReservaArquivada (idReserva, nomeResponsavel, sala, dataInicio, dataFim, arquivadaEm, serie) "
+            + "select r.idReserva, r.nomeResponsavel, r.sala, r.dataInicio, r.dataFim, :agora, r.serie "
+            + "from Reserva r where r.idReserva in :ids")
+    int copiarReservas(@Param("ids") Collection<Long> ids, @Param("agora") LocalDateTime agora);
+
+    // Carga do índice: só o necessário para os bits de ocupação e os contadores de
+    // utilização.
+    @Query("select new com.gerenciador.reservas.model.IntervaloReservado(a.idReserva, a.sala.id, a.dataInicio, a.dataFim) "
+            + "from ReservaArquivada a order by a.sala.id, a.dataInicio")
+    List<IntervaloReservado> findAllIntervalos();
+
+    // Mesma semântica de ReservaRepository.findIntervalosNaJanela: reservas
+    // arquivadas da sala que tocam [inicio, fim), em ordem de início.
+    @Query("select new com.gerenciador.reservas.model.IntervaloReservado(a.idReserva, a.sala.id, a.dataInicio, a.dataFim) "
+            + "from ReservaArquivada a where a.sala.id = :idSala and a.dataFim > :inicio and a.dataInicio < :fim "
+            + "order by a.dataInicio, a.idReserva")
+    List<IntervaloReservado> findIntervalosNaJanela(@Param("idSala") String idSala,
+            @Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim, Limit limite);
+
+    // Listagem do histórico, paginada por chave como a de reservas: reservas que
+    // começam em [de, ate).
+    @Query("select new com.gerenciador.reservas.viewModel.ReservaViewModel("
+            + "a.idReserva, a.nomeResponsavel, s.nome, a.dataInicio, a.dataFim) "
+            + "from ReservaArquivada a left join a.sala s "
+            + "where (:de is null or a.dataInicio >= :de) and (:ate is null or a.dataInicio < :ate) "
+            + "and (:aposInicio is null or a.dataInicio > :aposInicio "
+            + "     or (a.dataInicio = :aposInicio and a.idReserva > :aposId)) "
+            + "order by a.dataInicio, a.idReserva")
+    List<ReservaViewModel> findPagina(@Param("de") LocalDateTime de, @Param("ate") LocalDateTime ate,
+            @Param("aposInicio") LocalDateTime aposInicio, @Param("aposId") Long aposId, Limit limite);
+
+    @Query("select new com.gerenciador.reservas.viewModel.ReservaViewModel("
+            + "a.idReserva, a.nomeResponsavel, s.nome, a.dataInicio, a.dataFim) "
+            + "from ReservaArquivada a join a.sala s "
+            + "where a.sala.id = :idSala and (:de is null or a.dataInicio >= :de) "
+            + "and (:ate is null or a.dataInicio < :ate) "
+            + "and (:aposInicio is null or a.dataInicio > :aposInicio "
+            + "     or (a.dataInicio = :aposInicio and a.idReserva > :aposId)) "
+            + "order by a.dataInicio, a.idReserva")
+    List<ReservaViewModel> findPaginaDaSala(@Param("idSala") String idSala, @Param("de") LocalDateTime de,
+            @Param("ate") LocalDateTime ate, @Param("aposInicio") LocalDateTime aposInicio,
+            @Param("aposId") Long aposId, Limit limite);
+
+    // Exportação: como ReservaRepository.streamParaExportacao, na mesma ordem, para
+    // o ExportadorDeReservas intercalar as duas.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select a from ReservaArquivada a join fetch a.sala "
+            + "where (:de is null or a.dataInicio >= :de) and (:ate is null or a.dataInicio < :ate) "
+            + "order by a.dataInicio, a.idReserva")
+    Stream<ReservaArquivada> streamParaExportacao(@Param("de") LocalDateTime de, @Param("ate") LocalDateTime ate);
+}
@@ -1,12 +1,25 @@
 package com.gerenciador.reservas.repository;
 
+import com.gerenciador.reservas.model.IntervaloReservado;
 import com.gerenciador.reservas.model.Reserva;
 import com.gerenciador.reservas.model.Sala;
+import com.gerenciador.reservas.model.SerieDeReservas;
+import com.gerenciador.reservas.viewModel.ReservaViewModel;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReservaRepository extends JpaRepository<Reserva, Long> {
@@ -17,4 +30,103 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
     // com um determinado intervalo de tempo.
     List<Reserva> findBySalaAndDataFimAfterAndDataInicioBefore(Sala sala, LocalDateTime dataInicio,
             LocalDateTime dataFim);
-}
\ No newline at end of file
+
+    // Carga do índice em memória: só os quatro campos necessários, sem trazer a
+    // Sala (e os equipamentos dela) junto.
+    @Query("select new com.gerenciador.reservas.model.IntervaloReservado(r.idReserva, r.sala.id, r.dataInicio, r.dataFim) "
+            + "from Reserva r order by r.sala.id, r.dataInicio")
+    List<IntervaloReservado> findAllIntervalos();
+
+    // Reservas da sala que tocam a janela [inicio, fim), já ordenadas por início,
+    // para checar várias ocorrências de uma vez numa única varredura.
+    @Query("select new com.gerenciador.reservas.model.IntervaloReservado(r.idReserva, r.sala.id, r.dataInicio, r.dataFim) "
+            + "from Reserva r where r.sala.id = :idSala and r.dataFim > :inicio and r.dataInicio < :fim "
+            + "order by r.dataInicio")
+    List<IntervaloReservado> findIntervalosNaJanela(@Param("idSala") String idSala,
+            @Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    // Mesma janela, mas limitada: usada para percorrer a agenda aos poucos, sem
+    // carregar todas as reservas da sala.
+    @Query("select new com.gerenciador.reservas.model.IntervaloReservado(r.idReserva, r.sala.id, r.dataInicio, r.dataFim) "
+            + "from Reserva r where r.sala.id = :idSala and r.dataFim > :inicio and r.dataInicio < :fim "
+            + "order by r.dataInicio, r.idReserva")
+    List<IntervaloReservado> findIntervalosNaJanela(@Param("idSala") String idSala,
+            @Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim, Limit limite);
+
+    // Listagem paginada por chave (keyset): em vez de OFFSET, cada página começa
+    // logo depois da última (dataInicio, idReserva) da página anterior.
+    // A projeção monta o ReservaViewModel direto no SELECT: só as colunas exibidas
+    // são lidas e nenhuma entidade (nem Sala, nem equipamentos) é carregada.
+    // Com e sem filtro de sala são duas consultas: um "(:idSala is null or ...)"
+    // impediria o banco de usar o índice da sala (ver PlanoDeConsultasTest).
+    // Sem filtro, o LEFT JOIN (a sala nunca é nula) faz o banco partir da Reserva
+    // e percorrer o índice (data_inicio, id_reserva) já na ordem da página, parando
+    // no LIMIT; com INNER JOIN o H2 preferia varrer a Sala e ordenar tudo depois.
+    // 'desde' é um limite inferior para dataInicio (ver listarReservas): sem ele o
+    // banco teria de pular todo o histórico de reservas já terminadas.
+    @Query("select new com.gerenciador.reservas.viewModel.ReservaViewModel("
+            + "r.idReserva, r.nomeResponsavel, s.nome, r.dataInicio, r.dataFim) "
+            + "from Reserva r left join r.sala s "
+            + "where r.dataInicio >= :desde and r.dataFim > :de "
+            + "and (:ate is null or r.dataInicio < :ate) "
+            + "and (:aposInicio is null or r.dataInicio > :aposInicio "
+            + "     or (r.dataInicio = :aposInicio and r.idReserva > :aposId)) "
+            + "order by r.dataInicio, r.idReserva")
+    List<ReservaViewModel> findPagina(@Param("desde") LocalDateTime desde, @Param("de") LocalDateTime de,
+            @Param("ate") LocalDateTime ate, @Param("aposInicio") LocalDateTime aposInicio,
+            @Param("aposId") Long aposId, Limit limite);
+
+    @Query("select new com.gerenciador.reservas.viewModel.ReservaViewModel("
+            + "r.idReserva, r.nomeResponsavel, s.nome, r.dataInicio, r.dataFim) "
+            + "from Reserva r join r.sala s "
+            + "where r.sala.id = :idSala and r.dataInicio >= :desde and r.dataFim > :de "
+            + "and (:ate is null or r.dataInicio < :ate) "
+            + "and (:aposInicio is null or r.dataInicio > :aposInicio "
+            + "     or (r.dataInicio = :aposInicio and r.idReserva > :aposId)) "
+            + "order by r.dataInicio, r.idReserva")
+    List<ReservaViewModel> findPaginaDaSala(@Param("idSala") String idSala, @Param("desde") LocalDateTime desde,
+            @Param("de") LocalDateTime de,
+            @Param("ate") LocalDateTime ate, @Param("aposInicio") LocalDateTime aposInicio,
+            @Param("aposId") Long aposId, Limit limite);
+
+    List<Reserva> findBySerie(SerieDeReservas serie);
+
+    // Arquivamento: o próximo bloco de reservas avulsas que terminaram antes de
+    // 'antesDe', em ordem de início, continuando depois de (aposInicio, aposId).
+    // Quem termina antes de 'antesDe' também começa antes, então o banco percorre
+    // o índice (data_inicio, id_reserva) só até ali. Ocorrências de séries
+    // ficam de fora: a série é arquivada inteira, à parte (ver travarOcorrencias).
+    @Query("select new com.gerenciador.reservas.model.IntervaloReservado(r.idReserva, r.sala.id, r.dataInicio, r.dataFim) "
+            + "from Reserva r where r.dataInicio < :antesDe and r.dataFim < :antesDe and r.serie is null "
+            + "and (:aposInicio is null or r.dataInicio > :aposInicio "
+            + "     or (r.dataInicio = :aposInicio and r.idReserva > :aposId)) "
+            + "order by r.dataInicio, r.idReserva")
+    List<IntervaloReservado> findIntervalosParaArquivar(@Param("antesDe") LocalDateTime antesDe,
+            @Param("aposInicio") LocalDateTime aposInicio, @Param("aposId") Long aposId, Limit limite);
+
+    // Trava, dentro da transação do arquivamento, as linhas do bloco que ainda
+    // podem ser arquivadas (alguma pode ter sido cancelada ou alterada depois da
+    // leitura do bloco).
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r.idReserva from Reserva r "
+            + "where r.idReserva in :ids and r.dataFim < :antesDe and r.serie is null")
+    List<Long> travarParaArquivar(@Param("ids") Collection<Long> ids, @Param("antesDe") LocalDateTime antesDe);
+
+    // Trava todas as ocorrências da série, que vão juntas para o arquivo.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r.idReserva from Reserva r where r.serie = :serie")
+    List<Long> travarOcorrencias(@Param("serie") SerieDeReservas serie);
+
+    // Exportação: percorre as reservas que começam em [de, ate) com um cursor, em
+    // blocos de 500 linhas (fetch size), sem montar a lista inteira. Somente
+    // leitura: o Hibernate não guarda cópias para dirty checking. Precisa de uma
+    // transação aberta enquanto o Stream é consumido (ver ExportadorDeReservas).
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select r from Reserva r join fetch r.sala "
+            + "where (:de is null or r.dataInicio >= :de) and (:ate is null or r.dataInicio < :ate) "
+            + "order by r.dataInicio, r.idReserva")
+    Stream<Reserva> streamParaExportacao(@Param("de") LocalDateTime de, @Param("ate") LocalDateTime ate);
+}
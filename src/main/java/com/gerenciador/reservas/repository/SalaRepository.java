@@ -1,13 +1,71 @@
 package com.gerenciador.reservas.repository;
 
+import com.gerenciador.reservas.model.EstadoDaAgenda;
 import com.gerenciador.reservas.model.Sala;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface SalaRepository extends JpaRepository<Sala, String> {
     // O JpaRepository já nos dá métodos como findAll(), findById(), save(),
     // deleteById(), etc.
     // O primeiro parâmetro é a Entidade (Sala) e o segundo é o tipo da Chave
     // Primária (String).
-}
\ No newline at end of file
+
+    // Os equipamentos são LAZY. findAll() traz só as salas; quem precisa da
+    // coleção usa um dos métodos abaixo, que a carregam na mesma consulta.
+
+    // Salas já com os equipamentos carregados, numa única consulta.
+    @EntityGraph(attributePaths = "equipamentos")
+    @Query("select s from Sala s")
+    List<Sala> findAllComEquipamentos();
+
+    // Uma sala é sempre lida para edição ou para reservar, e o formulário de
+    // edição mostra os equipamentos: vale carregar junto.
+    @Override
+    @EntityGraph(attributePaths = "equipamentos")
+    Optional<Sala> findById(String id);
+
+    // Importação: quais destes ids já estão cadastrados, sem carregar as salas
+    @Query("select s.id from Sala s where s.id in :ids")
+    List<String> findIdsExistentes(Collection<String> ids);
+
+    // Importação de equipamentos: as salas citadas num bloco, prontas para receber
+    // os equipamentos novos.
+    @EntityGraph(attributePaths = "equipamentos")
+    @Query("select s from Sala s where s.id in :ids")
+    List<Sala> findAllComEquipamentosById(Collection<String> ids);
+
+    // Modo OTIMISTA: a versão da agenda da sala (o contador de reservas gravadas)
+    // e se alguma reserva toca [inicio, fim). 'desde' (início menos a maior
+    // duração existente) limita a leitura do índice (sala_id, data_inicio), sem
+    // percorrer o histórico inteiro da sala.
+    @Query("select new com.gerenciador.reservas.model.EstadoDaAgenda(s.reservasGravadas, "
+            + "case when exists (select 1 from Reserva r where r.sala.id = s.id and r.dataInicio >= :desde "
+            + "and r.dataInicio < :fim and r.dataFim > :inicio) then true else false end) "
+            + "from Sala s where s.id = :id")
+    Optional<EstadoDaAgenda> findEstadoDaAgenda(@Param("id") String id, @Param("desde") LocalDateTime desde,
+            @Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    // Incrementa o contador só se ele ainda for o lido antes da checagem de
+    // conflitos; 0 linhas alteradas quer dizer que outra reserva entrou no meio.
+    @Modifying
+    @Query("update Sala s set s.reservasGravadas = s.reservasGravadas + 1 "
+            + "where s.id = :id and s.reservasGravadas = :esperado")
+    int incrementarReservasGravadas(@Param("id") String id, @Param("esperado") long esperado);
+
+    // Gravações sob trava (séries e lotes) também contam: assim uma reserva
+    // otimista que checou conflitos antes delas não é gravada por cima.
+    @Modifying
+    @Query("update Sala s set s.reservasGravadas = s.reservasGravadas + 1 where s.id in :ids")
+    int incrementarReservasGravadas(@Param("ids") Collection<String> ids);
+}
@@ -0,0 +1,30 @@
+package com.gerenciador.reservas.repository;
+
+import com.gerenciador.reservas.model.SerieDeReservas;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SerieDeReservasRepository extends JpaRepository<SerieDeReservas, Long> {
+
+    // Séries ainda não arquivadas cuja primeira ocorrência terminou antes de
+    // 'antesDe'. O fim da última ocorrência depende da frequência, então quem
+    // chama ainda filtra por getFimDaUltimaOcorrencia().
+    @Query("select s from SerieDeReservas s where s.arquivada = false and s.dataFim < :antesDe "
+            + "order by s.dataInicio, s.id")
+    List<SerieDeReservas> findCandidatasAoArquivo(@Param("antesDe") LocalDateTime antesDe);
+
+    // Relê a série travando a linha: edição, cancelamento e arquivamento da
+    // mesma série passam um de cada vez.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from SerieDeReservas s where s.id = :id")
+    Optional<SerieDeReservas> travar(@Param("id") Long id);
+}
@@ -0,0 +1,259 @@
+package com.gerenciador.reservas.service;
+
+import com.gerenciador.reservas.model.IntervaloReservado;
+import com.gerenciador.reservas.model.SerieDeReservas;
+import com.gerenciador.reservas.repository.ReservaArquivadaRepository;
+import com.gerenciador.reservas.repository.ReservaRepository;
+import com.gerenciador.reservas.repository.SerieDeReservasRepository;
+import com.gerenciador.reservas.viewModel.PaginaDeReservas;
+import com.gerenciador.reservas.viewModel.ReservaViewModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Arquivamento de reservas: as que terminaram há mais de
+ * reservas.arquivo.horizonte saem da tabela de reservas e vão para a de reservas
+ * arquivadas (ReservaArquivada), para que a tabela em uso e os índices dela
+ * fiquem do tamanho das reservas que ainda importam para conflitos e listagens.
+ *
+ * Roda toda noite (reservas.arquivo.execucao), em blocos de reservas.arquivo.lote
+ * reservas, cada bloco numa transação curta: um INSERT ... SELECT e um DELETE.
+ * As travas das salas não são usadas; só as linhas do bloco ficam travadas, e só
+ * durante a transação dele. Depois do commit, o IndiceDeReservas tira as
+ * reservas do bloco das agendas e avisa os ouvintes (ver OcupacaoDasSalas).
+ *
+ * Séries vão inteiras: quando a última ocorrência termina antes do horizonte,
+ * todas as ocorrências são movidas no mesmo bloco e a série é marcada como
+ * arquivada (continua cadastrada, mas GerenciadorDeSeries recusa editá-la ou
+ * cancelá-la). A linha da série é travada, então arquivar, editar e cancelar a
+ * mesma série nunca se misturam.
+ *
+ * Quem checa conflitos consulta primeiro o índice (ou a tabela de reservas) e
+ * depois temConflito(). O limite do arquivo avança antes do primeiro commit e as
+ * agendas só perdem as reservas depois dele, então uma reserva movida entre as
+ * duas checagens aparece em pelo menos uma delas. Pedidos que começam depois do
+ * limite, quase todos, não consultam o histórico. Na carga do índice, o limite
+ * é recalculado com as reservas arquivadas que ele repassa (OuvinteDoIndice).
+ *
+ * Métrica: reservas.arquivo.reservas (reservas arquivadas).
+ */
+@Service
+public class ArquivoDeReservas implements OuvinteDoIndice {
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private ReservaArquivadaRepository arquivoRepository;
+
+    @Autowired
+    private SerieDeReservasRepository serieRepository;
+
+    @Autowired
+    private IndiceDeReservas indice;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry registro;
+
+    @Value("${reservas.arquivo.horizonte:90d}")
+    private Duration horizonte;
+
+    @Value("${reservas.arquivo.lote:1000}")
+    private int lote;
+
+    // Muda a cada bloco arquivado (usada na ETag do histórico)
+    private final AtomicLong versao = new AtomicLong();
+
+    // Toda reserva arquivada termina até aqui (null: nada arquivado). Só cresce.
+    private final AtomicReference<LocalDateTime> arquivadoAte = new AtomicReference<>();
+
+    private Counter arquivadas;
+
+    @PostConstruct
+    public void iniciar() {
+        arquivadas = Counter.builder("reservas.arquivo.reservas")
+                .description("Reservas movidas para a tabela de reservas arquivadas")
+                .register(registro);
+        indice.inscrever(this);
+    }
+
+    @Override
+    public void aoCarregarArquivada(IntervaloReservado intervalo) {
+        avancarArquivo(intervalo.dataFim());
+    }
+
+    @Scheduled(cron = "${reservas.arquivo.execucao:0 0 4 * * *}")
+    public int arquivar() {
+        return arquivar(LocalDateTime.now().minus(horizonte));
+    }
+
+    // Arquiva as reservas avulsas que terminaram antes de 'antesDe', e as séries
+    // cuja última ocorrência terminou antes dele, e devolve quantas reservas
+    // foram movidas.
+    public synchronized int arquivar(LocalDateTime antesDe) {
+        int total = 0;
+        LocalDateTime aposInicio = null;
+        Long aposId = null;
+        while (true) {
+            List<IntervaloReservado> bloco = reservaRepository.findIntervalosParaArquivar(antesDe, aposInicio, aposId,
+                    Limit.of(lote));
+            if (bloco.isEmpty()) {
+                break;
+            }
+            IntervaloReservado ultimo = bloco.get(bloco.size() - 1);
+            aposInicio = ultimo.dataInicio();
+            aposId = ultimo.idReserva();
+
+            avancarArquivo(antesDe);
+            List<Long> ids = bloco.stream().map(IntervaloReservado::idReserva).toList();
+            LocalDateTime agora = LocalDateTime.now();
+            // Só as linhas que continuam arquiváveis: alguma pode ter sido cancelada
+            // (ou alterada) depois da leitura do bloco
+            List<Long> movidas = transactionTemplate.execute(status -> {
+                List<Long> travadas = reservaRepository.travarParaArquivar(ids, antesDe);
+                if (!travadas.isEmpty()) {
+                    arquivoRepository.copiarReservas(travadas, agora);
+                    reservaRepository.deleteAllByIdInBatch(travadas);
+                }
+                return travadas;
+            });
+
+            indice.arquivar(movidas);
+            arquivadas.increment(movidas.size());
+            versao.incrementAndGet();
+            total += movidas.size();
+            if (bloco.size() < lote) {
+                break;
+            }
+        }
+        return total + arquivarSeries(antesDe);
+    }
+
+    // Cada bloco junta séries até somar 'lote' ocorrências; uma série maior que o
+    // lote vai sozinha, porque nunca é dividida.
+    private int arquivarSeries(LocalDateTime antesDe) {
+        List<SerieDeReservas> candidatas = serieRepository.findCandidatasAoArquivo(antesDe).stream()
+                .filter(serie -> serie.getFimDaUltimaOcorrencia().isBefore(antesDe))
+                .toList();
+        int total = 0;
+        int proxima = 0;
+        while (proxima < candidatas.size()) {
+            List<Long> idsDasSeries = new ArrayList<>();
+            int ocorrencias = 0;
+            while (proxima < candidatas.size() && (idsDasSeries.isEmpty()
+                    || ocorrencias + candidatas.get(proxima).getOcorrencias() <= lote)) {
+                ocorrencias += candidatas.get(proxima).getOcorrencias();
+                idsDasSeries.add(candidatas.get(proxima).getId());
+                proxima++;
+            }
+
+            avancarArquivo(antesDe);
+            LocalDateTime agora = LocalDateTime.now();
+            List<Long> movidas = transactionTemplate.execute(status -> {
+                List<Long> travadas = new ArrayList<>();
+                for (Long idSerie : idsDasSeries) {
+                    // Relida com trava: pode ter sido editada ou cancelada depois da
+                    // leitura das candidatas
+                    serieRepository.travar(idSerie)
+                            .filter(serie -> !serie.isArquivada()
+                                    && serie.getFimDaUltimaOcorrencia().isBefore(antesDe))
+                            .ifPresent(serie -> {
+                                travadas.addAll(reservaRepository.travarOcorrencias(serie));
+                                serie.setArquivada(true);
+                            });
+                }
+                if (!travadas.isEmpty()) {
+                    arquivoRepository.copiarReservas(travadas, agora);
+                    reservaRepository.deleteAllByIdInBatch(travadas);
+                }
+                return travadas;
+            });
+
+            indice.arquivar(movidas);
+            arquivadas.increment(movidas.size());
+            versao.incrementAndGet();
+            total += movidas.size();
+        }
+        return total;
+    }
+
+    // Se alguma reserva arquivada da sala toca [inicio, fim). Sem consulta quando
+    // o pedido começa depois do fim de tudo que foi arquivado.
+    public boolean temConflito(String idSala, LocalDateTime inicio, LocalDateTime fim) {
+        return !naJanela(idSala, inicio, fim, Limit.of(1)).isEmpty();
+    }
+
+    // Reservas arquivadas da sala que tocam [inicio, fim), ordenadas por início.
+    public List<IntervaloReservado> naJanela(String idSala, LocalDateTime inicio, LocalDateTime fim) {
+        return naJanela(idSala, inicio, fim, Limit.unlimited());
+    }
+
+    /**
+     * Uma página do histórico: reservas arquivadas que começam em [de, ate) (ambos
+     * opcionais), opcionalmente de uma só sala, em ordem de início. Paginada por
+     * chave, como GerenciadorDeReservas.listarReservas.
+     */
+    public PaginaDeReservas listar(String idSala, LocalDateTime de, LocalDateTime ate, LocalDateTime aposInicio,
+            Long aposId, int tamanhoPagina) {
+        PaginaDeReservas.validarCursor(aposInicio, aposId);
+        // Lê um item a mais só para saber se existe próxima página
+        Limit limite = Limit.of(tamanhoPagina + 1);
+        List<ReservaViewModel> reservas = idSala == null
+                ? arquivoRepository.findPagina(de, ate, aposInicio, aposId, limite)
+                : arquivoRepository.findPaginaDaSala(idSala, de, ate, aposInicio, aposId, limite);
+        if (reservas.size() <= tamanhoPagina) {
+            return new PaginaDeReservas(reservas, null, null);
+        }
+        reservas = reservas.subList(0, tamanhoPagina);
+        ReservaViewModel ultima = reservas.get(reservas.size() - 1);
+        return new PaginaDeReservas(reservas, ultima.getDataInicio(), ultima.getIdReserva());
+    }
+
+    public long getVersao() {
+        return versao.get();
+    }
+
+    // Nenhuma reserva arquivada termina depois disso; null se nada foi arquivado.
+    public LocalDateTime getArquivadoAte() {
+        return arquivadoAte.get();
+    }
+
+    // Se pode haver reservas arquivadas que começam em 'de' ou depois (nulo: desde
+    // o início). Todas terminam antes do limite do arquivo.
+    public boolean alcanca(LocalDateTime de) {
+        LocalDateTime arquivadoAte = getArquivadoAte();
+        return arquivadoAte != null && (de == null || de.isBefore(arquivadoAte));
+    }
+
+    // Chamado antes do primeiro commit de cada execução, com o limite dela: quem
+    // checa conflitos passa a olhar também o histórico antes de as reservas saírem
+    // das agendas (ver temConflito).
+    private void avancarArquivo(LocalDateTime fim) {
+        arquivadoAte.accumulateAndGet(fim, (atual, novo) -> atual == null || novo.isAfter(atual) ? novo : atual);
+    }
+
+    private List<IntervaloReservado> naJanela(String idSala, LocalDateTime inicio, LocalDateTime fim, Limit limite) {
+        LocalDateTime arquivadoAte = getArquivadoAte();
+        if (arquivadoAte == null || !inicio.isBefore(arquivadoAte)) {
+            return List.of();
+        }
+        return arquivoRepository.findIntervalosNaJanela(idSala, inicio, fim, limite);
+    }
+}
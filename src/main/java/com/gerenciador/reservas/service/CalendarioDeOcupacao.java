@@ -0,0 +1,84 @@
+package com.gerenciador.reservas.service;
+
+import com.gerenciador.reservas.model.IntervaloReservado;
+import com.gerenciador.reservas.model.Sala;
+import com.gerenciador.reservas.repository.ReservaRepository;
+import com.gerenciador.reservas.viewModel.GradeDeOcupacao;
+import com.gerenciador.reservas.viewModel.GradeDeOcupacao.LinhaDaGrade;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Grade de ocupação da semana (salas nas linhas, faixas de 15 minutos nas
+ * colunas), montada com os bits de ocupação de OcupacaoDasSalas: uma passada
+ * pelas salas, copiando PALAVRAS_POR_DIA longs por dia, sem consultar reservas.
+ *
+ * Só as salas que o índice não cobre (ver IndiceDeReservas.isConfiavel) têm a
+ * ocupação montada a partir do banco, com as reservas da janela (em uso e
+ * arquivadas).
+ */
+@Service
+public class CalendarioDeOcupacao {
+
+    public static final int MAXIMO_DE_DIAS = 31;
+
+    @Autowired
+    private OcupacaoDasSalas ocupacaoDasSalas;
+
+    @Autowired
+    private CatalogoDeSalas catalogo;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private ArquivoDeReservas arquivo;
+
+    // Sem salas informadas, todas as do catálogo, ordenadas por id.
+    public GradeDeOcupacao montar(LocalDate primeiroDia, int dias, Collection<String> idsSalas) {
+        if (dias < 1 || dias > MAXIMO_DE_DIAS) {
+            throw new IllegalArgumentException("O calendário deve ter de 1 a " + MAXIMO_DE_DIAS + " dias.");
+        }
+        List<Sala> salas = idsSalas == null || idsSalas.isEmpty() ? catalogo.getSalas()
+                : idsSalas.stream().map(id -> catalogo.getSala(id)
+                        .orElseThrow(() -> new IllegalArgumentException("Sala '" + id + "' não encontrada.")))
+                        .toList();
+
+        // Um único buffer, reaproveitado de sala em sala
+        long[] bits = new long[dias * OcupacaoDaSala.PALAVRAS_POR_DIA];
+        List<LinhaDaGrade> linhas = new ArrayList<>(salas.size());
+        long bytesEmMemoria = 0;
+        for (Sala sala : salas) {
+            if (!ocupacaoDasSalas.copiar(sala.getId(), primeiroDia, dias, bits, 0)) {
+                doBanco(sala.getId(), primeiroDia, dias).copiar(primeiroDia, dias, bits, 0);
+            }
+            List<String> ocupacao = new ArrayList<>(dias);
+            for (int d = 0; d < dias; d++) {
+                ocupacao.add(OcupacaoDaSala.formatar(bits, d * OcupacaoDaSala.PALAVRAS_POR_DIA));
+            }
+            long bytes = ocupacaoDasSalas.getBytes(sala.getId());
+            bytesEmMemoria += bytes;
+            linhas.add(new LinhaDaGrade(sala.getId(), sala.getNome(), ocupacao, bytes));
+        }
+        return new GradeDeOcupacao(primeiroDia, dias, OcupacaoDaSala.MINUTOS_POR_FAIXA, bytesEmMemoria, linhas);
+    }
+
+    private OcupacaoDaSala doBanco(String idSala, LocalDate primeiroDia, int dias) {
+        LocalDateTime inicio = primeiroDia.atStartOfDay();
+        LocalDateTime fim = inicio.plusDays(dias);
+        OcupacaoDaSala ocupacao = new OcupacaoDaSala();
+        List<IntervaloReservado> naJanela = new ArrayList<>(reservaRepository.findIntervalosNaJanela(idSala, inicio, fim));
+        naJanela.addAll(arquivo.naJanela(idSala, inicio, fim));
+        for (IntervaloReservado intervalo : naJanela) {
+            ocupacao.marcar(intervalo.dataInicio().isBefore(inicio) ? inicio : intervalo.dataInicio(),
+                    intervalo.dataFim().isAfter(fim) ? fim : intervalo.dataFim());
+        }
+        return ocupacao;
+    }
+}
@@ -0,0 +1,257 @@
+package com.gerenciador.reservas.service;
+
+import com.gerenciador.reservas.model.Equipamento;
+import com.gerenciador.reservas.model.Sala;
+import com.gerenciador.reservas.repository.EquipamentoRepository;
+import com.gerenciador.reservas.repository.ReservaRepository;
+import com.gerenciador.reservas.repository.SalaRepository;
+import com.gerenciador.reservas.viewModel.EstatisticasDoCatalogo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Catálogo de salas pré-processado para a busca de disponibilidade.
+ *
+ * Guarda as salas ordenadas por capacidade (para achar a menor sala adequada com
+ * uma busca binária) e, para cada sala, um bitmap dos equipamentos que ela tem.
+ * A checagem de horário usa o IndiceDeReservas, então uma busca inteira é
+ * respondida em memória.
+ *
+ * O catálogo é reconstruído sob demanda, na primeira leitura depois de qualquer
+ * alteração em Sala ou Equipamento (ver CatalogoListener).
+ *
+ * Como salas e equipamentos mudam raramente, o mesmo catálogo também responde às
+ * leituras simples (lista de salas, sala por id, lista de equipamentos) feitas a
+ * cada requisição. Só existe uma fotografia por vez, então a memória usada é a do
+ * próprio cadastro. As instâncias devolvidas são compartilhadas e não devem ser
+ * alteradas; para editar, leia a sala do repositório.
+ */
+@Component
+public class CatalogoDeSalas {
+
+    @Autowired
+    private SalaRepository salaRepository;
+
+    @Autowired
+    private EquipamentoRepository equipamentoRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private IndiceDeReservas indice;
+
+    @Autowired
+    private ArquivoDeReservas arquivo;
+
+    private final AtomicLong versao = new AtomicLong();
+    private volatile Fotografia fotografia;
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder invalidacoes = new LongAdder();
+
+    // Chamado após o commit de qualquer alteração em Sala ou Equipamento.
+    public void invalidar() {
+        versao.incrementAndGet();
+        invalidacoes.increment();
+    }
+
+    // Muda a cada alteração em salas ou equipamentos (usada como ETag pela API).
+    public long getVersao() {
+        return versao.get();
+    }
+
+    // Salas ordenadas por id, já com os equipamentos carregados.
+    public List<Sala> getSalas() {
+        return atual().salasPorId;
+    }
+
+    // Até 'quantidade' salas em ordem de id, começando logo depois de 'aposId'
+    // (nulo: do início). Busca binária na lista já ordenada da fotografia.
+    public List<Sala> getSalas(String aposId, int quantidade) {
+        List<Sala> salas = atual().salasPorId;
+        int inicio = 0;
+        if (aposId != null) {
+            int alto = salas.size();
+            while (inicio < alto) {
+                int meio = (inicio + alto) >>> 1;
+                if (salas.get(meio).getId().compareTo(aposId) <= 0) {
+                    inicio = meio + 1;
+                } else {
+                    alto = meio;
+                }
+            }
+        }
+        return salas.subList(inicio, Math.min(salas.size(), inicio + quantidade));
+    }
+
+    public Optional<Sala> getSala(String id) {
+        return Optional.ofNullable(atual().porId.get(id));
+    }
+
+    public EstatisticasDoCatalogo getEstatisticas() {
+        Fotografia f = fotografia;
+        return new EstatisticasDoCatalogo(acertos.sum(), faltas.sum(), invalidacoes.sum(),
+                f != null ? f.salas.length : 0, f != null ? f.equipamentos.size() : 0);
+    }
+
+    /**
+     * Salas livres em [inicio, fim) com pelo menos a capacidade pedida e todos os
+     * equipamentos exigidos, da menor capacidade adequada para a maior.
+     */
+    public List<Sala> buscarSalasLivres(LocalDateTime inicio, LocalDateTime fim, int capacidadeMinima,
+            Collection<Long> idsEquipamentos) {
+        // Mesma regra de um pedido de reserva: intervalo vazio também é recusado
+        GerenciadorDeReservas.validarPeriodo(inicio, fim);
+        Fotografia atual = atual();
+        long[] exigidos = atual.bitmap(idsEquipamentos);
+        if (exigidos == null) {
+            // Algum equipamento pedido não existe: nenhuma sala atende
+            return List.of();
+        }
+
+        List<Sala> livres = new ArrayList<>();
+        for (int i = atual.primeiraComCapacidade(capacidadeMinima); i < atual.salas.length; i++) {
+            if (atual.contem(i, exigidos) && estaLivre(atual.salas[i], inicio, fim)) {
+                livres.add(atual.salas[i]);
+            }
+        }
+        return livres;
+    }
+
+    public List<Equipamento> getEquipamentos() {
+        return atual().equipamentos;
+    }
+
+    private boolean estaLivre(Sala sala, LocalDateTime inicio, LocalDateTime fim) {
+        boolean livre = indice.isConfiavel(sala.getId())
+                ? !indice.temConflito(sala.getId(), inicio, fim)
+                : reservaRepository.findBySalaAndDataFimAfterAndDataInicioBefore(sala, inicio, fim).isEmpty();
+        return livre && !arquivo.temConflito(sala.getId(), inicio, fim);
+    }
+
+    private Fotografia atual() {
+        Fotografia f = fotografia;
+        // A versão é lida antes da carga: uma alteração que termine durante a
+        // reconstrução faz a próxima leitura reconstruir de novo.
+        long versaoAtual = versao.get();
+        if (f != null && f.versao == versaoAtual) {
+            acertos.increment();
+            return f;
+        }
+        synchronized (this) {
+            f = fotografia;
+            if (f == null || f.versao != versaoAtual) {
+                faltas.increment();
+                f = new Fotografia(versaoAtual, salaRepository.findAllComEquipamentos(),
+                        equipamentoRepository.findAll());
+                fotografia = f;
+            } else {
+                acertos.increment();
+            }
+        }
+        return f;
+    }
+
+    /**
+     * Estado imutável do catálogo num dado momento.
+     */
+    private static class Fotografia {
+
+        final long versao;
+        final Sala[] salas;
+        final List<Sala> salasPorId;
+        final Map<String, Sala> porId = new HashMap<>();
+        final int[] capacidades;
+        final long[][] bitmaps;
+        final Map<Long, Integer> bitPorEquipamento = new HashMap<>();
+        final List<Equipamento> equipamentos;
+
+        Fotografia(long versao, List<Sala> todasAsSalas, List<Equipamento> todosOsEquipamentos) {
+            this.versao = versao;
+            this.equipamentos = List.copyOf(todosOsEquipamentos);
+            for (Equipamento equipamento : todosOsEquipamentos) {
+                bitPorEquipamento.put(equipamento.getId(), bitPorEquipamento.size());
+            }
+
+            this.salas = todasAsSalas.stream()
+                    .sorted(Comparator.comparingInt(Sala::getCapacidade).thenComparing(Sala::getId))
+                    .toArray(Sala[]::new);
+            this.salasPorId = todasAsSalas.stream().sorted(Comparator.comparing(Sala::getId)).toList();
+            for (Sala sala : todasAsSalas) {
+                porId.put(sala.getId(), sala);
+            }
+            this.capacidades = new int[salas.length];
+            this.bitmaps = new long[salas.length][];
+            for (int i = 0; i < salas.length; i++) {
+                capacidades[i] = salas[i].getCapacidade();
+                bitmaps[i] = bitmapDaSala(salas[i]);
+            }
+        }
+
+        // Bitmap com os equipamentos informados, ou null se algum não for conhecido.
+        long[] bitmap(Collection<Long> idsEquipamentos) {
+            long[] bits = new long[(bitPorEquipamento.size() + 63) / 64];
+            for (Long id : idsEquipamentos) {
+                Integer bit = bitPorEquipamento.get(id);
+                if (bit == null) {
+                    return null;
+                }
+                bits[bit >>> 6] |= 1L << bit;
+            }
+            return bits;
+        }
+
+        // Salas e equipamentos vêm de duas leituras; o banco não garante que as duas
+        // vejam o mesmo momento. Um equipamento da sala que a leitura de equipamentos
+        // não trouxe fica de fora do bitmap: a alteração que o criou ou apagou já
+        // invalidou o catálogo, e a próxima leitura reconstrói tudo.
+        private long[] bitmapDaSala(Sala sala) {
+            long[] bits = new long[(bitPorEquipamento.size() + 63) / 64];
+            for (Equipamento equipamento : sala.getEquipamentos()) {
+                Integer bit = bitPorEquipamento.get(equipamento.getId());
+                if (bit != null) {
+                    bits[bit >>> 6] |= 1L << bit;
+                }
+            }
+            return bits;
+        }
+
+        boolean contem(int sala, long[] exigidos) {
+            long[] daSala = bitmaps[sala];
+            for (int p = 0; p < exigidos.length; p++) {
+                if ((daSala[p] & exigidos[p]) != exigidos[p]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Busca binária pela primeira sala com capacidade >= minima.
+        int primeiraComCapacidade(int minima) {
+            int baixo = 0;
+            int alto = capacidades.length;
+            while (baixo < alto) {
+                int meio = (baixo + alto) >>> 1;
+                if (capacidades[meio] < minima) {
+                    baixo = meio + 1;
+                } else {
+                    alto = meio;
+                }
+            }
+            return baixo;
+        }
+    }
+}
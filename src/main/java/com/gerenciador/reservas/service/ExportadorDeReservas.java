@@ -0,0 +1,187 @@
+package com.gerenciador.reservas.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gerenciador.reservas.model.Reserva;
+import com.gerenciador.reservas.model.ReservaArquivada;
+import com.gerenciador.reservas.repository.ReservaArquivadaRepository;
+import com.gerenciador.reservas.repository.ReservaRepository;
+import com.gerenciador.reservas.viewModel.LinhaDeExportacao;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * Exportação de reservas em CSV ou NDJSON (um objeto JSON por linha).
+ *
+ * As reservas vêm de um cursor do banco e vão direto para a saída, uma linha de
+ * cada vez: a cada bloco o contexto de persistência é limpo e a saída é
+ * descarregada, então a memória usada não depende do tamanho da tabela.
+ *
+ * Quando o período alcança o arquivo (ArquivoDeReservas), as reservas arquivadas
+ * vêm de um segundo cursor e são intercaladas com as da tabela em uso, na mesma
+ * ordem (início, id).
+ */
+@Service
+public class ExportadorDeReservas {
+
+    public enum Formato {
+        CSV("text/csv", "csv"), NDJSON("application/x-ndjson", "ndjson");
+
+        private final String tipo;
+        private final String extensao;
+
+        Formato(String tipo, String extensao) {
+            this.tipo = tipo;
+            this.extensao = extensao;
+        }
+
+        public String getTipo() {
+            return tipo;
+        }
+
+        public String getExtensao() {
+            return extensao;
+        }
+    }
+
+    // Mesmo tamanho do fetch size da consulta (ReservaRepository.streamParaExportacao)
+    private static final int LINHAS_POR_BLOCO = 500;
+
+    private static final String CABECALHO_CSV = "idReserva,idSala,nomeSala,nomeResponsavel,dataInicio,dataFim";
+
+    private static final Comparator<LinhaDeExportacao> ORDEM = Comparator.comparing(LinhaDeExportacao::dataInicio)
+            .thenComparing(LinhaDeExportacao::idReserva);
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private ReservaArquivadaRepository arquivoRepository;
+
+    @Autowired
+    private ArquivoDeReservas arquivo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Valida o período antes de qualquer escrita, para o controller ainda poder
+    // responder com erro.
+    public void validarPeriodo(LocalDateTime de, LocalDateTime ate) {
+        if (de != null && ate != null && ate.isBefore(de)) {
+            throw new IllegalArgumentException("A data final da exportação não pode ser anterior à data inicial.");
+        }
+    }
+
+    // Escreve as reservas que começam em [de, ate) (qualquer um dos dois pode ser
+    // nulo), arquivadas ou não, em ordem de início, e devolve quantas foram
+    // exportadas.
+    public int exportar(Formato formato, LocalDateTime de, LocalDateTime ate, Writer saida) {
+        validarPeriodo(de, ate);
+
+        // Os Streams só podem ser lidos com a transação (e a conexão) aberta. A
+        // tabela em uso é consultada primeiro: uma reserva arquivada entre as duas
+        // consultas aparece nas duas, e a intercalação a escreve uma vez só.
+        return transactionTemplate.execute(status -> {
+            try (Stream<LinhaDeExportacao> reservas = reservaRepository.streamParaExportacao(de, ate)
+                    .map(ExportadorDeReservas::paraLinha);
+                    Stream<LinhaDeExportacao> arquivadas = arquivo.alcanca(de)
+                            ? arquivoRepository.streamParaExportacao(de, ate).map(ExportadorDeReservas::paraLinha)
+                            : Stream.empty()) {
+                if (formato == Formato.CSV) {
+                    saida.write(CABECALHO_CSV);
+                    saida.write("\r\n");
+                }
+                int total = 0;
+                Iterator<LinhaDeExportacao> cursor = intercalar(reservas.iterator(), arquivadas.iterator());
+                while (cursor.hasNext()) {
+                    LinhaDeExportacao linha = cursor.next();
+                    saida.write(formato == Formato.CSV ? paraCsv(linha) : objectMapper.writeValueAsString(linha));
+                    saida.write(formato == Formato.CSV ? "\r\n" : "\n");
+                    if (++total % LINHAS_POR_BLOCO == 0) {
+                        saida.flush();
+                        entityManager.clear();
+                    }
+                }
+                saida.flush();
+                return total;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static LinhaDeExportacao paraLinha(Reserva reserva) {
+        return new LinhaDeExportacao(reserva.getIdReserva(), reserva.getSala().getId(), reserva.getSala().getNome(),
+                reserva.getNomeResponsavel(), reserva.getDataInicio(), reserva.getDataFim());
+    }
+
+    private static LinhaDeExportacao paraLinha(ReservaArquivada reserva) {
+        return new LinhaDeExportacao(reserva.getIdReserva(), reserva.getSala().getId(), reserva.getSala().getNome(),
+                reserva.getNomeResponsavel(), reserva.getDataInicio(), reserva.getDataFim());
+    }
+
+    // Junta duas sequências já ordenadas por (início, id) numa só, na mesma ordem.
+    // A mesma reserva nas duas sai uma vez.
+    private static Iterator<LinhaDeExportacao> intercalar(Iterator<LinhaDeExportacao> a, Iterator<LinhaDeExportacao> b) {
+        return new Iterator<>() {
+            private LinhaDeExportacao proximaDeA = a.hasNext() ? a.next() : null;
+            private LinhaDeExportacao proximaDeB = b.hasNext() ? b.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return proximaDeA != null || proximaDeB != null;
+            }
+
+            @Override
+            public LinhaDeExportacao next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int ordem = proximaDeA == null ? 1 : proximaDeB == null ? -1 : ORDEM.compare(proximaDeA, proximaDeB);
+                LinhaDeExportacao linha = ordem <= 0 ? proximaDeA : proximaDeB;
+                if (ordem <= 0) {
+                    proximaDeA = a.hasNext() ? a.next() : null;
+                }
+                if (ordem >= 0) {
+                    proximaDeB = b.hasNext() ? b.next() : null;
+                }
+                return linha;
+            }
+        };
+    }
+
+    private static String paraCsv(LinhaDeExportacao linha) {
+        return String.join(",", String.valueOf(linha.idReserva()), campoCsv(linha.idSala()),
+                campoCsv(linha.nomeSala()), campoCsv(linha.nomeResponsavel()),
+                String.valueOf(linha.dataInicio()), String.valueOf(linha.dataFim()));
+    }
+
+    // RFC 4180: campos com vírgula, aspas ou quebra de linha vão entre aspas, com
+    // as aspas internas dobradas.
+    private static String campoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0
+                && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
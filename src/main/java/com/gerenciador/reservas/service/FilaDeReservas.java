@@ -0,0 +1,224 @@
+package com.gerenciador.reservas.service;
+
+import com.gerenciador.reservas.model.Reserva;
+import com.gerenciador.reservas.model.Sala;
+import com.gerenciador.reservas.repository.ReservaRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Gravação de reservas por filas com um único escritor (modo FILA).
+ *
+ * Cada sala cai sempre na mesma fila, e cada fila tem uma só thread escritora:
+ * os pedidos de uma sala são tratados em ordem, um de cada vez, sem disputa. O
+ * escritor junta o que estiver na fila (até lote-maximo pedidos), checa os
+ * conflitos no IndiceDeReservas e contra os outros pedidos do lote, e grava
+ * todos os aceitos numa única transação (group commit). Sob carga, o custo de
+ * uma transação fica dividido por muitos pedidos.
+ *
+ * As filas são limitadas: com uma fila cheia o pedido é recusado na hora com
+ * RejectedExecutionException, em vez de esperar indefinidamente.
+ *
+ * O escritor segura as travas das salas do lote (TravasPorSala) enquanto checa e
+ * grava, então continua correto junto com as outras formas de gravar reservas
+ * (séries, lotes, modo DIRETO). As respostas são entregues pelo executor de
+ * tarefas da aplicação, nunca pela thread escritora.
+ */
+@Component
+public class FilaDeReservas {
+
+    private static final String CONFLITO = "O horário solicitado para esta sala já está reservado.";
+
+    @Value("${reservas.fila.escritores:4}")
+    private int escritores;
+
+    @Value("${reservas.fila.capacidade:1000}")
+    private int capacidade;
+
+    @Value("${reservas.fila.lote-maximo:100}")
+    private int loteMaximo;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private IndiceDeReservas indice;
+
+    @Autowired
+    private ArquivoDeReservas arquivo;
+
+    @Autowired
+    private TravasPorSala travas;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor respostas;
+
+    @Autowired
+    private MeterRegistry registro;
+
+    private record Pedido(Sala sala, String nomeResponsavel, LocalDateTime dataInicio, LocalDateTime dataFim,
+            CompletableFuture<Reserva> resultado) {
+    }
+
+    private final List<BlockingQueue<Pedido>> filas = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean encerrando = false;
+
+    @PostConstruct
+    public void iniciar() {
+        for (int i = 0; i < escritores; i++) {
+            BlockingQueue<Pedido> fila = new ArrayBlockingQueue<>(capacidade);
+            filas.add(fila);
+            Thread escritor = new Thread(() -> escrever(fila), "reservas-escritor-" + i);
+            escritor.setDaemon(true);
+            threads.add(escritor);
+            escritor.start();
+        }
+        Gauge.builder("reservas.fila.pedidos", filas, f -> f.stream().mapToInt(BlockingQueue::size).sum())
+                .description("Pedidos de reserva aguardando os escritores")
+                .register(registro);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        encerrando = true;
+        threads.forEach(Thread::interrupt);
+    }
+
+    // Enfileira o pedido. O resultado termina com a reserva gravada, com
+    // IllegalStateException em caso de conflito ou com RejectedExecutionException
+    // se a fila da sala estiver cheia.
+    public CompletableFuture<Reserva> reservar(Sala sala, String nomeResponsavel, LocalDateTime dataInicio,
+            LocalDateTime dataFim) {
+        Pedido pedido = new Pedido(sala, nomeResponsavel, dataInicio, dataFim, new CompletableFuture<>());
+        if (encerrando || !filas.get(travas.indiceDaListra(sala.getId()) % filas.size()).offer(pedido)) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException(
+                    "Muitos pedidos de reserva no momento. Tente novamente em instantes."));
+        }
+        return pedido.resultado();
+    }
+
+    private void escrever(BlockingQueue<Pedido> fila) {
+        List<Pedido> lote = new ArrayList<>(loteMaximo);
+        while (!encerrando) {
+            try {
+                lote.add(fila.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            fila.drainTo(lote, loteMaximo - 1);
+            try {
+                gravar(lote);
+            } catch (RuntimeException e) {
+                // Falha inesperada (banco fora do ar, por exemplo): o lote inteiro
+                // recebe o erro e o escritor continua. Pedidos já respondidos não mudam.
+                lote.forEach(pedido -> responder(pedido, null, e));
+            }
+            lote.clear();
+        }
+        // Encerrando: quem ainda estava na fila recebe a recusa
+        fila.drainTo(lote);
+        for (Pedido pedido : lote) {
+            responder(pedido, null, new RejectedExecutionException("A aplicação está sendo encerrada."));
+        }
+    }
+
+    private void gravar(List<Pedido> lote) {
+        Set<String> idsSalas = new LinkedHashSet<>();
+        lote.forEach(p -> idsSalas.add(p.sala().getId()));
+
+        List<Pedido> aceitos = new ArrayList<>();
+        List<Reserva> reservas = new ArrayList<>();
+        RuntimeException falha = travas.executar(idsSalas, () -> {
+            // Pedidos já aceitos neste lote, por sala, para checar uns contra os outros
+            Map<String, List<Pedido>> aceitosPorSala = new HashMap<>();
+            for (Pedido pedido : lote) {
+                List<Pedido> daSala = aceitosPorSala.computeIfAbsent(pedido.sala().getId(), id -> new ArrayList<>());
+                if (conflitaNoLote(pedido, daSala) || existeConflito(pedido)) {
+                    responder(pedido, null, new IllegalStateException(CONFLITO));
+                    continue;
+                }
+                daSala.add(pedido);
+                aceitos.add(pedido);
+                reservas.add(new Reserva(pedido.nomeResponsavel(), pedido.sala(), pedido.dataInicio(),
+                        pedido.dataFim()));
+            }
+            if (reservas.isEmpty()) {
+                return null;
+            }
+            try {
+                // Uma transação para o lote inteiro, com os INSERTs em lote JDBC
+                transactionTemplate.executeWithoutResult(status -> reservaRepository.saveAll(reservas));
+                return null;
+            } catch (RuntimeException e) {
+                return e;
+            }
+        });
+
+        for (int i = 0; i < aceitos.size(); i++) {
+            if (falha != null) {
+                responder(aceitos.get(i), null, falha);
+            } else {
+                responder(aceitos.get(i), reservas.get(i), null);
+            }
+        }
+    }
+
+    private static boolean conflitaNoLote(Pedido pedido, List<Pedido> aceitosDaSala) {
+        for (Pedido aceito : aceitosDaSala) {
+            if (aceito.dataFim().isAfter(pedido.dataInicio()) && aceito.dataInicio().isBefore(pedido.dataFim())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Mesma regra do GerenciadorDeReservas: índice em memória quando confiável,
+    // senão a consulta ao banco, e depois o histórico.
+    private boolean existeConflito(Pedido pedido) {
+        String idSala = pedido.sala().getId();
+        boolean emUso;
+        if (indice.isConfiavel(idSala)) {
+            emUso = indice.temConflito(idSala, pedido.dataInicio(), pedido.dataFim());
+        } else {
+            emUso = !reservaRepository.findIntervalosNaJanela(idSala, pedido.dataInicio(), pedido.dataFim(),
+                    Limit.of(1)).isEmpty();
+        }
+        return emUso || arquivo.temConflito(idSala, pedido.dataInicio(), pedido.dataFim());
+    }
+
+    private void responder(Pedido pedido, Reserva reserva, Throwable erro) {
+        respostas.execute(() -> {
+            if (erro != null) {
+                pedido.resultado().completeExceptionally(erro);
+            } else {
+                pedido.resultado().complete(reserva);
+            }
+        });
+    }
+}
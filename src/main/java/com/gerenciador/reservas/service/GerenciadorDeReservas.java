@@ -1,52 +1,349 @@
 package com.gerenciador.reservas.service;
 
+import com.gerenciador.reservas.model.IntervaloReservado;
 import com.gerenciador.reservas.model.Reserva;
 import com.gerenciador.reservas.model.Sala;
 import com.gerenciador.reservas.repository.ReservaRepository;
 import com.gerenciador.reservas.repository.SalaRepository;
+import com.gerenciador.reservas.viewModel.HorarioLivre;
+import com.gerenciador.reservas.viewModel.PaginaDeReservas;
+import com.gerenciador.reservas.viewModel.PedidoReserva;
+import com.gerenciador.reservas.viewModel.ReservaViewModel;
+import com.gerenciador.reservas.viewModel.ResultadoLote;
+import com.gerenciador.reservas.viewModel.ResultadoLote.LinhaAceita;
+import com.gerenciador.reservas.viewModel.ResultadoLote.LinhaRejeitada;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class GerenciadorDeReservas {
 
+    // Quantas reservas são lidas de cada vez ao procurar horários livres
+    private static final int LOTE_DE_LEITURA = 64;
+
+    private static final String SEM_DURACAO = "A data de fim da reserva deve ser posterior à data de início.";
+
     @Autowired
     private ReservaRepository reservaRepository;
 
     @Autowired
     private SalaRepository salaRepository;
 
+    @Autowired
+    private IndiceDeReservas indice;
+
+    @Autowired
+    private ArquivoDeReservas arquivo;
+
+    @Autowired
+    private TravasPorSala travas;
+
+    @Autowired
+    private CatalogoDeSalas catalogo;
+
+    @Autowired
+    private FilaDeReservas fila;
+
+    @Autowired
+    private ReservaOtimista otimista;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${reservas.reserva.modo:direto}")
+    private ModoDeReserva modo = ModoDeReserva.DIRETO;
+
+    /**
+     * Pedido de reserva da tela principal, gravado conforme o modo configurado
+     * (ver ModoDeReserva). O resultado termina com a reserva gravada ou com a
+     * exceção: IllegalArgumentException (dados inválidos), IllegalStateException
+     * (conflito) ou RejectedExecutionException (fila cheia no modo FILA, colisões
+     * demais no modo OTIMISTA).
+     *
+     * Métricas: o tempo até a resposta vai para reservas.reservar e cada pedido
+     * conta em reservas.pedidos, com a tag 'exception' separando os desfechos.
+     */
+    @Timed(value = "reservas.reservar", description = "Tempo de um pedido de reserva, até a resposta")
+    @Counted(value = "reservas.pedidos", description = "Pedidos de reserva, por desfecho")
+    public CompletableFuture<Reserva> reservar(Sala sala, String nomeResponsavel, LocalDateTime dataInicio,
+            LocalDateTime dataFim) {
+        try {
+            if (modo == ModoDeReserva.FILA) {
+                validarPeriodo(dataInicio, dataFim);
+                return fila.reservar(sala, nomeResponsavel, dataInicio, dataFim);
+            }
+            if (modo == ModoDeReserva.OTIMISTA) {
+                validarPeriodo(dataInicio, dataFim);
+                return CompletableFuture.completedFuture(
+                        otimista.reservar(sala, nomeResponsavel, dataInicio, dataFim));
+            }
+            return CompletableFuture.completedFuture(reservarSala(sala, nomeResponsavel, dataInicio, dataFim));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     // MÉTODO ATUALIZADO: Recebe 'nomeResponsavel' como String
     public Reserva reservarSala(Sala sala, String nomeResponsavel, LocalDateTime dataInicio, LocalDateTime dataFim) {
+        validarPeriodo(dataInicio, dataFim);
+
+        // Checagem e gravação acontecem sob a trava da sala: duas requisições para a
+        // mesma sala não podem passar juntas pela checagem de conflito. O save faz o
+        // commit antes de a trava ser liberada.
+        return travas.executar(sala.getId(), () -> {
+            if (existeConflito(sala, dataInicio, dataFim)) {
+                throw new IllegalStateException("O horário solicitado para esta sala já está reservado.");
+            }
+
+            // CRIA A RESERVA COM A STRING
+            Reserva novaReserva = new Reserva(nomeResponsavel, sala, dataInicio, dataFim);
+
+            return reservaRepository.save(novaReserva);
+        });
+    }
+
+    // Reserva de duração zero também é recusada: não ocupa a sala e, num horário já
+    // reservado, não haveria o que sugerir (proximosHorariosLivres exige duração).
+    // As séries (GerenciadorDeSeries) usam a mesma regra para cada ocorrência.
+    static void validarPeriodo(LocalDateTime dataInicio, LocalDateTime dataFim) {
         if (dataFim.isBefore(dataInicio)) {
             throw new IllegalArgumentException("A data de fim da reserva não pode ser anterior à data de início.");
         }
+        if (dataFim.isEqual(dataInicio)) {
+            throw new IllegalArgumentException(SEM_DURACAO);
+        }
+    }
 
-        List<Reserva> conflitos = reservaRepository.findBySalaAndDataFimAfterAndDataInicioBefore(sala, dataInicio,
-                dataFim);
+    /**
+     * Reserva um lote inteiro de uma vez (importação de semestre, por exemplo).
+     *
+     * Cada linha é validada e checada contra as outras linhas do lote e contra as
+     * reservas já existentes. Se alguma linha for rejeitada nada é gravado; caso
+     * contrário todas entram numa única transação, com INSERTs em lote.
+     */
+    public ResultadoLote reservarEmLote(List<PedidoReserva> pedidos) {
+        List<LinhaRejeitada> rejeitadas = new ArrayList<>();
 
-        if (!conflitos.isEmpty()) {
-            throw new IllegalStateException("O horário solicitado para esta sala já está reservado.");
+        // Uma única consulta para todas as salas citadas no lote
+        Map<String, Sala> salas = salaRepository.findAllById(pedidos.stream().filter(pedido -> pedido != null)
+                .map(PedidoReserva::idSala).filter(id -> id != null).distinct().toList())
+                .stream().collect(Collectors.toMap(Sala::getId, Function.identity()));
+
+        // Linhas válidas agrupadas por sala; a chave interna é o número da linha
+        Map<String, List<Integer>> linhasPorSala = new HashMap<>();
+        for (int i = 0; i < pedidos.size(); i++) {
+            String motivo = validarPedido(pedidos.get(i), salas);
+            if (motivo != null) {
+                rejeitadas.add(new LinhaRejeitada(i + 1, motivo));
+            } else {
+                linhasPorSala.computeIfAbsent(pedidos.get(i).idSala(), id -> new ArrayList<>()).add(i);
+            }
         }
 
-        // CRIA A RESERVA COM A STRING
-        Reserva novaReserva = new Reserva(nomeResponsavel, sala, dataInicio, dataFim);
+        // Uma transação só; com a sequência pooled os INSERTs vão em lote. O
+        // contador das salas avança antes da checagem (ver ReservaOtimista) e volta
+        // atrás se nada for gravado.
+        return travas.executar(linhasPorSala.keySet(), () -> transactionTemplate.execute(status -> {
+            if (!linhasPorSala.isEmpty()) {
+                salaRepository.incrementarReservasGravadas(linhasPorSala.keySet());
+            }
+            Map<Integer, Reserva> aceitas = new TreeMap<>();
+            for (Map.Entry<String, List<Integer>> grupo : linhasPorSala.entrySet()) {
+                Sala sala = salas.get(grupo.getKey());
+                List<Integer> linhas = grupo.getValue();
+                linhas.sort(Comparator.comparing((Integer i) -> pedidos.get(i).dataInicio()).thenComparing(i -> i));
+
+                // Varredura ordenada por início: basta comparar com o maior fim visto até aqui
+                Integer linhaComMaiorFim = null;
+                for (Integer i : linhas) {
+                    PedidoReserva pedido = pedidos.get(i);
+                    if (linhaComMaiorFim != null
+                            && pedidos.get(linhaComMaiorFim).dataFim().isAfter(pedido.dataInicio())) {
+                        rejeitadas.add(new LinhaRejeitada(i + 1,
+                                "Conflita com a linha " + (linhaComMaiorFim + 1) + " do lote."));
+                        continue;
+                    }
+                    if (existeConflito(sala, pedido.dataInicio(), pedido.dataFim())) {
+                        rejeitadas.add(new LinhaRejeitada(i + 1, "O horário solicitado para esta sala já está reservado."));
+                        continue;
+                    }
+                    if (linhaComMaiorFim == null || pedido.dataFim().isAfter(pedidos.get(linhaComMaiorFim).dataFim())) {
+                        linhaComMaiorFim = i;
+                    }
+                    aceitas.put(i, new Reserva(pedido.nomeResponsavel(), sala, pedido.dataInicio(), pedido.dataFim()));
+                }
+            }
 
-        return reservaRepository.save(novaReserva);
+            rejeitadas.sort(Comparator.comparingInt(LinhaRejeitada::linha));
+            boolean gravar = rejeitadas.isEmpty() && !aceitas.isEmpty();
+            if (gravar) {
+                reservaRepository.saveAll(aceitas.values());
+            } else {
+                status.setRollbackOnly();
+            }
+            List<LinhaAceita> linhasAceitas = aceitas.entrySet().stream()
+                    .map(e -> new LinhaAceita(e.getKey() + 1, gravar ? e.getValue().getIdReserva() : null))
+                    .toList();
+            return new ResultadoLote(gravar, linhasAceitas, rejeitadas);
+        }));
+    }
+
+    private String validarPedido(PedidoReserva pedido, Map<String, Sala> salas) {
+        // Um 'null' no meio do array JSON
+        if (pedido == null) {
+            return "Linha vazia.";
+        }
+        if (pedido.idSala() == null || !salas.containsKey(pedido.idSala())) {
+            return "Sala não encontrada!";
+        }
+        if (pedido.nomeResponsavel() == null || pedido.nomeResponsavel().isBlank()) {
+            return "O nome do responsável é obrigatório.";
+        }
+        if (pedido.dataInicio() == null || pedido.dataFim() == null) {
+            return "As datas de início e fim são obrigatórias.";
+        }
+        if (pedido.dataFim().isBefore(pedido.dataInicio())) {
+            return "A data de fim da reserva não pode ser anterior à data de início.";
+        }
+        if (pedido.dataFim().isEqual(pedido.dataInicio())) {
+            return SEM_DURACAO;
+        }
+        return null;
+    }
+
+    /**
+     * Próximos horários livres da sala entre 'de' e 'ate' com pelo menos 'duracao'.
+     *
+     * A agenda é percorrida em ordem de início, em blocos pequenos, e a busca para
+     * assim que encontra 'quantidade' janelas; só a parte necessária é lida. As
+     * reservas arquivadas da janela (quase sempre nenhuma) entram na varredura na
+     * ordem de início, como em GerenciadorDeSeries.verificarConflitos.
+     */
+    public List<HorarioLivre> proximosHorariosLivres(Sala sala, Duration duracao, LocalDateTime de,
+            LocalDateTime ate, int quantidade) {
+        if (duracao.isNegative() || duracao.isZero()) {
+            throw new IllegalArgumentException("A duração deve ser maior que zero.");
+        }
+        if (ate.isBefore(de)) {
+            throw new IllegalArgumentException("O fim da busca não pode ser anterior ao início.");
+        }
+        List<HorarioLivre> livres = new ArrayList<>();
+        List<IntervaloReservado> arquivadas = arquivo.naJanela(sala.getId(), de, ate);
+        int proximaArquivada = 0;
+        LocalDateTime cursor = de;
+        while (livres.size() < quantidade && cursor.isBefore(ate)) {
+            // Tudo que já foi percorrido termina até o cursor, então a próxima leitura
+            // pode simplesmente recomeçar dele.
+            List<IntervaloReservado> bloco = indice.isConfiavel(sala.getId())
+                    ? indice.naJanela(sala.getId(), cursor, ate, LOTE_DE_LEITURA)
+                    : reservaRepository.findIntervalosNaJanela(sala.getId(), cursor, ate, Limit.of(LOTE_DE_LEITURA));
+            boolean ultimoBloco = bloco.size() < LOTE_DE_LEITURA;
+            List<IntervaloReservado> varredura = bloco;
+            if (proximaArquivada < arquivadas.size()) {
+                // Só as arquivadas que começam até o fim do bloco; as outras ficam
+                // para o próximo
+                LocalDateTime fimDoBloco = ultimoBloco ? ate : bloco.get(bloco.size() - 1).dataInicio();
+                varredura = new ArrayList<>(bloco);
+                while (proximaArquivada < arquivadas.size()
+                        && !arquivadas.get(proximaArquivada).dataInicio().isAfter(fimDoBloco)) {
+                    varredura.add(arquivadas.get(proximaArquivada++));
+                }
+                varredura.sort(Comparator.comparing(IntervaloReservado::dataInicio));
+            }
+            for (IntervaloReservado reserva : varredura) {
+                if (livres.size() == quantidade) {
+                    break;
+                }
+                if (!Duration.between(cursor, reserva.dataInicio()).minus(duracao).isNegative()) {
+                    livres.add(new HorarioLivre(cursor, reserva.dataInicio()));
+                }
+                if (reserva.dataFim().isAfter(cursor)) {
+                    cursor = reserva.dataFim();
+                }
+            }
+            if (ultimoBloco) {
+                // Acabaram as reservas da janela: o resto dela está livre
+                if (livres.size() < quantidade && !Duration.between(cursor, ate).minus(duracao).isNegative()) {
+                    livres.add(new HorarioLivre(cursor, ate));
+                }
+                break;
+            }
+        }
+        return livres;
+    }
+
+    // Consulta o índice em memória; o repositório só é usado quando o índice ainda
+    // não foi carregado ou não é confiável para esta sala. O histórico vem depois
+    // (ver ArquivoDeReservas.temConflito).
+    private boolean existeConflito(Sala sala, LocalDateTime dataInicio, LocalDateTime dataFim) {
+        boolean emUso;
+        if (indice.isConfiavel(sala.getId())) {
+            emUso = indice.temConflito(sala.getId(), dataInicio, dataFim);
+        } else {
+            emUso = !reservaRepository.findBySalaAndDataFimAfterAndDataInicioBefore(sala, dataInicio, dataFim)
+                    .isEmpty();
+        }
+        return emUso || arquivo.temConflito(sala.getId(), dataInicio, dataFim);
+    }
+
+    /**
+     * Uma página de reservas que ainda não terminaram em 'de' (e começam antes de
+     * 'ate', se informado), opcionalmente de uma só sala. Para a primeira página,
+     * aposInicio e aposId são nulos; para as seguintes, ambos são obrigatórios
+     * (IllegalArgumentException se só um vier).
+     */
+    public PaginaDeReservas listarReservas(String idSala, LocalDateTime de, LocalDateTime ate,
+            LocalDateTime aposInicio, Long aposId, int tamanhoPagina) {
+        PaginaDeReservas.validarCursor(aposInicio, aposId);
+        // Quem termina depois de 'de' não pode ter começado antes de 'de' menos a
+        // maior duração existente. Esse limite deixa o banco começar a leitura do
+        // índice perto da primeira linha da página, em vez de no início do histórico.
+        LocalDateTime desde = de.minus(indice.getMaiorDuracao());
+        if (aposInicio != null && aposInicio.isAfter(desde)) {
+            desde = aposInicio;
+        }
+
+        // Lê um item a mais só para saber se existe próxima página
+        Limit limite = Limit.of(tamanhoPagina + 1);
+        List<ReservaViewModel> reservas = idSala == null
+                ? reservaRepository.findPagina(desde, de, ate, aposInicio, aposId, limite)
+                : reservaRepository.findPaginaDaSala(idSala, desde, de, ate, aposInicio, aposId, limite);
+        if (reservas.size() <= tamanhoPagina) {
+            return new PaginaDeReservas(reservas, null, null);
+        }
+        reservas = reservas.subList(0, tamanhoPagina);
+        ReservaViewModel ultima = reservas.get(reservas.size() - 1);
+        return new PaginaDeReservas(reservas, ultima.getDataInicio(), ultima.getIdReserva());
     }
 
     public List<Reserva> getReservas() {
         return reservaRepository.findAll();
     }
 
+    // Salas vêm do catálogo em memória, já com os equipamentos (a página principal
+    // lista os equipamentos de cada sala)
     public List<Sala> getSalas() {
-        return salaRepository.findAll();
+        return catalogo.getSalas();
     }
 
     public Sala getSalaById(String id) {
-        return salaRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Sala não encontrada!"));
+        return catalogo.getSala(id).orElseThrow(() -> new IllegalArgumentException("Sala não encontrada!"));
     }
 }
\ No newline at end of file
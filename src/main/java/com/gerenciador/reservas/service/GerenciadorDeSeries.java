@@ -0,0 +1,222 @@
+package com.gerenciador.reservas.service;
+
+import com.gerenciador.reservas.model.Frequencia;
+import com.gerenciador.reservas.model.IntervaloReservado;
+import com.gerenciador.reservas.model.Reserva;
+import com.gerenciador.reservas.model.Sala;
+import com.gerenciador.reservas.model.SerieDeReservas;
+import com.gerenciador.reservas.repository.ReservaRepository;
+import com.gerenciador.reservas.repository.SalaRepository;
+import com.gerenciador.reservas.repository.SerieDeReservasRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Criação, edição e cancelamento de reservas recorrentes.
+ *
+ * Todas as ocorrências de uma série são checadas de uma vez: as reservas
+ * existentes da sala na janela da série são lidas já ordenadas (do índice em
+ * memória ou, como alternativa, numa única consulta) e comparadas com as
+ * ocorrências numa só varredura.
+ */
+@Service
+public class GerenciadorDeSeries {
+
+    public static final int MAXIMO_DE_OCORRENCIAS = 366;
+
+    static final String SERIE_ARQUIVADA = "A série já foi arquivada e não pode mais ser alterada.";
+
+    @Autowired
+    private SerieDeReservasRepository serieRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private SalaRepository salaRepository;
+
+    @Autowired
+    private IndiceDeReservas indice;
+
+    @Autowired
+    private ArquivoDeReservas arquivo;
+
+    @Autowired
+    private TravasPorSala travas;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public SerieDeReservas criarSerie(Sala sala, String nomeResponsavel, Frequencia frequencia,
+            LocalDateTime dataInicio, LocalDateTime dataFim, int ocorrencias) {
+        SerieDeReservas serie = new SerieDeReservas(nomeResponsavel, sala, frequencia, dataInicio, dataFim,
+                ocorrencias);
+        validar(serie);
+
+        return travas.executar(sala.getId(), () -> {
+            List<IntervaloReservado> ocorrenciasDaSerie = serie.expandir();
+
+            // Série e ocorrências entram juntas, na mesma transação. O contador da
+            // sala avança antes da checagem: as reservas do modo OTIMISTA gravadas
+            // até aqui já estão no índice, e as que vierem depois percebem a série.
+            return transactionTemplate.execute(status -> {
+                salaRepository.incrementarReservasGravadas(Set.of(sala.getId()));
+                verificarConflitos(serie, ocorrenciasDaSerie, Set.of());
+                SerieDeReservas salva = serieRepository.save(serie);
+                reservaRepository.saveAll(criarReservas(salva, ocorrenciasDaSerie));
+                return salva;
+            });
+        });
+    }
+
+    // Altera a série inteira: as ocorrências antigas são trocadas pelas novas. Na
+    // checagem de conflitos as ocorrências antigas da própria série são ignoradas.
+    // Séries arquivadas não podem ser editadas.
+    public SerieDeReservas editarSerie(Long idSerie, String nomeResponsavel, Frequencia frequencia,
+            LocalDateTime dataInicio, LocalDateTime dataFim, int ocorrencias) {
+        SerieDeReservas serie = getSerieById(idSerie);
+        if (serie.isArquivada()) {
+            throw new IllegalStateException(SERIE_ARQUIVADA);
+        }
+        serie.setNomeResponsavel(nomeResponsavel);
+        serie.setFrequencia(frequencia);
+        serie.setDataInicio(dataInicio);
+        serie.setDataFim(dataFim);
+        serie.setOcorrencias(ocorrencias);
+        validar(serie);
+
+        return travas.executar(serie.getSala().getId(), () -> {
+            List<Reserva> antigas = reservaRepository.findBySerie(serie);
+            Set<Long> idsAntigos = antigas.stream().map(Reserva::getIdReserva).collect(Collectors.toSet());
+            List<IntervaloReservado> ocorrenciasDaSerie = serie.expandir();
+
+            return transactionTemplate.execute(status -> {
+                travarNaoArquivada(idSerie);
+                salaRepository.incrementarReservasGravadas(Set.of(serie.getSala().getId()));
+                verificarConflitos(serie, ocorrenciasDaSerie, idsAntigos);
+                reservaRepository.deleteAll(antigas);
+                // O flush garante que os DELETEs saiam antes dos novos INSERTs
+                reservaRepository.flush();
+                SerieDeReservas salva = serieRepository.save(serie);
+                reservaRepository.saveAll(criarReservas(salva, ocorrenciasDaSerie));
+                return salva;
+            });
+        });
+    }
+
+    // Séries arquivadas não podem ser canceladas: as ocorrências já estão no histórico.
+    public void cancelarSerie(Long idSerie) {
+        SerieDeReservas serie = getSerieById(idSerie);
+        if (serie.isArquivada()) {
+            throw new IllegalStateException(SERIE_ARQUIVADA);
+        }
+        travas.executar(serie.getSala().getId(), () -> transactionTemplate.execute(status -> {
+            travarNaoArquivada(idSerie);
+            reservaRepository.deleteAll(reservaRepository.findBySerie(serie));
+            serieRepository.delete(serie);
+            return null;
+        }));
+    }
+
+    public List<SerieDeReservas> getSeries() {
+        return serieRepository.findAll();
+    }
+
+    public SerieDeReservas getSerieById(Long id) {
+        return serieRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Série de reservas não encontrada!"));
+    }
+
+    // Trava a linha da série e confere, já dentro da transação, que o arquivamento
+    // não a levou depois da leitura (ver ArquivoDeReservas).
+    private void travarNaoArquivada(Long idSerie) {
+        SerieDeReservas atual = serieRepository.travar(idSerie)
+                .orElseThrow(() -> new IllegalArgumentException("Série de reservas não encontrada!"));
+        if (atual.isArquivada()) {
+            throw new IllegalStateException(SERIE_ARQUIVADA);
+        }
+    }
+
+    // Todas as ocorrências têm a duração da primeira: a mesma checagem de uma
+    // reserva avulsa vale para a série inteira.
+    private void validar(SerieDeReservas serie) {
+        GerenciadorDeReservas.validarPeriodo(serie.getDataInicio(), serie.getDataFim());
+        if (serie.getOcorrencias() < 1 || serie.getOcorrencias() > MAXIMO_DE_OCORRENCIAS) {
+            throw new IllegalArgumentException(
+                    "O número de ocorrências deve estar entre 1 e " + MAXIMO_DE_OCORRENCIAS + ".");
+        }
+        if (serie.getDataFim().isAfter(serie.getDataInicio().plus(serie.getFrequencia().getIntervalo()))) {
+            throw new IllegalArgumentException("Cada ocorrência deve terminar até o início da próxima.");
+        }
+    }
+
+    private void verificarConflitos(SerieDeReservas serie, List<IntervaloReservado> ocorrencias,
+            Set<Long> ignorar) {
+        String idSala = serie.getSala().getId();
+        LocalDateTime inicio = serie.getDataInicio();
+        LocalDateTime fim = serie.getFimDaUltimaOcorrencia();
+        List<IntervaloReservado> existentes = indice.isConfiavel(idSala)
+                ? indice.naJanela(idSala, inicio, fim)
+                : reservaRepository.findIntervalosNaJanela(idSala, inicio, fim);
+        List<IntervaloReservado> arquivadas = arquivo.naJanela(idSala, inicio, fim);
+        if (!arquivadas.isEmpty()) {
+            existentes = new ArrayList<>(existentes);
+            existentes.addAll(arquivadas);
+            existentes.sort(Comparator.comparing(IntervaloReservado::dataInicio));
+        }
+
+        List<IntervaloReservado> conflitantes = ocorrenciasEmConflito(ocorrencias, existentes, ignorar);
+        if (!conflitantes.isEmpty()) {
+            String datas = conflitantes.stream()
+                    .map(o -> o.dataInicio().toLocalDate().toString())
+                    .collect(Collectors.joining(", "));
+            throw new IllegalStateException("O horário solicitado para esta sala já está reservado em: " + datas + ".");
+        }
+    }
+
+    /**
+     * Compara duas listas ordenadas por início numa única passada.
+     *
+     * O ponteiro das reservas existentes só avança sobre as que terminam antes da
+     * ocorrência atual, pois essas não podem conflitar com as próximas. A checagem
+     * interna continua correta mesmo se houver reservas sobrepostas no banco.
+     */
+    static List<IntervaloReservado> ocorrenciasEmConflito(List<IntervaloReservado> ocorrencias,
+            List<IntervaloReservado> existentes, Set<Long> ignorar) {
+        List<IntervaloReservado> conflitantes = new ArrayList<>();
+        int j = 0;
+        for (IntervaloReservado ocorrencia : ocorrencias) {
+            while (j < existentes.size() && !existentes.get(j).dataFim().isAfter(ocorrencia.dataInicio())) {
+                j++;
+            }
+            for (int k = j; k < existentes.size() && existentes.get(k).dataInicio().isBefore(ocorrencia.dataFim()); k++) {
+                IntervaloReservado existente = existentes.get(k);
+                if (existente.dataFim().isAfter(ocorrencia.dataInicio())
+                        && !ignorar.contains(existente.idReserva())) {
+                    conflitantes.add(ocorrencia);
+                    break;
+                }
+            }
+        }
+        return conflitantes;
+    }
+
+    private List<Reserva> criarReservas(SerieDeReservas serie, List<IntervaloReservado> ocorrencias) {
+        List<Reserva> reservas = new ArrayList<>(ocorrencias.size());
+        for (IntervaloReservado ocorrencia : ocorrencias) {
+            Reserva reserva = new Reserva(serie.getNomeResponsavel(), serie.getSala(), ocorrencia.dataInicio(),
+                    ocorrencia.dataFim());
+            reserva.setSerie(serie);
+            reservas.add(reserva);
+        }
+        return reservas;
+    }
+}
@@ -0,0 +1,207 @@
+package com.gerenciador.reservas.service;
+
+import com.gerenciador.reservas.model.Equipamento;
+import com.gerenciador.reservas.model.Sala;
+import com.gerenciador.reservas.repository.SalaRepository;
+import com.gerenciador.reservas.viewModel.ResultadoImportacao;
+import com.gerenciador.reservas.viewModel.ResultadoImportacao.ErroDeLinha;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Importação de salas e equipamentos a partir de arquivos CSV (cadastro de um
+ * campus novo, por exemplo).
+ *
+ * O arquivo é lido em blocos de linhas. Cada linha é validada com as mesmas
+ * regras de Bean Validation dos formulários; as inválidas são relatadas e as
+ * válidas do bloco são gravadas numa transação própria, com INSERTs em lote. Uma
+ * linha ruim não impede as outras de entrarem, e a memória usada não cresce com
+ * o tamanho do arquivo.
+ *
+ * Formatos (a primeira linha é o cabeçalho):
+ * - salas: id,nome,capacidade
+ * - equipamentos: nome,descricao,idSala (descricao e idSala são opcionais; com
+ *   idSala o equipamento já entra associado à sala, que precisa existir)
+ */
+@Service
+public class ImportadorDeCadastros {
+
+    // Linhas por transação; múltiplo do hibernate.jdbc.batch_size
+    private static final int LINHAS_POR_BLOCO = 500;
+
+    private static final int MAXIMO_DE_ERROS_LISTADOS = 1000;
+
+    @Autowired
+    private SalaRepository salaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    public ResultadoImportacao importarSalas(Reader arquivo) {
+        return importar(arquivo, List.of("id", "nome", "capacidade"), this::gravarSalas);
+    }
+
+    public ResultadoImportacao importarEquipamentos(Reader arquivo) {
+        return importar(arquivo, List.of("nome"), this::gravarEquipamentos);
+    }
+
+    // Grava as salas válidas do bloco e devolve quantas entraram
+    private int gravarSalas(List<LeitorCsv.Registro> bloco, Relatorio relatorio) {
+        List<LeitorCsv.Registro> validas = new ArrayList<>();
+        List<Sala> salas = new ArrayList<>();
+        for (LeitorCsv.Registro registro : bloco) {
+            Integer capacidade = inteiro(registro.get("capacidade"));
+            if (capacidade == null) {
+                relatorio.erro(registro, "A capacidade deve ser um número inteiro.");
+                continue;
+            }
+            Sala sala = new Sala(registro.get("id"), registro.get("nome"), capacidade);
+            if (relatorio.validar(registro, sala)) {
+                validas.add(registro);
+                salas.add(sala);
+            }
+        }
+
+        return transactionTemplate.execute(status -> {
+            // Ids repetidos: os já cadastrados (inclusive em blocos anteriores) e os
+            // repetidos dentro do próprio bloco
+            Set<String> usados = new HashSet<>(
+                    salaRepository.findIdsExistentes(salas.stream().map(Sala::getId).toList()));
+            int gravadas = 0;
+            for (int i = 0; i < salas.size(); i++) {
+                Sala sala = salas.get(i);
+                if (!usados.add(sala.getId())) {
+                    relatorio.erro(validas.get(i), "Já existe uma sala com o ID '" + sala.getId() + "'.");
+                    continue;
+                }
+                entityManager.persist(sala);
+                gravadas++;
+            }
+            return gravadas;
+        });
+    }
+
+    private int gravarEquipamentos(List<LeitorCsv.Registro> bloco, Relatorio relatorio) {
+        return transactionTemplate.execute(status -> {
+            // Uma consulta para todas as salas citadas no bloco, já com os equipamentos
+            Map<String, Sala> salas = salaRepository.findAllComEquipamentosById(bloco.stream()
+                    .map(r -> r.get("idSala")).filter(id -> id != null).distinct().toList())
+                    .stream().collect(Collectors.toMap(Sala::getId, Function.identity()));
+
+            int gravados = 0;
+            for (LeitorCsv.Registro registro : bloco) {
+                Equipamento equipamento = new Equipamento(registro.get("nome"), registro.get("descricao"));
+                if (!relatorio.validar(registro, equipamento)) {
+                    continue;
+                }
+                String idSala = registro.get("idSala");
+                Sala sala = idSala != null ? salas.get(idSala) : null;
+                if (idSala != null && sala == null) {
+                    relatorio.erro(registro, "Sala '" + idSala + "' não encontrada.");
+                    continue;
+                }
+                entityManager.persist(equipamento);
+                if (sala != null) {
+                    sala.adicionarEquipamento(equipamento);
+                }
+                gravados++;
+            }
+            return gravados;
+        });
+    }
+
+    private ResultadoImportacao importar(Reader arquivo, List<String> colunasObrigatorias, GravadorDeBloco gravador) {
+        Relatorio relatorio = new Relatorio();
+        int gravadas = 0;
+        try {
+            LeitorCsv leitor = new LeitorCsv(arquivo, colunasObrigatorias);
+            List<LeitorCsv.Registro> bloco = new ArrayList<>(LINHAS_POR_BLOCO);
+            LeitorCsv.Registro registro;
+            while ((registro = leitor.proximo()) != null) {
+                relatorio.linhasLidas++;
+                if (registro.erro() != null) {
+                    relatorio.erro(registro, registro.erro());
+                    continue;
+                }
+                bloco.add(registro);
+                if (bloco.size() == LINHAS_POR_BLOCO) {
+                    gravadas += gravador.gravar(bloco, relatorio);
+                    bloco.clear();
+                }
+            }
+            if (!bloco.isEmpty()) {
+                gravadas += gravador.gravar(bloco, relatorio);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        relatorio.erros.sort(Comparator.comparingInt(ErroDeLinha::linha));
+        return new ResultadoImportacao(relatorio.linhasLidas, gravadas, relatorio.erros,
+                relatorio.errosNaoListados);
+    }
+
+    private static Integer inteiro(String valor) {
+        try {
+            return valor == null ? null : Integer.valueOf(valor);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface GravadorDeBloco {
+        int gravar(List<LeitorCsv.Registro> bloco, Relatorio relatorio);
+    }
+
+    /**
+     * Linhas lidas e erros encontrados até aqui.
+     */
+    private class Relatorio {
+
+        private int linhasLidas;
+        private final List<ErroDeLinha> erros = new ArrayList<>();
+        private int errosNaoListados;
+
+        void erro(LeitorCsv.Registro registro, String motivo) {
+            if (erros.size() < MAXIMO_DE_ERROS_LISTADOS) {
+                erros.add(new ErroDeLinha(registro.linha(), motivo));
+            } else {
+                errosNaoListados++;
+            }
+        }
+
+        // Mesmas regras dos formulários; as mensagens de todas as violações da
+        // linha vão juntas, em ordem alfabética para a resposta ser estável.
+        boolean validar(LeitorCsv.Registro registro, Object cadastro) {
+            Set<ConstraintViolation<Object>> violacoes = validator.validate(cadastro);
+            if (violacoes.isEmpty()) {
+                return true;
+            }
+            erro(registro, violacoes.stream().map(ConstraintViolation::getMessage).sorted()
+                    .collect(Collectors.joining("; ")));
+            return false;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.gerenciador.reservas.service;
+
+import com.gerenciador.reservas.model.IntervaloReservado;
+import com.gerenciador.reservas.repository.ReservaArquivadaRepository;
+import com.gerenciador.reservas.repository.ReservaRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Índice em memória das reservas de cada sala, usado para detectar conflitos de
+ * horário sem ir ao banco.
+ *
+ * Cada sala tem uma agenda ordenada por data de início. Como o sistema não
+ * permite reservas sobrepostas na mesma sala, os fins também ficam ordenados, e
+ * basta olhar a última reserva que começa antes do fim pedido para saber se há
+ * conflito (O(log n)).
+ *
+ * Se uma sala tiver dados que quebram essa premissa (reservas sobrepostas
+ * gravadas por fora do serviço, por exemplo), a agenda dela é marcada como não
+ * confiável e o GerenciadorDeReservas volta a usar a consulta do repositório,
+ * que continua sendo a fonte oficial.
+ *
+ * Cada alteração das agendas é repassada, já aplicada, aos ouvintes inscritos
+ * (OuvinteDoIndice): ocupação por faixas, contadores de utilização, versões das
+ * ETags e limite do arquivo. O índice não guarda nada disso. Na carga, as
+ * reservas arquivadas também são repassadas, mas não entram nas agendas.
+ */
+@Component
+public class IndiceDeReservas implements SmartInitializingSingleton {
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private ReservaArquivadaRepository arquivoRepository;
+
+    private final Map<String, AgendaDaSala> agendas = new ConcurrentHashMap<>();
+    private final Map<Long, IntervaloReservado> porId = new ConcurrentHashMap<>();
+
+    private final List<OuvinteDoIndice> ouvintes = new CopyOnWriteArrayList<>();
+
+    private volatile boolean carregado = false;
+
+    // Maior duração já vista, em segundos. Só cresce: remoções não a diminuem, e
+    // ela continua sendo um limite superior válido.
+    private final AtomicLong maiorDuracao = new AtomicLong();
+
+    // Alterações já enviadas ao banco que ainda não chegaram aos ouvintes (ver
+    // iniciarAlteracao)
+    private final AtomicInteger pendentes = new AtomicInteger();
+
+    // Os ouvintes se inscrevem ao serem criados, antes da primeira carga.
+    void inscrever(OuvinteDoIndice ouvinte) {
+        ouvintes.add(ouvinte);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        carregar();
+    }
+
+    // Lê todas as reservas do banco e monta as agendas do zero.
+    public synchronized void carregar() {
+        carregado = false;
+        agendas.clear();
+        porId.clear();
+        ouvintes.forEach(OuvinteDoIndice::aoCarregar);
+        for (IntervaloReservado intervalo : reservaRepository.findAllIntervalos()) {
+            registrar(intervalo);
+        }
+        for (IntervaloReservado intervalo : arquivoRepository.findAllIntervalos()) {
+            // Arquivada durante a carga: já entrou acima, como reserva em uso, e o
+            // arquivar() que vem depois do commit a passa para o histórico
+            if (!porId.containsKey(intervalo.idReserva())) {
+                ouvintes.forEach(ouvinte -> ouvinte.aoCarregarArquivada(intervalo));
+            }
+        }
+        carregado = true;
+    }
+
+    // Indica se o índice pode responder pela sala. Caso contrário, quem chama deve
+    // consultar o repositório.
+    public boolean isConfiavel(String idSala) {
+        if (!carregado) {
+            return false;
+        }
+        AgendaDaSala agenda = agendas.get(idSala);
+        return agenda == null || agenda.isConsistente();
+    }
+
+    public boolean temConflito(String idSala, LocalDateTime inicio, LocalDateTime fim) {
+        AgendaDaSala agenda = agendas.get(idSala);
+        return agenda != null && agenda.temConflito(inicio, fim);
+    }
+
+    // Reservas da sala que tocam a janela [inicio, fim), ordenadas por início.
+    public List<IntervaloReservado> naJanela(String idSala, LocalDateTime inicio, LocalDateTime fim) {
+        AgendaDaSala agenda = agendas.get(idSala);
+        return agenda == null ? List.of() : agenda.naJanela(inicio, fim);
+    }
+
+    // Até 'limite' reservas da sala que terminam depois de 'inicio' e começam antes
+    // de 'fim', ordenadas por início.
+    public List<IntervaloReservado> naJanela(String idSala, LocalDateTime inicio, LocalDateTime fim, int limite) {
+        AgendaDaSala agenda = agendas.get(idSala);
+        return agenda == null ? List.of() : agenda.naJanela(inicio, fim, limite);
+    }
+
+    // Chamado após o commit de uma reserva nova ou alterada.
+    public void registrar(IntervaloReservado intervalo) {
+        anteciparDuracao(intervalo);
+        IntervaloReservado anterior = porId.put(intervalo.idReserva(), intervalo);
+        if (anterior != null) {
+            agenda(anterior.idSala()).remover(anterior);
+        }
+        agenda(intervalo.idSala()).adicionar(intervalo);
+        for (OuvinteDoIndice ouvinte : ouvintes) {
+            ouvinte.aoGravar(anterior, intervalo);
+        }
+    }
+
+    // Chamado antes do commit por quem grava sem a trava da sala (ReservaOtimista):
+    // a reserva já aparece para quem checa conflitos sob a trava. Se a transação
+    // for desfeita ela sai de novo; se não, o registrar() depois do commit não
+    // muda nada além da versão.
+    public void registrarAntesDoCommit(IntervaloReservado intervalo) {
+        iniciarAlteracao();
+        registrar(intervalo);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    remover(intervalo.idReserva());
+                }
+                concluirAlteracao();
+            }
+        });
+    }
+
+    // Chamado antes do commit de toda reserva gravada: a maior duração precisa
+    // valer para a reserva antes de ela ficar visível no banco (ver
+    // ReservaOtimista). Se a transação for desfeita o limite continua válido.
+    public void anteciparDuracao(IntervaloReservado intervalo) {
+        long duracao = Duration.between(intervalo.dataInicio(), intervalo.dataFim()).toSeconds();
+        maiorDuracao.accumulateAndGet(duracao, Math::max);
+    }
+
+    // Chamado após o commit da exclusão de uma reserva.
+    public void remover(Long idReserva) {
+        IntervaloReservado anterior = porId.remove(idReserva);
+        if (anterior != null) {
+            agenda(anterior.idSala()).remover(anterior);
+            for (OuvinteDoIndice ouvinte : ouvintes) {
+                ouvinte.aoRemover(anterior);
+            }
+        }
+    }
+
+    // Chamado após o commit de um bloco do arquivamento: as reservas saem das
+    // agendas. Ids que o índice não tem mais (cancelados no meio do caminho) são
+    // ignorados.
+    synchronized void arquivar(Collection<Long> idsReservas) {
+        for (Long idReserva : idsReservas) {
+            IntervaloReservado intervalo = porId.remove(idReserva);
+            if (intervalo != null) {
+                agenda(intervalo.idSala()).remover(intervalo);
+                for (OuvinteDoIndice ouvinte : ouvintes) {
+                    ouvinte.aoArquivar(intervalo);
+                }
+            }
+        }
+    }
+
+    // Uma alteração entre o flush e o aviso depois do commit (ver ReservaListener)
+    // já pode estar no banco sem ter chegado aos ouvintes. Quem remonta o próprio
+    // estado a partir do banco só pode trocá-lo quando não há nenhuma pendente (ver
+    // UtilizacaoDasSalas.verificar).
+    public void iniciarAlteracao() {
+        pendentes.incrementAndGet();
+    }
+
+    // Chamado depois do commit (ou rollback), já com os ouvintes avisados.
+    public void concluirAlteracao() {
+        pendentes.decrementAndGet();
+    }
+
+    boolean temAlteracoesPendentes() {
+        return pendentes.get() > 0;
+    }
+
+    // Nenhuma reserva gravada dura mais que isso, então quem termina depois de um
+    // instante t começou depois de t menos essa duração. Vale para todas as salas,
+    // inclusive as não confiáveis.
+    public Duration getMaiorDuracao() {
+        return Duration.ofSeconds(maiorDuracao.get());
+    }
+
+    public int getTotalIndexado() {
+        return porId.size();
+    }
+
+    private AgendaDaSala agenda(String idSala) {
+        return agendas.computeIfAbsent(idSala, id -> new AgendaDaSala());
+    }
+
+    /**
+     * Reservas de uma única sala, ordenadas pela data de início.
+     */
+    static class AgendaDaSala {
+
+        private final TreeMap<LocalDateTime, IntervaloReservado> porInicio = new TreeMap<>();
+        private volatile boolean consistente = true;
+
+        boolean isConsistente() {
+            return consistente;
+        }
+
+        // Mesma semântica da consulta do repositório: conflita quem termina depois do
+        // início pedido e começa antes do fim pedido.
+        synchronized boolean temConflito(LocalDateTime inicio, LocalDateTime fim) {
+            Map.Entry<LocalDateTime, IntervaloReservado> anterior = porInicio.lowerEntry(fim);
+            return anterior != null && anterior.getValue().dataFim().isAfter(inicio);
+        }
+
+        synchronized List<IntervaloReservado> naJanela(LocalDateTime inicio, LocalDateTime fim) {
+            return naJanela(inicio, fim, Integer.MAX_VALUE);
+        }
+
+        synchronized List<IntervaloReservado> naJanela(LocalDateTime inicio, LocalDateTime fim, int limite) {
+            // A reserva que começa antes da janela ainda pode invadi-la
+            LocalDateTime desde = porInicio.lowerKey(inicio);
+            List<IntervaloReservado> resultado = new ArrayList<>();
+            for (IntervaloReservado intervalo : porInicio
+                    .subMap(desde != null ? desde : inicio, true, fim, false).values()) {
+                if (resultado.size() == limite) {
+                    break;
+                }
+                if (intervalo.dataFim().isAfter(inicio)) {
+                    resultado.add(intervalo);
+                }
+            }
+            return resultado;
+        }
+
+        synchronized void adicionar(IntervaloReservado intervalo) {
+            if (!consistente) {
+                return;
+            }
+            if (temConflito(intervalo.dataInicio(), intervalo.dataFim())
+                    || porInicio.containsKey(intervalo.dataInicio())) {
+                // Reserva sobreposta: a premissa do índice não vale mais para esta sala.
+                consistente = false;
+                porInicio.clear();
+                return;
+            }
+            porInicio.put(intervalo.dataInicio(), intervalo);
+        }
+
+        synchronized void remover(IntervaloReservado intervalo) {
+            porInicio.remove(intervalo.dataInicio(), intervalo);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.gerenciador.reservas.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lê um CSV (RFC 4180, separado por vírgulas) um registro de cada vez, sem
+ * carregar o arquivo inteiro.
+ *
+ * A primeira linha é o cabeçalho: as colunas são encontradas pelo nome (sem
+ * diferenciar maiúsculas), então a ordem delas no arquivo não importa. Campos
+ * entre aspas podem conter vírgulas, quebras de linha e aspas dobradas.
+ *
+ * Aspas que chegam abertas ao fim do arquivo não engolem o resto dele: o
+ * registro onde elas abriram volta com erro e a leitura recomeça na linha física
+ * seguinte a ele.
+ */
+class LeitorCsv {
+
+    static final String ASPAS_ABERTAS = "Aspas abertas neste registro não foram fechadas até o fim do arquivo.";
+
+    // 'erro' vem preenchido (e 'valores' vazio) quando a linha não pôde ser lida
+    record Registro(int linha, Map<String, String> valores, String erro) {
+
+        // Valor da coluna, sem espaços nas pontas; nulo se a coluna não existe
+        // ou o campo está vazio.
+        String get(String coluna) {
+            String valor = valores.get(coluna.toLowerCase(Locale.ROOT));
+            return valor == null || valor.isBlank() ? null : valor.strip();
+        }
+    }
+
+    private final BufferedReader entrada;
+    private final List<String> colunas = new ArrayList<>();
+    private int linhasLidas = 0;
+
+    // Linhas já lidas do arquivo que precisam ser lidas de novo (ver lerCampos)
+    private final Deque<String> devolvidas = new ArrayDeque<>();
+    private boolean aspasAbertas;
+
+    LeitorCsv(Reader entrada, List<String> obrigatorias) throws IOException {
+        this.entrada = entrada instanceof BufferedReader b ? b : new BufferedReader(entrada);
+        List<String> cabecalho = lerCampos();
+        if (aspasAbertas) {
+            throw new IllegalArgumentException("O cabeçalho tem aspas que não foram fechadas.");
+        }
+        if (cabecalho == null) {
+            throw new IllegalArgumentException("O arquivo está vazio.");
+        }
+        for (String coluna : cabecalho) {
+            // O Excel costuma gravar UTF-8 com BOM no início do arquivo
+            colunas.add(coluna.replace("\uFEFF", "").strip().toLowerCase(Locale.ROOT));
+        }
+        for (String obrigatoria : obrigatorias) {
+            if (!colunas.contains(obrigatoria.toLowerCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("Coluna obrigatória ausente no cabeçalho: " + obrigatoria);
+            }
+        }
+    }
+
+    // Próximo registro, ou nulo no fim do arquivo. Linhas em branco são puladas.
+    Registro proximo() throws IOException {
+        while (true) {
+            int linha = linhasLidas + 1;
+            List<String> campos = lerCampos();
+            if (aspasAbertas) {
+                return new Registro(linha, Map.of(), ASPAS_ABERTAS);
+            }
+            if (campos == null) {
+                return null;
+            }
+            if (campos.size() == 1 && campos.get(0).isBlank()) {
+                continue;
+            }
+            Map<String, String> valores = new HashMap<>();
+            for (int i = 0; i < campos.size() && i < colunas.size(); i++) {
+                valores.put(colunas.get(i), campos.get(i));
+            }
+            return new Registro(linha, valores, null);
+        }
+    }
+
+    // Campos de um registro, que pode ocupar várias linhas físicas se houver
+    // quebra de linha dentro de aspas. Se o arquivo acaba com as aspas abertas,
+    // devolve nulo com aspasAbertas ligado, e as linhas lidas depois da primeira
+    // voltam para ser lidas como registros.
+    private List<String> lerCampos() throws IOException {
+        aspasAbertas = false;
+        String linha = lerLinha();
+        if (linha == null) {
+            return null;
+        }
+        linhasLidas++;
+        List<String> seguintes = new ArrayList<>();
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        int i = 0;
+        while (true) {
+            if (i == linha.length()) {
+                if (!entreAspas) {
+                    break;
+                }
+                // Aspas abertas: o campo continua na próxima linha
+                linha = lerLinha();
+                if (linha == null) {
+                    for (int k = seguintes.size() - 1; k >= 0; k--) {
+                        devolvidas.addFirst(seguintes.get(k));
+                    }
+                    linhasLidas -= seguintes.size();
+                    aspasAbertas = true;
+                    return null;
+                }
+                seguintes.add(linha);
+                linhasLidas++;
+                campo.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = linha.charAt(i++);
+            if (entreAspas) {
+                if (c == '"' && i < linha.length() && linha.charAt(i) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    private String lerLinha() throws IOException {
+        return devolvidas.isEmpty() ? entrada.readLine() : devolvidas.removeFirst();
+    }
+}
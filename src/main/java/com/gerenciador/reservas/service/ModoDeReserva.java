@@ -0,0 +1,21 @@
+package com.gerenciador.reservas.service;
+
+/**
+ * Como os pedidos de reserva da tela principal são gravados (propriedade
+ * reservas.reserva.modo).
+ */
+public enum ModoDeReserva {
+
+    // Cada pedido checa conflitos e grava na sua própria transação, sob a trava da
+    // sala (GerenciadorDeReservas.reservarSala).
+    DIRETO,
+
+    // Os pedidos entram numa fila por sala; um único escritor por fila checa os
+    // conflitos em memória e grava vários pedidos aceitos numa só transação
+    // (FilaDeReservas).
+    FILA,
+
+    // Sem travas: cada pedido lê o contador de reservas da sala, checa conflitos e
+    // grava só se o contador não mudou; senão tenta de novo (ReservaOtimista).
+    OTIMISTA
+}
@@ -0,0 +1,133 @@
+package com.gerenciador.reservas.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ocupação de uma sala em faixas de 15 minutos: um bit por faixa, 96 por dia
+ * (dois longs). Uma faixa está ocupada se alguma reserva a toca, mesmo que por
+ * poucos minutos.
+ *
+ * Os dias ficam em blocos de 32 (um long[64] por bloco), criados só quando o
+ * bloco tem alguma faixa ocupada. Assim uma sala usada todos os dias custa cerca
+ * de 16 bytes por dia, e uma reserva isolada num ano distante não obriga a alocar
+ * os dias do meio.
+ *
+ * Não é thread-safe: quem usa (AgendaDaSala, CalendarioDeOcupacao) cuida disso.
+ */
+class OcupacaoDaSala {
+
+    static final int MINUTOS_POR_FAIXA = 15;
+    static final int FAIXAS_POR_DIA = 24 * 60 / MINUTOS_POR_FAIXA;
+    static final int PALAVRAS_POR_DIA = (FAIXAS_POR_DIA + 63) / 64;
+
+    private static final int BITS_DIAS_POR_BLOCO = 5;
+    private static final int DIAS_POR_BLOCO = 1 << BITS_DIAS_POR_BLOCO;
+    private static final long NANOS_POR_FAIXA = MINUTOS_POR_FAIXA * 60_000_000_000L;
+    private static final long NANOS_POR_DIA = FAIXAS_POR_DIA * NANOS_POR_FAIXA;
+
+    // Estimativa do heap de um bloco: o long[] (16 bytes de cabeçalho mais os
+    // dados), a chave Integer e o nó do HashMap.
+    private static final long BYTES_POR_BLOCO = 16 + DIAS_POR_BLOCO * PALAVRAS_POR_DIA * 8L + 16 + 32;
+
+    private final Map<Integer, long[]> blocos = new HashMap<>();
+
+    // Marca as faixas que [inicio, fim) toca, em todos os dias do intervalo.
+    void marcar(LocalDateTime inicio, LocalDateTime fim) {
+        for (LocalDate dia = inicio.toLocalDate(); dia.atStartOfDay().isBefore(fim); dia = dia.plusDays(1)) {
+            long desde = Math.max(0, ChronoUnit.NANOS.between(dia.atStartOfDay(), inicio));
+            long ate = Math.min(NANOS_POR_DIA, ChronoUnit.NANOS.between(dia.atStartOfDay(), fim));
+            if (ate > desde) {
+                marcarFaixas(dia, (int) (desde / NANOS_POR_FAIXA), (int) ((ate - 1) / NANOS_POR_FAIXA) + 1);
+            }
+        }
+    }
+
+    // Desmarca o dia inteiro; o bloco é liberado quando fica vazio.
+    void limpar(LocalDate dia) {
+        long[] bloco = blocos.get(bloco(dia));
+        if (bloco == null) {
+            return;
+        }
+        int posicao = posicao(dia);
+        for (int p = 0; p < PALAVRAS_POR_DIA; p++) {
+            bloco[posicao + p] = 0;
+        }
+        for (long palavra : bloco) {
+            if (palavra != 0) {
+                return;
+            }
+        }
+        blocos.remove(bloco(dia));
+    }
+
+    void limparTudo() {
+        blocos.clear();
+    }
+
+    // Copia as palavras de 'dias' dias, a partir de 'primeiroDia', para 'destino'
+    // a partir de 'posicao' (PALAVRAS_POR_DIA por dia). Dias livres ficam zerados.
+    void copiar(LocalDate primeiroDia, int dias, long[] destino, int posicao) {
+        LocalDate dia = primeiroDia;
+        for (int d = 0; d < dias; d++, dia = dia.plusDays(1)) {
+            long[] bloco = blocos.get(bloco(dia));
+            if (bloco != null) {
+                System.arraycopy(bloco, posicao(dia), destino, posicao + d * PALAVRAS_POR_DIA, PALAVRAS_POR_DIA);
+            } else {
+                for (int p = 0; p < PALAVRAS_POR_DIA; p++) {
+                    destino[posicao + d * PALAVRAS_POR_DIA + p] = 0;
+                }
+            }
+        }
+    }
+
+    // Como copiar(), mas soma (OR) os bits aos que já estão em 'destino'.
+    void combinar(LocalDate primeiroDia, int dias, long[] destino, int posicao) {
+        LocalDate dia = primeiroDia;
+        for (int d = 0; d < dias; d++, dia = dia.plusDays(1)) {
+            long[] bloco = blocos.get(bloco(dia));
+            if (bloco != null) {
+                for (int p = 0; p < PALAVRAS_POR_DIA; p++) {
+                    destino[posicao + d * PALAVRAS_POR_DIA + p] |= bloco[posicao(dia) + p];
+                }
+            }
+        }
+    }
+
+    long getBytes() {
+        return blocos.size() * BYTES_POR_BLOCO;
+    }
+
+    // Faixas [de, ate) do dia
+    private void marcarFaixas(LocalDate dia, int de, int ate) {
+        long[] bloco = blocos.computeIfAbsent(bloco(dia), b -> new long[DIAS_POR_BLOCO * PALAVRAS_POR_DIA]);
+        int posicao = posicao(dia);
+        for (int p = de >>> 6; p <= (ate - 1) >>> 6; p++) {
+            int primeiro = Math.max(de - (p << 6), 0);
+            int ultimo = Math.min(ate - (p << 6), 64);
+            long mascara = (ultimo == 64 ? -1L : (1L << ultimo) - 1) & (-1L << primeiro);
+            bloco[posicao + p] |= mascara;
+        }
+    }
+
+    private static int bloco(LocalDate dia) {
+        return (int) (dia.toEpochDay() >> BITS_DIAS_POR_BLOCO);
+    }
+
+    private static int posicao(LocalDate dia) {
+        return (int) (dia.toEpochDay() & (DIAS_POR_BLOCO - 1)) * PALAVRAS_POR_DIA;
+    }
+
+    // Texto de um dia copiado por copiar(): um caractere por faixa, '1' ocupada e
+    // '0' livre, da meia-noite em diante.
+    static String formatar(long[] palavras, int posicao) {
+        char[] faixas = new char[FAIXAS_POR_DIA];
+        for (int f = 0; f < FAIXAS_POR_DIA; f++) {
+            faixas[f] = (palavras[posicao + (f >>> 6)] & (1L << f)) != 0 ? '1' : '0';
+        }
+        return new String(faixas);
+    }
+}
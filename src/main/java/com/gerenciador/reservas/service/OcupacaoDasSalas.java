@@ -0,0 +1,144 @@
+package com.gerenciador.reservas.service;
+
+import com.gerenciador.reservas.model.IntervaloReservado;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ocupação de cada sala por faixas de 15 minutos (OcupacaoDaSala), atualizada a
+ * cada reserva gravada ou removida no IndiceDeReservas. A grade de ocupação da
+ * semana (CalendarioDeOcupacao) é montada só com esses bits.
+ *
+ * Reservas arquivadas (ArquivoDeReservas) saem da ocupação, mas os bits delas
+ * passam para uma ocupação à parte, o histórico da sala, que não muda mais.
+ */
+@Component
+public class OcupacaoDasSalas implements OuvinteDoIndice {
+
+    @Autowired
+    private IndiceDeReservas indice;
+
+    private final Map<String, OcupacaoComHistorico> salas = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void inscrever() {
+        indice.inscrever(this);
+    }
+
+    @Override
+    public void aoCarregar() {
+        salas.clear();
+    }
+
+    @Override
+    public void aoGravar(IntervaloReservado anterior, IntervaloReservado intervalo) {
+        if (anterior != null) {
+            desmarcar(anterior);
+        }
+        OcupacaoComHistorico sala = sala(intervalo.idSala());
+        synchronized (sala) {
+            sala.ocupacao.marcar(intervalo.dataInicio(), intervalo.dataFim());
+        }
+    }
+
+    @Override
+    public void aoRemover(IntervaloReservado anterior) {
+        desmarcar(anterior);
+    }
+
+    @Override
+    public void aoArquivar(IntervaloReservado intervalo) {
+        aoCarregarArquivada(intervalo);
+        desmarcar(intervalo);
+    }
+
+    @Override
+    public void aoCarregarArquivada(IntervaloReservado intervalo) {
+        OcupacaoComHistorico sala = sala(intervalo.idSala());
+        synchronized (sala) {
+            sala.historico.marcar(intervalo.dataInicio(), intervalo.dataFim());
+        }
+    }
+
+    // Copia para 'destino', a partir de 'posicao', a ocupação da sala em 'dias'
+    // dias a partir de 'primeiroDia' (OcupacaoDaSala.PALAVRAS_POR_DIA longs por
+    // dia). Devolve false, sem copiar nada, se o índice não responde pela sala.
+    boolean copiar(String idSala, LocalDate primeiroDia, int dias, long[] destino, int posicao) {
+        if (!indice.isConfiavel(idSala)) {
+            return false;
+        }
+        OcupacaoComHistorico sala = salas.get(idSala);
+        if (sala == null) {
+            Arrays.fill(destino, posicao, posicao + dias * OcupacaoDaSala.PALAVRAS_POR_DIA, 0);
+            return true;
+        }
+        synchronized (sala) {
+            sala.ocupacao.copiar(primeiroDia, dias, destino, posicao);
+            sala.historico.combinar(primeiroDia, dias, destino, posicao);
+        }
+        return true;
+    }
+
+    // Estimativa do heap ocupado pelos bits de ocupação da sala
+    public long getBytes(String idSala) {
+        OcupacaoComHistorico sala = salas.get(idSala);
+        if (sala == null) {
+            return 0;
+        }
+        synchronized (sala) {
+            return sala.ocupacao.getBytes() + sala.historico.getBytes();
+        }
+    }
+
+    public long getBytes() {
+        long total = 0;
+        for (String idSala : salas.keySet()) {
+            total += getBytes(idSala);
+        }
+        return total;
+    }
+
+    // Uma faixa pode ser dividida por duas reservas (uma termina às 10h05 e a
+    // outra começa às 10h10): os dias tocados são remarcados com as reservas que
+    // sobraram neles na agenda, que já não tem a reserva removida.
+    private void desmarcar(IntervaloReservado anterior) {
+        OcupacaoComHistorico sala = sala(anterior.idSala());
+        synchronized (sala) {
+            for (LocalDate dia = anterior.dataInicio().toLocalDate();
+                    dia.atStartOfDay().isBefore(anterior.dataFim()); dia = dia.plusDays(1)) {
+                LocalDateTime inicioDoDia = dia.atStartOfDay();
+                LocalDateTime fimDoDia = inicioDoDia.plusDays(1);
+                sala.ocupacao.limpar(dia);
+                for (IntervaloReservado restante : indice.naJanela(anterior.idSala(), inicioDoDia, fimDoDia)) {
+                    sala.ocupacao.marcar(max(restante.dataInicio(), inicioDoDia), min(restante.dataFim(), fimDoDia));
+                }
+            }
+        }
+    }
+
+    private OcupacaoComHistorico sala(String idSala) {
+        return salas.computeIfAbsent(idSala, id -> new OcupacaoComHistorico());
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    // Bits das reservas arquivadas ficam separados: a remarcação de um dia em
+    // desmarcar() só enxerga as reservas da agenda.
+    private static class OcupacaoComHistorico {
+        private final OcupacaoDaSala ocupacao = new OcupacaoDaSala();
+        private final OcupacaoDaSala historico = new OcupacaoDaSala();
+    }
+}
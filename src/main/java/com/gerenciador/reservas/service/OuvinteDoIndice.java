@@ -0,0 +1,36 @@
+package com.gerenciador.reservas.service;
+
+import com.gerenciador.reservas.model.IntervaloReservado;
+
+/**
+ * Quem acompanha as alterações do IndiceDeReservas: a ocupação por faixas
+ * (OcupacaoDasSalas), os contadores de utilização (UtilizacaoDasSalas), as
+ * versões usadas nas ETags (VersoesDasReservas) e o limite do arquivo
+ * (ArquivoDeReservas). Cada um se inscreve com IndiceDeReservas.inscrever.
+ *
+ * As chamadas chegam depois de a agenda da sala já refletir a alteração e, fora
+ * da carga, depois do commit (ver ReservaListener).
+ */
+interface OuvinteDoIndice {
+
+    // Início de IndiceDeReservas.carregar(): o que foi recebido até aqui deve ser
+    // descartado, porque todas as reservas vêm de novo em seguida.
+    default void aoCarregar() {
+    }
+
+    // Reserva gravada ou alterada. 'anterior' é a versão que o índice tinha dela
+    // (null se é nova).
+    default void aoGravar(IntervaloReservado anterior, IntervaloReservado intervalo) {
+    }
+
+    default void aoRemover(IntervaloReservado anterior) {
+    }
+
+    // Reserva que saiu da agenda para o arquivo (ver ArquivoDeReservas.arquivar)
+    default void aoArquivar(IntervaloReservado intervalo) {
+    }
+
+    // Reserva lida da tabela de reservas arquivadas durante a carga
+    default void aoCarregarArquivada(IntervaloReservado intervalo) {
+    }
+}
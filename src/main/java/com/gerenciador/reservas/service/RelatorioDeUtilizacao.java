@@ -0,0 +1,105 @@
+package com.gerenciador.reservas.service;
+
+import com.gerenciador.reservas.model.Sala;
+import com.gerenciador.reservas.viewModel.UtilizacaoNoPeriodo;
+import com.gerenciador.reservas.viewModel.UtilizacaoNoPeriodo.PorDiaDaSemana;
+import com.gerenciador.reservas.viewModel.UtilizacaoNoPeriodo.PorHora;
+import com.gerenciador.reservas.viewModel.UtilizacaoNoPeriodo.PorSala;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Taxas de ocupação por sala, por dia da semana e por hora, calculadas só com os
+ * contadores de UtilizacaoDasSalas: o custo é de salas x dias x 24 somas, não
+ * importa quantas reservas existam, e a tabela de reservas não é lida.
+ */
+@Service
+public class RelatorioDeUtilizacao {
+
+    public static final int MAXIMO_DE_DIAS = 366;
+
+    private static final int HORAS_POR_DIA = UtilizacaoDaSala.HORAS_POR_DIA;
+
+    @Value("${reservas.utilizacao.abertura:8}")
+    private int abertura;
+
+    @Value("${reservas.utilizacao.fechamento:18}")
+    private int fechamento;
+
+    @Autowired
+    private UtilizacaoDasSalas utilizacao;
+
+    @Autowired
+    private CatalogoDeSalas catalogo;
+
+    // Sem salas informadas, todas as do catálogo, ordenadas por id.
+    public UtilizacaoNoPeriodo montar(LocalDate de, LocalDate ate, Collection<String> idsSalas) {
+        long periodo = ChronoUnit.DAYS.between(de, ate);
+        if (periodo < 1 || periodo > MAXIMO_DE_DIAS) {
+            throw new IllegalArgumentException(
+                    "O período do relatório deve ter de 1 a " + MAXIMO_DE_DIAS + " dias, com 'ate' depois de 'de'.");
+        }
+        int dias = (int) periodo;
+        List<Sala> salas = idsSalas == null || idsSalas.isEmpty() ? catalogo.getSalas()
+                : idsSalas.stream().map(id -> catalogo.getSala(id)
+                        .orElseThrow(() -> new IllegalArgumentException("Sala '" + id + "' não encontrada.")))
+                        .toList();
+
+        int[] diaDaSemana = new int[dias];
+        long[] ocorrenciasDoDiaDaSemana = new long[7];
+        for (int d = 0; d < dias; d++) {
+            diaDaSemana[d] = de.plusDays(d).getDayOfWeek().ordinal();
+            ocorrenciasDoDiaDaSemana[diaDaSemana[d]]++;
+        }
+        int horasAbertas = fechamento - abertura;
+
+        // Um único buffer, reaproveitado de sala em sala
+        int[] minutos = new int[dias * HORAS_POR_DIA];
+        long[] porHora = new long[HORAS_POR_DIA];
+        long[] porDiaDaSemana = new long[7];
+        List<PorSala> linhas = new ArrayList<>(salas.size());
+        for (Sala sala : salas) {
+            utilizacao.copiar(sala.getId(), de, dias, minutos);
+            long noHorario = 0;
+            for (int d = 0; d < dias; d++) {
+                for (int h = 0; h < HORAS_POR_DIA; h++) {
+                    int m = minutos[d * HORAS_POR_DIA + h];
+                    porHora[h] += m;
+                    if (h >= abertura && h < fechamento) {
+                        noHorario += m;
+                        porDiaDaSemana[diaDaSemana[d]] += m;
+                    }
+                }
+            }
+            linhas.add(new PorSala(sala.getId(), sala.getNome(), noHorario,
+                    taxa(noHorario, (long) dias * horasAbertas * 60)));
+        }
+
+        List<PorDiaDaSemana> diasDaSemana = new ArrayList<>();
+        for (DayOfWeek dia : DayOfWeek.values()) {
+            long ocorrencias = ocorrenciasDoDiaDaSemana[dia.ordinal()];
+            if (ocorrencias > 0) {
+                diasDaSemana.add(new PorDiaDaSemana(dia, porDiaDaSemana[dia.ordinal()],
+                        taxa(porDiaDaSemana[dia.ordinal()], ocorrencias * salas.size() * horasAbertas * 60)));
+            }
+        }
+        List<PorHora> horas = new ArrayList<>(HORAS_POR_DIA);
+        for (int h = 0; h < HORAS_POR_DIA; h++) {
+            horas.add(new PorHora(h, porHora[h], taxa(porHora[h], (long) dias * salas.size() * 60)));
+        }
+        return new UtilizacaoNoPeriodo(de, ate, abertura, fechamento, linhas, diasDaSemana, horas);
+    }
+
+    // Com quatro casas decimais; 0 quando não há minutos disponíveis
+    private static double taxa(long reservados, long disponiveis) {
+        return disponiveis > 0 ? Math.round(reservados * 10_000.0 / disponiveis) / 10_000.0 : 0;
+    }
+}
@@ -0,0 +1,160 @@
+package com.gerenciador.reservas.service;
+
+import com.gerenciador.reservas.model.EstadoDaAgenda;
+import com.gerenciador.reservas.model.IntervaloReservado;
+import com.gerenciador.reservas.model.Reserva;
+import com.gerenciador.reservas.model.Sala;
+import com.gerenciador.reservas.repository.ReservaRepository;
+import com.gerenciador.reservas.repository.SalaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gravação otimista de reservas (modo OTIMISTA).
+ *
+ * Cada tentativa lê o contador de reservas da sala (Sala.reservasGravadas), checa
+ * conflitos no banco e grava com um UPDATE condicional: o contador só avança se
+ * ainda for o lido. Se outra reserva da sala entrou no meio, o UPDATE não altera
+ * nenhuma linha, a transação é desfeita e o pedido tenta de novo, com espera
+ * exponencial aleatória, até 'tentativas' vezes. Salas sem disputa gravam na
+ * primeira tentativa sem esperar por ninguém.
+ *
+ * A checagem vai ao banco, e não ao IndiceDeReservas, porque o índice só recebe
+ * as reservas das outras formas de gravar depois do commit: entre um e outro ela
+ * já conta no contador mas ainda não aparece no índice. Do índice vem só a maior
+ * duração existente, que limita a consulta às reservas que começam perto do
+ * horário pedido; ela avança antes do commit de qualquer reserva (ver
+ * IndiceDeReservas.anteciparDuracao), então basta relê-la depois da checagem.
+ *
+ * Nenhuma trava de sala (TravasPorSala) é usada. Para que quem grava sob a trava
+ * (séries, lotes) veja as reservas otimistas, cada uma entra no índice ainda
+ * dentro da transação, depois do UPDATE do contador, e sai de novo se a
+ * transação for desfeita. Séries e lotes avançam o contador antes de checar
+ * conflitos: o UPDATE deles espera o de uma reserva otimista em andamento, e o
+ * dela falha se o deles veio antes.
+ *
+ * Métricas: reservas.otimista.tentativas, reservas.otimista.retentativas e
+ * reservas.otimista.colisoes. A taxa de disputa é colisoes / tentativas.
+ */
+@Component
+public class ReservaOtimista {
+
+    private static final String CONFLITO = "O horário solicitado para esta sala já está reservado.";
+
+    // Limite inferior da checagem quando o índice não informa a maior duração
+    private static final LocalDateTime SEM_LIMITE = LocalDateTime.of(1, 1, 1, 0, 0);
+
+    @Value("${reservas.otimista.tentativas:5}")
+    private int tentativas;
+
+    @Value("${reservas.otimista.espera-inicial-ms:2}")
+    private long esperaInicialMs;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private SalaRepository salaRepository;
+
+    @Autowired
+    private IndiceDeReservas indice;
+
+    @Autowired
+    private ArquivoDeReservas arquivo;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry registro;
+
+    private Counter contadorDeTentativas;
+    private Counter contadorDeRetentativas;
+    private Counter colisoes;
+
+    @PostConstruct
+    public void registrarMetricas() {
+        contadorDeTentativas = Counter.builder("reservas.otimista.tentativas")
+                .description("Tentativas de gravar uma reserva no modo otimista")
+                .register(registro);
+        contadorDeRetentativas = Counter.builder("reservas.otimista.retentativas")
+                .description("Tentativas repetidas depois de uma colisão")
+                .register(registro);
+        colisoes = Counter.builder("reservas.otimista.colisoes")
+                .description("Tentativas desfeitas porque outra gravação chegou antes")
+                .register(registro);
+    }
+
+    // Devolve a reserva gravada. IllegalStateException em caso de conflito de
+    // horário; RejectedExecutionException se todas as tentativas colidirem.
+    public Reserva reservar(Sala sala, String nomeResponsavel, LocalDateTime dataInicio, LocalDateTime dataFim) {
+        for (int tentativa = 1; ; tentativa++) {
+            contadorDeTentativas.increment();
+            if (tentativa > 1) {
+                contadorDeRetentativas.increment();
+            }
+            try {
+                return tentar(sala, nomeResponsavel, dataInicio, dataFim);
+            } catch (ConcurrencyFailureException e) {
+                colisoes.increment();
+            }
+            if (tentativa == tentativas) {
+                throw new RejectedExecutionException(
+                        "Muitos pedidos para esta sala no momento. Tente novamente em instantes.");
+            }
+            esperar(tentativa);
+        }
+    }
+
+    // OptimisticLockingFailureException (ou outra ConcurrencyFailureException do
+    // banco) se o contador mudou.
+    private Reserva tentar(Sala sala, String nomeResponsavel, LocalDateTime dataInicio,
+            LocalDateTime dataFim) {
+        String idSala = sala.getId();
+        Duration maiorDuracao = indice.getMaiorDuracao();
+        boolean limitada = indice.isConfiavel(idSala);
+        EstadoDaAgenda agenda = salaRepository.findEstadoDaAgenda(idSala,
+                limitada ? dataInicio.minus(maiorDuracao) : SEM_LIMITE, dataInicio, dataFim)
+                .orElseThrow(() -> new IllegalArgumentException("Sala não encontrada!"));
+        if (agenda.ocupada() || arquivo.temConflito(idSala, dataInicio, dataFim)) {
+            throw new IllegalStateException(CONFLITO);
+        }
+        // Tudo que a checagem viu já tinha a duração no índice: se ela cresceu, o
+        // limite usado pode ter deixado algo de fora
+        if (limitada && indice.getMaiorDuracao().compareTo(maiorDuracao) > 0) {
+            throw new OptimisticLockingFailureException("A maior duração de reserva mudou.");
+        }
+        return transactionTemplate.execute(status -> {
+            if (salaRepository.incrementarReservasGravadas(idSala, agenda.reservasGravadas()) == 0) {
+                throw new OptimisticLockingFailureException("A agenda da sala " + idSala + " mudou.");
+            }
+            Reserva reserva = reservaRepository.save(new Reserva(nomeResponsavel, sala, dataInicio, dataFim));
+            indice.registrarAntesDoCommit(new IntervaloReservado(reserva.getIdReserva(), idSala, dataInicio, dataFim));
+            return reserva;
+        });
+    }
+
+    // Espera exponencial com sorteio (1ª retentativa até 2 ms, depois 4, 8...),
+    // para que pedidos que colidiram não voltem todos juntos.
+    private void esperar(int tentativa) {
+        long limite = esperaInicialMs << Math.min(tentativa - 1, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(limite + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Pedido de reserva interrompido.");
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.gerenciador.reservas.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gerenciador.reservas.viewModel.EventoDeReserva;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Envia os eventos de reserva (EventoDeReserva) às telas conectadas por
+ * Server-Sent Events.
+ *
+ * Tudo acontece em memória: cada evento chega já com os dados da reserva, é
+ * convertido para JSON uma vez só e repassado às telas cujo filtro (sala e
+ * período) ele atende. Nenhuma tela conectada gera consulta ao banco. Quem grava
+ * não espera pelo envio: uma única thread ("reservas-eventos") numera os eventos,
+ * na ordem dos commits, e os põe na fila de cada tela; também manda um pulso
+ * periódico que mantém as conexões abertas em proxies e descobre as telas que já
+ * se desconectaram.
+ *
+ * A escrita na conexão fica com um pool à parte ("reservas-eventos-envio"), uma
+ * tela por vez em cada thread, então uma tela lenta não atrasa as outras. A fila
+ * de cada tela é limitada (reservas.eventos.pendentes-por-tela): a tela que não
+ * a esvazia a tempo é desconectada e, ao reconectar, recebe o que perdeu.
+ *
+ * Os últimos eventos ficam guardados: uma tela que reconecta com o cabeçalho
+ * Last-Event-ID recebe o que perdeu. Os ids levam o instante em que o servidor
+ * subiu (como as ETags de RespostaCondicional); se o id é de outra execução ou o
+ * que a tela perdeu já não está guardado, ela recebe o evento "recarregar" e deve
+ * ler tudo de novo pela API JSON.
+ *
+ * Métrica: reservas.eventos.telas-lentas (telas desconectadas por fila cheia).
+ */
+@Component
+public class TransmissorDeReservas {
+
+    private static final int EVENTOS_GUARDADOS = 1000;
+
+    // Prefixo dos ids dos eventos: muda a cada vez que o servidor sobe
+    private static final String INICIO = Long.toString(System.currentTimeMillis(), 36) + "-";
+
+    @Value("${reservas.eventos.maximo-de-telas:2000}")
+    private int maximoDeTelas;
+
+    @Value("${reservas.eventos.pulso:30s}")
+    private Duration pulso;
+
+    @Value("${reservas.eventos.pendentes-por-tela:100}")
+    private int pendentesPorTela;
+
+    @Value("${reservas.eventos.threads-de-envio:4}")
+    private int threadsDeEnvio;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Autowired
+    private MeterRegistry registro;
+
+    /**
+     * O que a tela quer receber; campos nulos não filtram. O período vale como na
+     * listagem: a reserva termina depois de 'de' e começa antes de 'ate'.
+     */
+    public record Filtro(String idSala, LocalDateTime de, LocalDateTime ate) {
+
+        boolean aceita(EventoDeReserva evento) {
+            return (idSala == null || idSala.equals(evento.idSala()))
+                    && (de == null || evento.dataFim().isAfter(de))
+                    && (ate == null || evento.dataInicio().isBefore(ate));
+        }
+    }
+
+    private static final class Tela {
+
+        private final SseEmitter emissor;
+        private final Filtro filtro;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pendentes;
+        // Se há uma thread de envio cuidando desta tela
+        private final AtomicBoolean agendada = new AtomicBoolean();
+        private volatile boolean descartada;
+
+        Tela(SseEmitter emissor, Filtro filtro, int capacidade) {
+            this.emissor = emissor;
+            this.filtro = filtro;
+            this.pendentes = new ArrayBlockingQueue<>(capacidade);
+        }
+    }
+
+    private record Mensagem(long id, EventoDeReserva evento, String dados) {
+    }
+
+    private final List<Tela> telas = new CopyOnWriteArrayList<>();
+
+    // Só a thread de entrega mexe nestes dois
+    private final Deque<Mensagem> recentes = new ArrayDeque<>();
+    private long ultimoId;
+
+    private ScheduledExecutorService entrega;
+
+    private ExecutorService envio;
+
+    private Counter telasLentas;
+
+    @PostConstruct
+    public void iniciar() {
+        entrega = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "reservas-eventos");
+            thread.setDaemon(true);
+            return thread;
+        });
+        envio = Executors.newFixedThreadPool(threadsDeEnvio, tarefa -> {
+            Thread thread = new Thread(tarefa, "reservas-eventos-envio");
+            thread.setDaemon(true);
+            return thread;
+        });
+        entrega.scheduleAtFixedRate(this::pulsar, pulso.toMillis(), pulso.toMillis(), TimeUnit.MILLISECONDS);
+        Gauge.builder("reservas.eventos.telas", telas, List::size)
+                .description("Telas conectadas ao stream de eventos de reserva")
+                .register(registro);
+        telasLentas = Counter.builder("reservas.eventos.telas-lentas")
+                .description("Telas desconectadas por não acompanharem os eventos")
+                .register(registro);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        entrega.shutdownNow();
+        envio.shutdownNow();
+        telas.forEach(tela -> tela.emissor.complete());
+        telas.clear();
+    }
+
+    /**
+     * Conecta uma tela. 'ultimoIdRecebido' é o Last-Event-ID de uma reconexão (ou
+     * nulo). RejectedExecutionException quando já há telas demais conectadas.
+     */
+    public SseEmitter conectar(Filtro filtro, String ultimoIdRecebido) {
+        if (telas.size() >= maximoDeTelas) {
+            throw new RejectedExecutionException("Muitas telas conectadas no momento. Tente novamente em instantes.");
+        }
+        // Sem prazo: conexões mortas são descobertas pelo pulso
+        SseEmitter emissor = new SseEmitter(0L);
+        Tela tela = new Tela(emissor, filtro, pendentesPorTela);
+        emissor.onCompletion(() -> telas.remove(tela));
+        emissor.onError(erro -> telas.remove(tela));
+        // Reenvio e inscrição na mesma thread da entrega: nenhum evento é perdido
+        // nem chega duas vezes entre um e outro
+        entrega.execute(() -> {
+            if (ultimoIdRecebido != null) {
+                reenviar(tela, ultimoIdRecebido);
+            }
+            telas.add(tela);
+        });
+        return emissor;
+    }
+
+    // Chamado depois do commit, na thread de quem gravou: só enfileira.
+    @EventListener
+    public void publicar(EventoDeReserva evento) {
+        entrega.execute(() -> distribuir(evento));
+    }
+
+    private void distribuir(EventoDeReserva evento) {
+        Mensagem mensagem = new Mensagem(++ultimoId, evento, paraJson(evento));
+        recentes.addLast(mensagem);
+        if (recentes.size() > EVENTOS_GUARDADOS) {
+            recentes.removeFirst();
+        }
+        for (Tela tela : telas) {
+            if (tela.filtro.aceita(evento)) {
+                enfileirar(tela, paraEvento(mensagem));
+            }
+        }
+    }
+
+    private void reenviar(Tela tela, String ultimoIdRecebido) {
+        long ultimo = numeroDoId(ultimoIdRecebido);
+        Mensagem maisAntiga = recentes.peekFirst();
+        long primeiroGuardado = maisAntiga != null ? maisAntiga.id() : ultimoId + 1;
+        List<Mensagem> perdidas = ultimo < 0 ? List.of()
+                : recentes.stream().filter(m -> m.id() > ultimo && tela.filtro.aceita(m.evento())).toList();
+        // Id de outra execução, eventos que já saíram da memória ou mais do que
+        // cabe na fila da tela: ela relê tudo pela API
+        if (ultimo < 0 || ultimo > ultimoId || ultimo < primeiroGuardado - 1 || perdidas.size() > pendentesPorTela) {
+            enfileirar(tela, SseEmitter.event().name("recarregar").data(""));
+            return;
+        }
+        perdidas.forEach(mensagem -> enfileirar(tela, paraEvento(mensagem)));
+    }
+
+    private void pulsar() {
+        for (Tela tela : telas) {
+            enfileirar(tela, SseEmitter.event().comment("pulso"));
+        }
+    }
+
+    // Na thread da entrega: nunca espera pela conexão. Com a fila cheia a tela é
+    // descartada; a thread de envio encerra a conexão quando terminar o que está
+    // escrevendo.
+    private void enfileirar(Tela tela, SseEmitter.SseEventBuilder evento) {
+        if (tela.descartada) {
+            return;
+        }
+        if (!tela.pendentes.offer(evento)) {
+            tela.descartada = true;
+            tela.pendentes.clear();
+            telas.remove(tela);
+            telasLentas.increment();
+        }
+        agendar(tela);
+    }
+
+    private void agendar(Tela tela) {
+        if (tela.agendada.compareAndSet(false, true)) {
+            try {
+                envio.execute(() -> esvaziar(tela));
+            } catch (RejectedExecutionException e) {
+                // Servidor encerrando
+                tela.agendada.set(false);
+            }
+        }
+    }
+
+    // Na thread de envio: escreve tudo o que a tela tem pendente, em ordem
+    private void esvaziar(Tela tela) {
+        SseEmitter.SseEventBuilder evento;
+        while (!tela.descartada && (evento = tela.pendentes.poll()) != null) {
+            if (!enviar(tela, evento)) {
+                return;
+            }
+        }
+        if (tela.descartada) {
+            // A tela reconecta com o Last-Event-ID e recebe o que perdeu
+            tela.emissor.complete();
+            return;
+        }
+        tela.agendada.set(false);
+        // Algo pode ter chegado (ou a tela ter sido descartada) entre o último
+        // poll e a linha acima
+        if (!tela.pendentes.isEmpty() || tela.descartada) {
+            agendar(tela);
+        }
+    }
+
+    // Uma tela que não aceita mais dados (desconectou) sai da lista
+    private boolean enviar(Tela tela, SseEmitter.SseEventBuilder evento) {
+        try {
+            tela.emissor.send(evento);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            tela.descartada = true;
+            telas.remove(tela);
+            tela.emissor.completeWithError(e);
+            return false;
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder paraEvento(Mensagem mensagem) {
+        return SseEmitter.event().id(INICIO + mensagem.id()).name(mensagem.evento().tipo().getNome())
+                .data(mensagem.dados(), MediaType.APPLICATION_JSON);
+    }
+
+    // Número do evento num Last-Event-ID desta execução; -1 se o id é de outra
+    // execução (ou não foi gerado aqui)
+    private static long numeroDoId(String id) {
+        if (!id.startsWith(INICIO)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(id.substring(INICIO.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private String paraJson(EventoDeReserva evento) {
+        try {
+            return json.writeValueAsString(evento);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
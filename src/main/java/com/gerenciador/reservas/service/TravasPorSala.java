@@ -0,0 +1,91 @@
+package com.gerenciador.reservas.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Travas listradas por sala: reservas da mesma sala são serializadas, reservas
+ * de salas diferentes (quase sempre em listras diferentes) seguem em paralelo.
+ *
+ * O número de listras é fixo, então a memória não cresce com o número de salas.
+ * Vale para uma única instância da aplicação.
+ *
+ * O tempo de espera pelas travas é publicado como reservas.trava.espera: se ele
+ * cresce, as reservas estão fazendo fila por salas (ou listras) disputadas.
+ */
+@Component
+public class TravasPorSala {
+
+    private static final int NUMERO_DE_LISTRAS = 64;
+
+    private final ReentrantLock[] listras = new ReentrantLock[NUMERO_DE_LISTRAS];
+
+    @Autowired
+    private MeterRegistry registro;
+
+    private Timer espera;
+
+    public TravasPorSala() {
+        for (int i = 0; i < listras.length; i++) {
+            listras[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    public void registrarMetricas() {
+        espera = Timer.builder("reservas.trava.espera")
+                .description("Tempo de espera pela trava da sala antes de checar conflitos")
+                .register(registro);
+    }
+
+    // Executa a ação segurando a trava da sala. A ação deve incluir o commit, senão
+    // outra thread pode checar conflitos antes de a reserva estar visível.
+    public <T> T executar(String idSala, Supplier<T> acao) {
+        ReentrantLock trava = listras[indiceDaListra(idSala)];
+        long inicio = System.nanoTime();
+        trava.lock();
+        espera.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        try {
+            return acao.get();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    // Versão para operações que envolvem várias salas (lotes). As listras são
+    // travadas sempre em ordem crescente, o que evita deadlock entre dois lotes.
+    public <T> T executar(Collection<String> idsSalas, Supplier<T> acao) {
+        TreeSet<Integer> indices = new TreeSet<>();
+        for (String idSala : idsSalas) {
+            indices.add(indiceDaListra(idSala));
+        }
+        long inicio = System.nanoTime();
+        for (Integer indice : indices) {
+            listras[indice].lock();
+        }
+        espera.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        try {
+            return acao.get();
+        } finally {
+            for (Integer indice : indices.descendingSet()) {
+                listras[indice].unlock();
+            }
+        }
+    }
+
+    int indiceDaListra(String idSala) {
+        // Espalha os bits altos do hash, como o HashMap faz.
+        int h = idSala.hashCode();
+        h ^= (h >>> 16);
+        return Math.floorMod(h, NUMERO_DE_LISTRAS);
+    }
+}
@@ -0,0 +1,105 @@
+package com.gerenciador.reservas.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Minutos reservados de uma sala em cada hora de cada dia.
+ *
+ * Como na OcupacaoDaSala, os dias ficam em blocos de 32, criados só quando têm
+ * alguma reserva (um short[32 * 24] por bloco, cerca de 50 bytes por dia). Somar
+ * e subtrair a mesma reserva deixa os contadores como estavam, então gravar,
+ * alterar e cancelar só mexem nas horas que a reserva toca.
+ *
+ * Não é thread-safe: o UtilizacaoDasSalas sincroniza no próprio objeto.
+ */
+class UtilizacaoDaSala {
+
+    static final int HORAS_POR_DIA = 24;
+
+    private static final int BITS_DIAS_POR_BLOCO = 5;
+    private static final int DIAS_POR_BLOCO = 1 << BITS_DIAS_POR_BLOCO;
+
+    // Estimativa do heap de um bloco: o short[] (16 bytes de cabeçalho mais os
+    // dados), a chave Integer e o nó do HashMap.
+    private static final long BYTES_POR_BLOCO = 16 + DIAS_POR_BLOCO * HORAS_POR_DIA * 2L + 16 + 32;
+
+    private final Map<Integer, short[]> blocos = new HashMap<>();
+
+    // Soma (sinal 1) ou subtrai (sinal -1) os minutos de [inicio, fim), hora a hora.
+    void somar(LocalDateTime inicio, LocalDateTime fim, int sinal) {
+        for (LocalDateTime hora = inicio.truncatedTo(ChronoUnit.HOURS); hora.isBefore(fim); hora = hora.plusHours(1)) {
+            LocalDateTime proxima = hora.plusHours(1);
+            long minutos = ChronoUnit.MINUTES.between(inicio.isAfter(hora) ? inicio : hora,
+                    fim.isBefore(proxima) ? fim : proxima);
+            if (minutos > 0) {
+                ajustar(hora.toLocalDate(), hora.getHour(), (int) (sinal * minutos));
+            }
+        }
+    }
+
+    // Copia os minutos de 'dias' dias, a partir de 'primeiroDia', para 'destino' a
+    // partir de 'posicao' (HORAS_POR_DIA valores por dia). Dias sem reserva ficam
+    // zerados.
+    void copiar(LocalDate primeiroDia, int dias, int[] destino, int posicao) {
+        LocalDate dia = primeiroDia;
+        for (int d = 0; d < dias; d++, dia = dia.plusDays(1)) {
+            short[] bloco = blocos.get(bloco(dia));
+            int inicioDoDia = posicao(dia);
+            for (int h = 0; h < HORAS_POR_DIA; h++) {
+                destino[posicao + d * HORAS_POR_DIA + h] = bloco != null ? bloco[inicioDoDia + h] : 0;
+            }
+        }
+    }
+
+    long getBytes() {
+        return blocos.size() * BYTES_POR_BLOCO;
+    }
+
+    // Dias em que esta e a outra discordam em alguma hora.
+    int diasDivergentes(UtilizacaoDaSala outra) {
+        Set<Integer> todos = new HashSet<>(blocos.keySet());
+        todos.addAll(outra.blocos.keySet());
+        int divergentes = 0;
+        for (Integer chave : todos) {
+            short[] deste = blocos.get(chave);
+            short[] daOutra = outra.blocos.get(chave);
+            for (int d = 0; d < DIAS_POR_BLOCO; d++) {
+                for (int h = 0; h < HORAS_POR_DIA; h++) {
+                    int i = d * HORAS_POR_DIA + h;
+                    if ((deste != null ? deste[i] : 0) != (daOutra != null ? daOutra[i] : 0)) {
+                        divergentes++;
+                        break;
+                    }
+                }
+            }
+        }
+        return divergentes;
+    }
+
+    private void ajustar(LocalDate dia, int hora, int minutos) {
+        short[] bloco = blocos.computeIfAbsent(bloco(dia), b -> new short[DIAS_POR_BLOCO * HORAS_POR_DIA]);
+        bloco[posicao(dia) + hora] += (short) minutos;
+        if (minutos < 0) {
+            for (short valor : bloco) {
+                if (valor != 0) {
+                    return;
+                }
+            }
+            blocos.remove(bloco(dia));
+        }
+    }
+
+    private static int bloco(LocalDate dia) {
+        return (int) (dia.toEpochDay() >> BITS_DIAS_POR_BLOCO);
+    }
+
+    private static int posicao(LocalDate dia) {
+        return (int) (dia.toEpochDay() & (DIAS_POR_BLOCO - 1)) * HORAS_POR_DIA;
+    }
+}
@@ -0,0 +1,222 @@
+package com.gerenciador.reservas.service;
+
+import com.gerenciador.reservas.model.IntervaloReservado;
+import com.gerenciador.reservas.repository.ReservaArquivadaRepository;
+import com.gerenciador.reservas.repository.ReservaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Contadores de utilização: minutos reservados por sala, dia e hora
+ * (UtilizacaoDaSala), para os relatórios de ocupação não precisarem ler a tabela
+ * de reservas (ver RelatorioDeUtilizacao).
+ *
+ * Os contadores acompanham o IndiceDeReservas (OuvinteDoIndice): cada reserva
+ * gravada, alterada ou removida chega depois do commit, já com a versão anterior
+ * dela, sem consulta nenhuma. Na carga do índice eles são montados junto.
+ *
+ * Reservas arquivadas (ArquivoDeReservas) continuam nos contadores.
+ *
+ * Toda noite (reservas.utilizacao.verificacao) os contadores são remontados a
+ * partir do banco (reservas em uso e arquivadas) e comparados com os atuais; os
+ * dias que não batiam são somados em reservas.utilizacao.divergencias e os
+ * contadores remontados passam a valer. A troca só acontece se nenhuma alteração
+ * chegou durante a remontagem e nenhuma está a caminho (já no banco, talvez lida
+ * pela remontagem, mas ainda não repassada pelo índice, que a somaria de novo
+ * depois da troca). Senão a remontagem é refeita, até TENTATIVAS_DE_VERIFICACAO
+ * vezes.
+ */
+@Component
+public class UtilizacaoDasSalas implements OuvinteDoIndice {
+
+    private static final int TENTATIVAS_DE_VERIFICACAO = 3;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private ReservaArquivadaRepository arquivoRepository;
+
+    @Autowired
+    private IndiceDeReservas indice;
+
+    @Autowired
+    private MeterRegistry registro;
+
+    private volatile Map<String, UtilizacaoDaSala> salas = new ConcurrentHashMap<>();
+
+    // Gravações mantêm a trava de leitura (podem correr juntas, cada sala
+    // sincroniza no próprio objeto); a troca pelos contadores remontados usa a de
+    // escrita.
+    private final ReadWriteLock trava = new ReentrantReadWriteLock();
+    private final AtomicLong alteracoes = new AtomicLong();
+
+    // Muda sempre que os contadores mudam, inclusive numa verificação que corrigiu
+    // algum dia (usada na ETag do relatório).
+    private final AtomicLong versao = new AtomicLong();
+
+    private Counter divergencias;
+
+    @PostConstruct
+    public void iniciar() {
+        divergencias = Counter.builder("reservas.utilizacao.divergencias")
+                .description("Dias de sala corrigidos pela verificação noturna dos contadores de utilização")
+                .register(registro);
+        indice.inscrever(this);
+    }
+
+    // 'anterior' é a versão já contada da reserva (null se ela é nova).
+    @Override
+    public void aoGravar(IntervaloReservado anterior, IntervaloReservado intervalo) {
+        trava.readLock().lock();
+        try {
+            alteracoes.incrementAndGet();
+            if (anterior != null) {
+                somar(anterior, -1);
+            }
+            somar(intervalo, 1);
+            versao.incrementAndGet();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void aoRemover(IntervaloReservado anterior) {
+        trava.readLock().lock();
+        try {
+            alteracoes.incrementAndGet();
+            somar(anterior, -1);
+            versao.incrementAndGet();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // A carga do índice registra todas as reservas de novo.
+    @Override
+    public void aoCarregar() {
+        trava.writeLock().lock();
+        try {
+            alteracoes.incrementAndGet();
+            salas = new ConcurrentHashMap<>();
+            versao.incrementAndGet();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void aoCarregarArquivada(IntervaloReservado intervalo) {
+        aoGravar(null, intervalo);
+    }
+
+    // Copia para 'destino' os minutos reservados da sala em cada hora de 'dias'
+    // dias a partir de 'primeiroDia' (HORAS_POR_DIA valores por dia).
+    void copiar(String idSala, LocalDate primeiroDia, int dias, int[] destino) {
+        UtilizacaoDaSala sala = salas.get(idSala);
+        if (sala == null) {
+            Arrays.fill(destino, 0, dias * UtilizacaoDaSala.HORAS_POR_DIA, 0);
+            return;
+        }
+        synchronized (sala) {
+            sala.copiar(primeiroDia, dias, destino, 0);
+        }
+    }
+
+    // Minutos reservados da sala na hora 'hora' do dia
+    public int minutosReservados(String idSala, LocalDate dia, int hora) {
+        int[] minutos = new int[UtilizacaoDaSala.HORAS_POR_DIA];
+        copiar(idSala, dia, 1, minutos);
+        return minutos[hora];
+    }
+
+    public long getVersao() {
+        return versao.get();
+    }
+
+    // Estimativa do heap usado pelos contadores de todas as salas
+    public long getBytes() {
+        long total = 0;
+        for (UtilizacaoDaSala sala : salas.values()) {
+            synchronized (sala) {
+                total += sala.getBytes();
+            }
+        }
+        return total;
+    }
+
+    // Remonta os contadores a partir do banco e devolve quantos dias de sala
+    // estavam errados, ou -1 se as gravações não deram trégua e os contadores
+    // ficaram como estavam.
+    @Scheduled(cron = "${reservas.utilizacao.verificacao:0 30 3 * * *}")
+    public int verificar() {
+        for (int tentativa = 0; tentativa < TENTATIVAS_DE_VERIFICACAO; tentativa++) {
+            long antes = alteracoes.get();
+            Map<String, UtilizacaoDaSala> remontadas = new ConcurrentHashMap<>();
+            Set<Long> emUso = new HashSet<>();
+            for (IntervaloReservado intervalo : reservaRepository.findAllIntervalos()) {
+                emUso.add(intervalo.idReserva());
+                remontadas.computeIfAbsent(intervalo.idSala(), id -> new UtilizacaoDaSala())
+                        .somar(intervalo.dataInicio(), intervalo.dataFim(), 1);
+            }
+            // Uma reserva arquivada entre as duas leituras aparece nas duas: conta uma vez
+            for (IntervaloReservado intervalo : arquivoRepository.findAllIntervalos()) {
+                if (!emUso.contains(intervalo.idReserva())) {
+                    remontadas.computeIfAbsent(intervalo.idSala(), id -> new UtilizacaoDaSala())
+                            .somar(intervalo.dataInicio(), intervalo.dataFim(), 1);
+                }
+            }
+
+            trava.writeLock().lock();
+            try {
+                if (alteracoes.get() != antes || indice.temAlteracoesPendentes()) {
+                    continue;
+                }
+                int divergentes = diasDivergentes(salas, remontadas);
+                salas = remontadas;
+                if (divergentes > 0) {
+                    divergencias.increment(divergentes);
+                    versao.incrementAndGet();
+                }
+                return divergentes;
+            } finally {
+                trava.writeLock().unlock();
+            }
+        }
+        return -1;
+    }
+
+    private void somar(IntervaloReservado intervalo, int sinal) {
+        UtilizacaoDaSala sala = salas.computeIfAbsent(intervalo.idSala(), id -> new UtilizacaoDaSala());
+        synchronized (sala) {
+            sala.somar(intervalo.dataInicio(), intervalo.dataFim(), sinal);
+        }
+    }
+
+    private static int diasDivergentes(Map<String, UtilizacaoDaSala> atuais,
+            Map<String, UtilizacaoDaSala> remontadas) {
+        Set<String> ids = new HashSet<>(atuais.keySet());
+        ids.addAll(remontadas.keySet());
+        int divergentes = 0;
+        for (String id : ids) {
+            UtilizacaoDaSala atual = atuais.getOrDefault(id, new UtilizacaoDaSala());
+            divergentes += atual.diasDivergentes(remontadas.getOrDefault(id, new UtilizacaoDaSala()));
+        }
+        return divergentes;
+    }
+}
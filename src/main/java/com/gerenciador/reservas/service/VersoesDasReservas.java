@@ -0,0 +1,79 @@
+package com.gerenciador.reservas.service;
+
+import com.gerenciador.reservas.model.IntervaloReservado;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Numeração das alterações de reservas, usada como ETag para responder 304 sem
+ * consultar o banco (ver ReservaApiController).
+ *
+ * Cada reserva gravada, removida ou arquivada avança uma versão global e marca
+ * com ela as salas afetadas. As alterações chegam do IndiceDeReservas depois de
+ * a agenda da sala já ter mudado, então quem lê a versão antes dos dados nunca
+ * guarda dados antigos com uma versão nova.
+ */
+@Component
+public class VersoesDasReservas implements OuvinteDoIndice {
+
+    @Autowired
+    private IndiceDeReservas indice;
+
+    private final Map<String, Long> porSala = new ConcurrentHashMap<>();
+
+    // Versão global, que só cresce. versaoDaCarga é a versão das salas sem
+    // nenhuma alteração desde a última carga do índice.
+    private final AtomicLong versao = new AtomicLong();
+    private volatile long versaoDaCarga;
+
+    @PostConstruct
+    public void inscrever() {
+        indice.inscrever(this);
+    }
+
+    @Override
+    public void aoCarregar() {
+        porSala.clear();
+        versaoDaCarga = versao.incrementAndGet();
+    }
+
+    @Override
+    public void aoGravar(IntervaloReservado anterior, IntervaloReservado intervalo) {
+        long nova = versao.incrementAndGet();
+        if (anterior != null) {
+            marcar(anterior.idSala(), nova);
+        }
+        marcar(intervalo.idSala(), nova);
+    }
+
+    @Override
+    public void aoRemover(IntervaloReservado anterior) {
+        marcar(anterior.idSala(), versao.incrementAndGet());
+    }
+
+    @Override
+    public void aoArquivar(IntervaloReservado intervalo) {
+        marcar(intervalo.idSala(), versao.incrementAndGet());
+    }
+
+    // Muda sempre que qualquer reserva é gravada ou removida.
+    public long getVersao() {
+        return versao.get();
+    }
+
+    // Muda sempre que uma reserva da sala é gravada ou removida. Versões nunca se
+    // repetem, nem entre salas, nem depois de uma nova carga do índice.
+    public long getVersao(String idSala) {
+        return porSala.getOrDefault(idSala, versaoDaCarga);
+    }
+
+    // Duas alterações da mesma sala podem chegar fora de ordem: fica a maior.
+    private void marcar(String idSala, long nova) {
+        porSala.merge(idSala, nova, Math::max);
+    }
+}
@@ -0,0 +1,6 @@
+package com.gerenciador.reservas.viewModel;
+
+// Contadores do catálogo de salas em memória desde o início da aplicação.
+// 'faltas' conta as reconstruções; 'invalidacoes', as alterações que as causaram.
+public record EstatisticasDoCatalogo(long acertos, long faltas, long invalidacoes, int salas, int equipamentos) {
+}
@@ -0,0 +1,29 @@
+package com.gerenciador.reservas.viewModel;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+
+/**
+ * Uma reserva criada, alterada ou cancelada, publicada depois do commit (ver
+ * ReservaListener) e enviada às telas conectadas em /api/v1/reservas/eventos.
+ * Traz tudo que a tela precisa para se atualizar sem consultar o servidor.
+ */
+public record EventoDeReserva(@JsonIgnore Tipo tipo, Long idReserva, String idSala, String nomeResponsavel,
+        LocalDateTime dataInicio, LocalDateTime dataFim) {
+
+    public enum Tipo {
+        CRIADA("reserva-criada"), ALTERADA("reserva-alterada"), CANCELADA("reserva-cancelada");
+
+        // Nome do evento no stream SSE
+        private final String nome;
+
+        Tipo(String nome) {
+            this.nome = nome;
+        }
+
+        public String getNome() {
+            return nome;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.gerenciador.reservas.viewModel;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Grade de ocupação de várias salas em dias seguidos: uma linha por sala e, em
+ * cada dia, um caractere por faixa de 'minutosPorFaixa' minutos a partir da
+ * meia-noite ('1' ocupada, '0' livre).
+ *
+ * "bytesEmMemoria" é a estimativa do heap usado pelos bits de ocupação da sala no
+ * OcupacaoDasSalas (todos os dias, não só os da grade); "bytesEmMemoria" da grade
+ * soma os das salas listadas.
+ */
+public record GradeDeOcupacao(LocalDate primeiroDia, int dias, int minutosPorFaixa, long bytesEmMemoria,
+        List<LinhaDaGrade> salas) {
+
+    public record LinhaDaGrade(String idSala, String nome, List<String> ocupacao, long bytesEmMemoria) {
+    }
+}
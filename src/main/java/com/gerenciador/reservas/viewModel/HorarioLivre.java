@@ -0,0 +1,9 @@
+package com.gerenciador.reservas.viewModel;
+
+import java.time.LocalDateTime;
+
+/**
+ * Janela livre de uma sala, sugerida quando um pedido de reserva conflita.
+ */
+public record HorarioLivre(LocalDateTime inicio, LocalDateTime fim) {
+}
@@ -0,0 +1,10 @@
+package com.gerenciador.reservas.viewModel;
+
+import java.time.LocalDateTime;
+
+/**
+ * Uma reserva na exportação (CSV ou NDJSON): uma linha do arquivo.
+ */
+public record LinhaDeExportacao(Long idReserva, String idSala, String nomeSala, String nomeResponsavel,
+        LocalDateTime dataInicio, LocalDateTime dataFim) {
+}
@@ -0,0 +1,23 @@
+package com.gerenciador.reservas.viewModel;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Uma página da listagem de reservas. A próxima página começa depois da chave
+ * (proximoInicio, proximoId); quando não há mais reservas, ambos são nulos.
+ */
+public record PaginaDeReservas(List<ReservaViewModel> reservas, LocalDateTime proximoInicio, Long proximoId) {
+
+    public boolean temProxima() {
+        return proximoId != null;
+    }
+
+    // A chave de continuação vem inteira ou não vem: só com o início, a comparação
+    // do id com nulo descartaria em silêncio as linhas daquele instante.
+    public static void validarCursor(LocalDateTime aposInicio, Long aposId) {
+        if ((aposInicio == null) != (aposId == null)) {
+            throw new IllegalArgumentException("aposInicio e aposId devem ser informados juntos.");
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.gerenciador.reservas.viewModel;
+
+import java.time.LocalDateTime;
+
+/**
+ * Uma linha de um pedido de reservas em lote: (sala, responsável, início, fim).
+ */
+public record PedidoReserva(String idSala, String nomeResponsavel, LocalDateTime dataInicio, LocalDateTime dataFim) {
+}
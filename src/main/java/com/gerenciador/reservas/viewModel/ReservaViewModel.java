@@ -3,6 +3,7 @@ package com.gerenciador.reservas.viewModel;
 import java.time.LocalDateTime;
 
 public class ReservaViewModel {
+    private Long idReserva;
     private String nomeResponsavel;
     private String nomeSala;
     private LocalDateTime dataInicio;
@@ -15,6 +16,18 @@ public class ReservaViewModel {
         this.dataFim = dataFim;
     }
 
+    // Usado pela projeção JPQL (select new ...) do ReservaRepository: o id serve de
+    // chave para a paginação.
+    public ReservaViewModel(Long idReserva, String nomeResponsavel, String nomeSala, LocalDateTime dataInicio,
+            LocalDateTime dataFim) {
+        this(nomeResponsavel, nomeSala, dataInicio, dataFim);
+        this.idReserva = idReserva;
+    }
+
+    public Long getIdReserva() {
+        return idReserva;
+    }
+
     public String getNomeResponsavel() {
         return nomeResponsavel;
     }
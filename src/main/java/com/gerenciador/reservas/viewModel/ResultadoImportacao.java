@@ -0,0 +1,17 @@
+package com.gerenciador.reservas.viewModel;
+
+import java.util.List;
+
+/**
+ * Resposta da importação de um arquivo CSV. Cada linha é independente: as
+ * válidas são gravadas e as inválidas aparecem em "erros", com o número da linha
+ * no arquivo (o cabeçalho é a linha 1).
+ *
+ * Para a resposta não crescer com o arquivo, só os primeiros erros são listados;
+ * "errosNaoListados" diz quantos ficaram de fora.
+ */
+public record ResultadoImportacao(int linhasLidas, int gravadas, List<ErroDeLinha> erros, int errosNaoListados) {
+
+    public record ErroDeLinha(int linha, String motivo) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.gerenciador.reservas.viewModel;
+
+import java.util.List;
+
+/**
+ * Resposta de uma reserva em lote. O lote é tudo-ou-nada: se houver qualquer
+ * linha rejeitada, nada é gravado e "gravado" vem falso; as linhas aceitas
+ * indicam o que teria entrado.
+ *
+ * As linhas são numeradas a partir de 1, na ordem em que vieram no pedido.
+ */
+public record ResultadoLote(boolean gravado, List<LinhaAceita> aceitas, List<LinhaRejeitada> rejeitadas) {
+
+    public record LinhaAceita(int linha, Long idReserva) {
+    }
+
+    public record LinhaRejeitada(int linha, String motivo) {
+    }
+}
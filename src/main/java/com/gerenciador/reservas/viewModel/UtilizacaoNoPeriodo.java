@@ -0,0 +1,26 @@
+package com.gerenciador.reservas.viewModel;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Relatório de utilização das salas no período [de, ate).
+ *
+ * As taxas vão de 0 a 1: minutos reservados divididos pelos minutos disponíveis.
+ * Por sala e por dia da semana, só contam as horas do horário de funcionamento
+ * [abertura, fechamento); por hora, todas as 24 horas do dia aparecem, cada uma
+ * com 60 minutos disponíveis por sala e por dia.
+ */
+public record UtilizacaoNoPeriodo(LocalDate de, LocalDate ate, int abertura, int fechamento, List<PorSala> salas,
+        List<PorDiaDaSemana> diasDaSemana, List<PorHora> horas) {
+
+    public record PorSala(String idSala, String nome, long minutosReservados, double taxa) {
+    }
+
+    public record PorDiaDaSemana(DayOfWeek diaDaSemana, long minutosReservados, double taxa) {
+    }
+
+    public record PorHora(int hora, long minutosReservados, double taxa) {
+    }
+}
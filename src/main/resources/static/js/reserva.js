@@ -0,0 +1,84 @@
+// Envio do formulário de reserva sem recarregar a página: o servidor responde só
+// o fragmento 'resultado-reserva' (mensagem, sugestões e a linha da reserva
+// criada). Sem JavaScript o formulário continua funcionando por
+// Post/Redirect/Get.
+(function () {
+    'use strict';
+
+    var form = document.getElementById('form-reserva');
+    if (!form || !window.fetch) {
+        return;
+    }
+
+    // Valor de um datetime-local ("2025-11-20T14:00") no formato de data-inicio
+    // e data-fim das linhas (yyyyMMddHHmmss), para comparar como texto.
+    function chave(valor) {
+        return (valor.replace(/\D/g, '') + '00000000000000').substring(0, 14);
+    }
+
+    // O minuto atual no mesmo formato: sem filtro 'de', a listagem usa agora.
+    function agora() {
+        var d = new Date();
+        function dois(n) {
+            return (n < 10 ? '0' : '') + n;
+        }
+        return d.getFullYear() + dois(d.getMonth() + 1) + dois(d.getDate())
+                + dois(d.getHours()) + dois(d.getMinutes()) + '00';
+    }
+
+    // A linha só entra na tabela se pertencer à página exibida: mesmo filtro de
+    // sala e de período e, havendo próxima página, antes da última linha. O
+    // período vale como no servidor: a reserva termina depois de 'de' e começa
+    // antes de 'ate'.
+    function inserirNaTabela(linha, idSala) {
+        var corpo = document.getElementById('reservas-agendadas');
+        var filtroSala = document.getElementById('filtro-sala').value;
+        var filtroDe = document.getElementById('filtro-de').value;
+        var filtroAte = document.getElementById('filtro-ate').value;
+        var inicio = linha.getAttribute('data-inicio');
+        var fim = linha.getAttribute('data-fim');
+        if ((filtroSala && filtroSala !== idSala)
+                || fim <= (filtroDe ? chave(filtroDe) : agora())
+                || (filtroAte && inicio >= chave(filtroAte))) {
+            return;
+        }
+        var linhas = corpo.querySelectorAll('tr');
+        for (var i = 0; i < linhas.length; i++) {
+            if (linhas[i].getAttribute('data-inicio') > inicio) {
+                corpo.insertBefore(linha, linhas[i]);
+                return;
+            }
+        }
+        if (!document.getElementById('proxima-pagina')) {
+            corpo.appendChild(linha);
+        }
+    }
+
+    form.addEventListener('submit', function (evento) {
+        evento.preventDefault();
+        var idSala = form.elements.idSala.value;
+        fetch(form.action, {
+            method: 'POST',
+            headers: { 'X-Requested-With': 'XMLHttpRequest' },
+            body: new URLSearchParams(new FormData(form))
+        }).then(function (resposta) {
+            if (!resposta.ok) {
+                throw new Error(resposta.status);
+            }
+            return resposta.text();
+        }).then(function (html) {
+            var modelo = document.createElement('template');
+            modelo.innerHTML = html.trim();
+            var resultado = modelo.content.getElementById('resultado-reserva');
+            var linha = resultado.querySelector('tr');
+            if (linha) {
+                linha.parentNode.removeChild(linha);
+                inserirNaTabela(linha, idSala);
+            }
+            document.getElementById('resultado-reserva').replaceWith(resultado);
+        }).catch(function () {
+            // Qualquer falha: envio clássico, com a página inteira
+            form.submit();
+        });
+    });
+})();
@@ -0,0 +1,35 @@
+package com.gerenciador.reservas;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Guarda o SQL que o Hibernate envia ao banco, para o PlanoDeConsultasTest
+ * pedir o plano de execução das consultas geradas pelos repositórios.
+ */
+public class CapturaDeSql implements StatementInspector {
+
+    private static final List<String> capturados = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (capturados) {
+            capturados.add(sql);
+        }
+        return sql;
+    }
+
+    static void limpar() {
+        synchronized (capturados) {
+            capturados.clear();
+        }
+    }
+
+    static List<String> capturados() {
+        synchronized (capturados) {
+            return List.copyOf(capturados);
+        }
+    }
+}
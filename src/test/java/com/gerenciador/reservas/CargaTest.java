@@ -0,0 +1,91 @@
+package com.gerenciador.reservas;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.gerenciador.reservas.GeradorDeCarga.Operacao;
+import com.gerenciador.reservas.model.Equipamento;
+import com.gerenciador.reservas.model.Sala;
+import com.gerenciador.reservas.repository.EquipamentoRepository;
+import com.gerenciador.reservas.repository.SalaRepository;
+import com.gerenciador.reservas.service.IndiceDeReservas;
+
+/**
+ * Teste de carga: sobe a aplicação numa porta aleatória, dispara o mix de
+ * operações do GeradorDeCarga e, no fim, confere os invariantes do banco.
+ *
+ * Só roda no perfil Maven 'carga' (./mvnw -P carga test). Concorrência, duração,
+ * pausa e número de salas são ajustáveis por propriedades de sistema, por exemplo
+ * -Dcarga.usuarios=64 -Dcarga.segundos=120 -Dcarga.pausaMs=0.
+ */
+@Tag("carga")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:carga")
+class CargaTest {
+
+    private static final int USUARIOS = Integer.getInteger("carga.usuarios", 16);
+    private static final int SEGUNDOS = Integer.getInteger("carga.segundos", 30);
+    private static final int PAUSA_MS = Integer.getInteger("carga.pausaMs", 20);
+    private static final int SALAS = Integer.getInteger("carga.salas", 20);
+    private static final int DIAS = Integer.getInteger("carga.dias", 5);
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private SalaRepository salaRepository;
+    @Autowired
+    private EquipamentoRepository equipamentoRepository;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private IndiceDeReservas indice;
+
+    @Test
+    @DisplayName("CT01: Mix de operações concorrentes sem erros e sem reservas sobrepostas")
+    void carga_CT01_MixDeOperacoes(TestReporter relatorioDoTeste) throws Exception {
+        // Arrange
+        List<String> idsSalas = new ArrayList<>();
+        for (int i = 0; i < SALAS; i++) {
+            Sala sala = new Sala(String.format("C%03d", i), "Sala Carga " + i, 5 + i);
+            sala.setEquipamentos(List.of(equipamentoRepository.save(new Equipamento("Equip " + i, ""))));
+            idsSalas.add(salaRepository.save(sala).getId());
+        }
+        GeradorDeCarga.Configuracao configuracao = new GeradorDeCarga.Configuracao(USUARIOS,
+                Duration.ofSeconds(SEGUNDOS), Duration.ofMillis(PAUSA_MS), idsSalas,
+                Map.of(Operacao.HOME, 50, Operacao.RESERVAR, 30, Operacao.SALAS, 10, Operacao.EQUIPAMENTOS, 10),
+                LocalDate.now().plusDays(1).atTime(8, 0), DIAS);
+
+        // Act
+        GeradorDeCarga.Relatorio relatorio = new GeradorDeCarga(URI.create("http://localhost:" + porta), configuracao)
+                .executar();
+        Integer reservas = jdbc.queryForObject("select count(*) from reserva", Integer.class);
+        relatorioDoTeste.publishEntry("carga", String.format(
+                "%d usuários, pausa de %d ms, %d salas, %.1f s, %d reservas gravadas%n%s",
+                USUARIOS, PAUSA_MS, SALAS, relatorio.duracao().toMillis() / 1000.0, reservas, relatorio.formatar()));
+
+        // Assert Principal: nenhuma sala com duas reservas sobrepostas
+        Integer sobrepostas = jdbc.queryForObject("select count(*) from reserva a join reserva b "
+                + "on a.sala_id = b.sala_id and a.id_reserva < b.id_reserva "
+                + "and a.data_inicio < b.data_fim and b.data_inicio < a.data_fim", Integer.class);
+        assertEquals(0, sobrepostas);
+
+        // Assert: nenhuma requisição falhou e o índice em memória bate com o banco
+        assertEquals(0, relatorio.totalDeErros(), relatorio.formatar());
+        assertEquals(reservas, indice.getTotalIndexado());
+    }
+}
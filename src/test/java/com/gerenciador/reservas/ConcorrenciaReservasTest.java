@@ -0,0 +1,118 @@
+package com.gerenciador.reservas;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.gerenciador.reservas.model.Sala;
+import com.gerenciador.reservas.repository.ReservaRepository;
+import com.gerenciador.reservas.repository.SalaRepository;
+import com.gerenciador.reservas.service.GerenciadorDeReservas;
+
+/**
+ * Dispara centenas de pedidos simultâneos para o mesmo horário e garante que
+ * apenas um deles vira reserva.
+ */
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ConcorrenciaReservasTest {
+
+    private static final int THREADS = 300;
+
+    @Autowired
+    private GerenciadorDeReservas gerenciador;
+    @Autowired
+    private SalaRepository salaRepository;
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Test
+    @DisplayName("CT01: Apenas uma de centenas de reservas simultâneas para a mesma sala deve vencer")
+    void concorrencia_CT01_MesmaSalaMesmoHorario() throws Exception {
+        // Arrange
+        Sala sala = salaRepository.save(new Sala("S_CONC", "Sala Concorrida", 10));
+        LocalDateTime inicio = LocalDateTime.of(2025, 11, 20, 14, 0);
+        LocalDateTime fim = inicio.plusHours(1);
+
+        // Act
+        AtomicInteger vencedoras = new AtomicInteger();
+        AtomicInteger conflitos = new AtomicInteger();
+        disparar(THREADS, i -> {
+            try {
+                // Horários ligeiramente diferentes, mas todos sobrepostos entre si
+                gerenciador.reservarSala(sala, "Pessoa " + i, inicio.plusMinutes(i % 30), fim);
+                vencedoras.incrementAndGet();
+            } catch (IllegalStateException e) {
+                conflitos.incrementAndGet();
+            }
+        });
+
+        // Assert Principal: exatamente uma reserva gravada, todas as outras recusadas
+        assertEquals(1, vencedoras.get());
+        assertEquals(THREADS - 1, conflitos.get());
+        assertEquals(1, reservaRepository.count());
+    }
+
+    @Test
+    @DisplayName("CT02: Salas diferentes devem receber uma reserva cada sob concorrência")
+    void concorrencia_CT02_SalasDiferentes() throws Exception {
+        // Arrange
+        int numeroDeSalas = 10;
+        List<Sala> salas = new ArrayList<>();
+        for (int s = 0; s < numeroDeSalas; s++) {
+            salas.add(salaRepository.save(new Sala("S_P" + s, "Sala Paralela " + s, 10)));
+        }
+        LocalDateTime inicio = LocalDateTime.of(2025, 11, 21, 9, 0);
+
+        // Act
+        AtomicInteger vencedoras = new AtomicInteger();
+        disparar(THREADS, i -> {
+            try {
+                gerenciador.reservarSala(salas.get(i % numeroDeSalas), "Pessoa " + i, inicio, inicio.plusHours(2));
+                vencedoras.incrementAndGet();
+            } catch (IllegalStateException e) {
+                // conflito esperado para todas menos uma por sala
+            }
+        });
+
+        // Assert Principal: uma reserva por sala
+        assertEquals(numeroDeSalas, vencedoras.get());
+        assertEquals(numeroDeSalas, reservaRepository.count());
+    }
+
+    // Libera todas as threads ao mesmo tempo para maximizar a disputa.
+    private void disparar(int quantidade, IntConsumer tarefa) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(quantidade);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> futuros = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            int indice = i;
+            futuros.add(executor.submit(() -> {
+                largada.await();
+                tarefa.accept(indice);
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> futuro : futuros) {
+            futuro.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,214 @@
+package com.gerenciador.reservas;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.gerenciador.reservas.service.CatalogoDeSalas;
+import com.gerenciador.reservas.service.IndiceDeReservas;
+
+/**
+ * Testes de escala: gera um cadastro grande com o GeradorDeDados e verifica
+ * orçamentos de latência (p95) das principais telas e de memória ocupada.
+ *
+ * Só rodam no perfil Maven 'escala' (./mvnw -P escala test). Volumes e
+ * orçamentos podem ser ajustados por propriedades de sistema, por exemplo
+ * -Descala.reservas=200000 -Descala.orcamento.home=100.
+ *
+ * Os orçamentos padrão foram medidos com os volumes padrão (5 mil salas, 2
+ * milhões de reservas) numa máquina de 1 CPU, com folga. A página principal é
+ * dominada pela lista de todas as salas, não pelas reservas; o POST /reservar
+ * mede só a gravação e o redirecionamento (Post/Redirect/Get).
+ *
+ * O orçamento de memória vale só para o que o IndiceDeReservas monta na carga
+ * (agendas, bits de ocupação e contadores de utilização): o heap é medido antes
+ * e depois de carregar(), com o banco já cheio, e a diferença é comparada com
+ * BYTES_POR_RESERVA por reserva. As medidas vão para o relatório do JUnit
+ * (TestReporter).
+ */
+@Tag("escala")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:escala")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EscalaTest {
+
+    private static final int AQUECIMENTO = 20;
+    private static final int MEDICOES = 100;
+
+    private static final int SALAS = Integer.getInteger("escala.salas", 5_000);
+    private static final int EQUIPAMENTOS = Integer.getInteger("escala.equipamentos", 200);
+    private static final int RESERVAS = Integer.getInteger("escala.reservas", 2_000_000);
+
+    // Por reserva no índice: a entrada do porId (nó, chave Long e o
+    // IntervaloReservado com dois LocalDateTime e o id da sala) e a da agenda
+    // (nó do TreeMap), mais os bits de ocupação e os contadores por sala e dia.
+    // Medido em cerca de 440 bytes com os volumes padrão (~1,9 milhão de reservas).
+    private static final long BYTES_POR_RESERVA = 512;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private IndiceDeReservas indice;
+    @Autowired
+    private CatalogoDeSalas catalogo;
+
+    private GeradorDeDados.Resultado dados;
+    private long bytesDoIndice;
+    private TestReporter relatorio;
+
+    @BeforeAll
+    void gerarDados() {
+        dados = new GeradorDeDados(jdbc, 42).gerar(new GeradorDeDados.Volumes(SALAS, EQUIPAMENTOS, RESERVAS),
+                LocalDate.now());
+        // O índice ainda está vazio (foi carregado na subida, antes do gerador)
+        long antes = heapUsado();
+        indice.carregar();
+        bytesDoIndice = heapUsado() - antes;
+        catalogo.invalidar();
+    }
+
+    @BeforeEach
+    void guardarRelatorio(TestReporter relatorio) {
+        this.relatorio = relatorio;
+    }
+
+    @Test
+    @DisplayName("CT01: O índice em memória deve conter todas as reservas dentro do orçamento de heap")
+    void escala_CT01_MemoriaDoIndice() {
+        // Act
+        long bytesPorReserva = bytesDoIndice / dados.reservas();
+
+        // Assert Principal: outros testes da classe podem ter gravado reservas depois da carga
+        Integer noBanco = jdbc.queryForObject("select count(*) from reserva", Integer.class);
+        assertEquals(noBanco, indice.getTotalIndexado());
+        assertDentroDoOrcamento("índice (bytes por reserva)", bytesPorReserva,
+                orcamento("indice", BYTES_POR_RESERVA));
+    }
+
+    @Test
+    @DisplayName("CT02: Página principal, com e sem filtro de sala, dentro do orçamento de latência")
+    void escala_CT02_PaginaPrincipal() throws Exception {
+        String sala = dados.salaMaisProcurada();
+        assertDentroDoOrcamento("GET /", p95(get("/")), orcamento("home", 500));
+        assertDentroDoOrcamento("GET /?filtroSala", p95(get("/").param("filtroSala", sala)),
+                orcamento("home", 500));
+    }
+
+    @Test
+    @DisplayName("CT03: Listas de salas e equipamentos dentro do orçamento de latência")
+    void escala_CT03_Cadastros() throws Exception {
+        assertDentroDoOrcamento("GET /salas", p95(get("/salas")), orcamento("salas", 500));
+        assertDentroDoOrcamento("GET /equipamentos", p95(get("/equipamentos")), orcamento("equipamentos", 100));
+    }
+
+    @Test
+    @DisplayName("CT04: Busca de disponibilidade e horários livres dentro do orçamento de latência")
+    void escala_CT04_Disponibilidade() throws Exception {
+        LocalDateTime amanha = LocalDate.now().plusDays(1).atTime(10, 0);
+        assertDentroDoOrcamento("GET /salas/disponiveis",
+                p95(get("/salas/disponiveis").param("dataInicio", amanha.toString())
+                        .param("dataFim", amanha.plusHours(1).toString()).param("capacidade", "20")),
+                orcamento("disponiveis", 250));
+        assertDentroDoOrcamento("GET horarios-livres",
+                p95(get("/api/v1/salas/{id}/horarios-livres", dados.salaMaisProcurada())
+                        .param("duracaoMinutos", "60").param("de", amanha.toString())
+                        .param("ate", amanha.plusDays(30).toString())),
+                orcamento("horarios", 50));
+    }
+
+    @Test
+    @DisplayName("CT05: Reservar uma sala cheia de histórico dentro do orçamento de latência")
+    void escala_CT05_Reservar() throws Exception {
+        // Cada pedido vai para uma sala e um horário de madrugada diferentes, sempre livres
+        Random aleatorio = new Random(7);
+        LocalDateTime base = LocalDate.now().plusDays(1).atTime(0, 0);
+        long[] tempos = new long[AQUECIMENTO + MEDICOES];
+        for (int i = 0; i < tempos.length; i++) {
+            LocalDateTime inicio = base.plusDays(i).plusMinutes(aleatorio.nextInt(6) * 30L);
+            String sala = dados.idsSalas().get(aleatorio.nextInt(dados.idsSalas().size()));
+            tempos[i] = medir(post("/reservar").with(csrf()).param("idSala", sala)
+                    .param("nomeResponsavel", "Escala").param("dataInicio", inicio.toString())
+                    .param("dataFim", inicio.plusMinutes(30).toString()));
+        }
+        assertDentroDoOrcamento("POST /reservar", percentil95(Arrays.copyOfRange(tempos, AQUECIMENTO, tempos.length)),
+                orcamento("reservar", 500));
+    }
+
+    private long p95(RequestBuilder requisicao) throws Exception {
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            medir(requisicao);
+        }
+        long[] tempos = new long[MEDICOES];
+        for (int i = 0; i < MEDICOES; i++) {
+            tempos[i] = medir(requisicao);
+        }
+        return percentil95(tempos);
+    }
+
+    // Tempo da requisição em milissegundos. O POST /reservar é assíncrono: a
+    // medida inclui o despacho, que responde com o redirecionamento para o GET /.
+    private long medir(RequestBuilder requisicao) throws Exception {
+        long inicio = System.nanoTime();
+        MvcResult resultado = mockMvc.perform(requisicao).andReturn();
+        if (resultado.getRequest().isAsyncStarted()) {
+            mockMvc.perform(asyncDispatch(resultado)).andExpect(status().is3xxRedirection());
+        } else {
+            assertTrue(HttpStatus.valueOf(resultado.getResponse().getStatus()).is2xxSuccessful());
+        }
+        return (System.nanoTime() - inicio) / 1_000_000;
+    }
+
+    private static long percentil95(long[] tempos) {
+        long[] ordenados = tempos.clone();
+        Arrays.sort(ordenados);
+        return ordenados[(int) Math.ceil(ordenados.length * 0.95) - 1];
+    }
+
+    // Heap ocupado depois de coletar o lixo. Duas coletas seguidas, para o que
+    // só ficou alcançável por finalizadores também sair da conta.
+    private static long heapUsado() {
+        MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+        memoria.gc();
+        memoria.gc();
+        return memoria.getHeapMemoryUsage().getUsed();
+    }
+
+    private static long orcamento(String nome, long padrao) {
+        return Long.getLong("escala.orcamento." + nome, padrao);
+    }
+
+    private void assertDentroDoOrcamento(String medida, long valor, long orcamento) {
+        relatorio.publishEntry(medida, String.format("%d (orçamento %d) com %d salas e %d reservas", valor,
+                orcamento, dados.idsSalas().size(), dados.reservas()));
+        assertTrue(valor <= orcamento, medida + " = " + valor + ", acima do orçamento de " + orcamento);
+    }
+}
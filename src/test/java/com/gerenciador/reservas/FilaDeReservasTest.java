@@ -0,0 +1,106 @@
+package com.gerenciador.reservas;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.gerenciador.reservas.model.Reserva;
+import com.gerenciador.reservas.model.Sala;
+import com.gerenciador.reservas.repository.ReservaRepository;
+import com.gerenciador.reservas.repository.SalaRepository;
+import com.gerenciador.reservas.service.GerenciadorDeReservas;
+import com.gerenciador.reservas.service.IndiceDeReservas;
+
+/**
+ * Pedidos de reserva no modo FILA: um escritor por fila, com vários pedidos
+ * gravados na mesma transação.
+ */
+@SpringBootTest(properties = "reservas.reserva.modo=fila")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class FilaDeReservasTest {
+
+    private static final int PEDIDOS = 300;
+
+    @Autowired
+    private GerenciadorDeReservas gerenciador;
+    @Autowired
+    private SalaRepository salaRepository;
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private IndiceDeReservas indice;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("CT01: Na fila, só um de centenas de pedidos sobrepostos para a mesma sala deve vencer")
+    void fila_CT01_MesmaSalaMesmoHorario() throws Exception {
+        // Arrange
+        Sala sala = salaRepository.save(new Sala("S_FILA", "Sala Fila", 10));
+        LocalDateTime inicio = LocalDateTime.of(2025, 11, 20, 14, 0);
+
+        // Act: todos os pedidos são enfileirados antes de qualquer resposta
+        List<CompletableFuture<Reserva>> resultados = new ArrayList<>();
+        for (int i = 0; i < PEDIDOS; i++) {
+            resultados.add(gerenciador.reservar(sala, "Pessoa " + i, inicio.plusMinutes(i % 30), inicio.plusHours(1)));
+        }
+
+        // Assert Principal: uma reserva gravada, os outros pedidos recusados por conflito
+        int vencedoras = 0;
+        for (CompletableFuture<Reserva> resultado : resultados) {
+            try {
+                resultado.get(60, TimeUnit.SECONDS);
+                vencedoras++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+            }
+        }
+        assertEquals(1, vencedoras);
+        assertEquals(1, reservaRepository.count());
+    }
+
+    @Test
+    @DisplayName("CT02: Pedidos sem conflito devem ser gravados em lote, com menos transações que pedidos")
+    void fila_CT02_GroupCommit() throws Exception {
+        // Arrange
+        List<Sala> salas = new ArrayList<>();
+        for (int s = 0; s < 10; s++) {
+            salas.add(salaRepository.save(new Sala("S_G" + s, "Sala Grupo " + s, 10)));
+        }
+        LocalDateTime inicio = LocalDateTime.of(2025, 11, 21, 8, 0);
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long transacoesAntes = estatisticas.getSuccessfulTransactionCount();
+
+        // Act: cada sala recebe 30 pedidos em horários consecutivos
+        List<CompletableFuture<Reserva>> resultados = new ArrayList<>();
+        for (int i = 0; i < PEDIDOS; i++) {
+            LocalDateTime horario = inicio.plusMinutes(30L * (i / salas.size()));
+            resultados.add(gerenciador.reservar(salas.get(i % salas.size()), "Pessoa " + i, horario,
+                    horario.plusMinutes(30)));
+        }
+        for (CompletableFuture<Reserva> resultado : resultados) {
+            resultado.get(60, TimeUnit.SECONDS);
+        }
+
+        // Assert Principal: tudo gravado e visível no índice, em menos transações que pedidos
+        assertEquals(PEDIDOS, reservaRepository.count());
+        assertEquals(PEDIDOS, indice.getTotalIndexado());
+        long transacoes = estatisticas.getSuccessfulTransactionCount() - transacoesAntes;
+        assertTrue(transacoes < PEDIDOS, "transações: " + transacoes);
+    }
+}
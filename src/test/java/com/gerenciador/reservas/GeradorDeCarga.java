@@ -0,0 +1,250 @@
+package com.gerenciador.reservas;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Gerador de carga HTTP contra uma instância da aplicação (normalmente a do
+ * próprio teste, em porta aleatória).
+ *
+ * Cada usuário virtual tem sua própria sessão (cookies e token CSRF) e repete,
+ * até o fim do tempo configurado: escolhe uma operação do mix, executa, espera a
+ * pausa ("think time") e recomeça. Os pedidos de reserva caem numa janela
+ * estreita de horários para que haja disputa real pelas mesmas salas.
+ */
+public class GeradorDeCarga {
+
+    public enum Operacao {
+        HOME("GET /"), RESERVAR("POST /reservar"), SALAS("GET /salas"), EQUIPAMENTOS("GET /equipamentos");
+
+        private final String descricao;
+
+        Operacao(String descricao) {
+            this.descricao = descricao;
+        }
+
+        public String getDescricao() {
+            return descricao;
+        }
+    }
+
+    /**
+     * @param pesos peso relativo de cada operação no mix
+     * @param diasDeReserva tamanho da janela (em dias) em que os pedidos de reserva
+     *                      são sorteados; janelas menores geram mais conflitos
+     */
+    public record Configuracao(int usuarios, Duration duracao, Duration pausa, List<String> idsSalas,
+            Map<Operacao, Integer> pesos, LocalDateTime inicioDasReservas, int diasDeReserva) {
+    }
+
+    public record Medidas(Operacao operacao, int requisicoes, int erros, double porSegundo, double p50Ms,
+            double p99Ms, double p999Ms, double maximoMs) {
+    }
+
+    public record Relatorio(Duration duracao, List<Medidas> medidas) {
+
+        public int totalDeErros() {
+            return medidas.stream().mapToInt(Medidas::erros).sum();
+        }
+
+        public String formatar() {
+            StringBuilder texto = new StringBuilder(String.format("%-20s %8s %6s %9s %9s %9s %9s %9s%n",
+                    "operação", "req", "erros", "req/s", "p50 ms", "p99 ms", "p999 ms", "máx ms"));
+            for (Medidas m : medidas) {
+                texto.append(String.format("%-20s %8d %6d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                        m.operacao().getDescricao(), m.requisicoes(), m.erros(), m.porSegundo(), m.p50Ms(),
+                        m.p99Ms(), m.p999Ms(), m.maximoMs()));
+            }
+            return texto.toString();
+        }
+    }
+
+    private static final Pattern TOKEN_CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+
+    private final URI base;
+    private final Configuracao configuracao;
+    private final Map<Operacao, Integer> pesos;
+    private final int somaDosPesos;
+    private final Map<Operacao, Amostras> amostras = new EnumMap<>(Operacao.class);
+
+    public GeradorDeCarga(URI base, Configuracao configuracao) {
+        this.base = base;
+        this.configuracao = configuracao;
+        this.pesos = new EnumMap<>(configuracao.pesos());
+        this.somaDosPesos = pesos.values().stream().mapToInt(Integer::intValue).sum();
+        for (Operacao operacao : Operacao.values()) {
+            amostras.put(operacao, new Amostras());
+        }
+    }
+
+    public Relatorio executar() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(configuracao.usuarios());
+        long inicio = System.nanoTime();
+        long fim = inicio + configuracao.duracao().toNanos();
+        try {
+            List<Future<?>> usuarios = new ArrayList<>();
+            for (int i = 0; i < configuracao.usuarios(); i++) {
+                long semente = i;
+                usuarios.add(executor.submit(() -> {
+                    new UsuarioVirtual(new Random(semente)).executarAte(fim);
+                    return null;
+                }));
+            }
+            for (Future<?> usuario : usuarios) {
+                usuario.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Duration duracao = Duration.ofNanos(System.nanoTime() - inicio);
+
+        List<Medidas> medidas = new ArrayList<>();
+        amostras.forEach((operacao, a) -> medidas.add(a.resumir(operacao, duracao)));
+        return new Relatorio(duracao, medidas);
+    }
+
+    /**
+     * Latências (em nanossegundos) e erros de uma operação, de todos os usuários.
+     */
+    private static class Amostras {
+
+        private long[] tempos = new long[1024];
+        private int quantidade;
+        private int erros;
+
+        synchronized void registrar(long nanos, boolean erro) {
+            if (quantidade == tempos.length) {
+                tempos = Arrays.copyOf(tempos, quantidade * 2);
+            }
+            tempos[quantidade++] = nanos;
+            if (erro) {
+                erros++;
+            }
+        }
+
+        synchronized Medidas resumir(Operacao operacao, Duration duracao) {
+            long[] ordenados = Arrays.copyOf(tempos, quantidade);
+            Arrays.sort(ordenados);
+            return new Medidas(operacao, quantidade, erros, quantidade / (duracao.toNanos() / 1e9),
+                    percentil(ordenados, 0.50), percentil(ordenados, 0.99), percentil(ordenados, 0.999),
+                    quantidade == 0 ? 0 : ordenados[quantidade - 1] / 1e6);
+        }
+
+        private static double percentil(long[] ordenados, double p) {
+            if (ordenados.length == 0) {
+                return 0;
+            }
+            return ordenados[(int) Math.ceil(ordenados.length * p) - 1] / 1e6;
+        }
+    }
+
+    private class UsuarioVirtual {
+
+        private final Random aleatorio;
+        private final HttpClient cliente = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        private String tokenCsrf;
+
+        UsuarioVirtual(Random aleatorio) {
+            this.aleatorio = aleatorio;
+        }
+
+        void executarAte(long fim) throws Exception {
+            // Abre a sessão e obtém o token CSRF (fora das medições)
+            home();
+            while (System.nanoTime() < fim && !Thread.currentThread().isInterrupted()) {
+                Operacao operacao = sortearOperacao();
+                long inicio = System.nanoTime();
+                boolean erro;
+                try {
+                    erro = executar(operacao) >= 400;
+                } catch (Exception e) {
+                    erro = true;
+                }
+                amostras.get(operacao).registrar(System.nanoTime() - inicio, erro);
+                Thread.sleep(configuracao.pausa().toMillis());
+            }
+        }
+
+        private Operacao sortearOperacao() {
+            int sorteio = aleatorio.nextInt(somaDosPesos);
+            for (Map.Entry<Operacao, Integer> peso : pesos.entrySet()) {
+                sorteio -= peso.getValue();
+                if (sorteio < 0) {
+                    return peso.getKey();
+                }
+            }
+            throw new IllegalStateException("Mix de operações vazio");
+        }
+
+        private int executar(Operacao operacao) throws Exception {
+            return switch (operacao) {
+                case HOME -> home();
+                case RESERVAR -> reservar();
+                case SALAS -> get("/salas").statusCode();
+                case EQUIPAMENTOS -> get("/equipamentos").statusCode();
+            };
+        }
+
+        private int home() throws Exception {
+            HttpResponse<String> resposta = get("/");
+            Matcher token = TOKEN_CSRF.matcher(resposta.body());
+            if (token.find()) {
+                tokenCsrf = token.group(1);
+            }
+            return resposta.statusCode();
+        }
+
+        // Pedido de 30 min a 2 h, em meia hora cheia, numa sala e num dia sorteados
+        private int reservar() throws Exception {
+            List<String> salas = configuracao.idsSalas();
+            LocalDateTime inicio = configuracao.inicioDasReservas()
+                    .plusDays(aleatorio.nextInt(configuracao.diasDeReserva()))
+                    .plusMinutes(30L * aleatorio.nextInt(20));
+            LocalDateTime fim = inicio.plusMinutes(30L * (1 + aleatorio.nextInt(4)));
+            String corpo = "_csrf=" + codificar(tokenCsrf)
+                    + "&idSala=" + codificar(salas.get(aleatorio.nextInt(salas.size())))
+                    + "&nomeResponsavel=" + codificar("Carga " + aleatorio.nextInt(1000))
+                    + "&dataInicio=" + inicio + "&dataFim=" + fim;
+            HttpRequest requisicao = HttpRequest.newBuilder(base.resolve("/reservar"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                    .build();
+            HttpResponse<String> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.ofString());
+            Matcher token = TOKEN_CSRF.matcher(resposta.body());
+            if (token.find()) {
+                tokenCsrf = token.group(1);
+            }
+            return resposta.statusCode();
+        }
+
+        private HttpResponse<String> get(String caminho) throws Exception {
+            return cliente.send(HttpRequest.newBuilder(base.resolve(caminho)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+        }
+
+        private String codificar(String valor) {
+            return URLEncoder.encode(valor, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.gerenciador.reservas;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Gera um cadastro sintético (salas, equipamentos e reservas) direto por JDBC,
+ * para testes de escala e benchmarks.
+ *
+ * As reservas imitam o uso real: só em dias úteis, entre 8h e 18h, com duração de
+ * 30 minutos a 3 horas e sem sobreposição na mesma sala. Algumas salas são muito
+ * mais procuradas que outras (popularidade com cauda longa), e a janela cobre
+ * tanto o histórico quanto os próximos meses a partir de 'hoje'.
+ *
+ * A mesma semente gera sempre os mesmos dados. Depois de gerar, quem chama deve
+ * recarregar o IndiceDeReservas e invalidar o CatalogoDeSalas, que não enxergam
+ * inserções feitas por fora do JPA.
+ */
+public class GeradorDeDados {
+
+    public record Volumes(int salas, int equipamentos, int reservas) {
+    }
+
+    public record Resultado(List<String> idsSalas, int equipamentos, int reservas, String salaMaisProcurada) {
+    }
+
+    private static final int LOTE_JDBC = 5_000;
+    private static final LocalTime ABERTURA = LocalTime.of(8, 0);
+    private static final LocalTime FECHAMENTO = LocalTime.of(18, 0);
+    private static final int MESES_DE_HISTORICO = 18;
+    private static final int MESES_A_FRENTE = 6;
+
+    private final JdbcTemplate jdbc;
+    private final Random aleatorio;
+
+    public GeradorDeDados(JdbcTemplate jdbc, long semente) {
+        this.jdbc = jdbc;
+        this.aleatorio = new Random(semente);
+    }
+
+    public Resultado gerar(Volumes volumes, LocalDate hoje) {
+        List<String> idsSalas = gerarSalas(volumes.salas());
+        gerarEquipamentos(volumes.equipamentos(), idsSalas);
+
+        List<LocalDate> diasUteis = diasUteis(hoje.minusMonths(MESES_DE_HISTORICO), hoje.plusMonths(MESES_A_FRENTE));
+        double[] popularidade = popularidades(idsSalas.size());
+        int reservas = gerarReservas(volumes.reservas(), idsSalas, diasUteis, popularidade);
+
+        int maisProcurada = 0;
+        for (int i = 1; i < popularidade.length; i++) {
+            if (popularidade[i] > popularidade[maisProcurada]) {
+                maisProcurada = i;
+            }
+        }
+        return new Resultado(idsSalas, volumes.equipamentos(), reservas,
+                idsSalas.isEmpty() ? null : idsSalas.get(maisProcurada));
+    }
+
+    private List<String> gerarSalas(int quantidade) {
+        List<String> ids = new ArrayList<>(quantidade);
+        List<Object[]> lote = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            String id = String.format("G%06d", i);
+            ids.add(id);
+            lote.add(new Object[] { id, "Sala " + id, capacidade() });
+            gravarSeCheio("insert into sala (id, nome, capacidade) values (?, ?, ?)", lote, false);
+        }
+        gravarSeCheio("insert into sala (id, nome, capacidade) values (?, ?, ?)", lote, true);
+        return ids;
+    }
+
+    // Maioria de salas pequenas, algumas médias e poucos auditórios.
+    private int capacidade() {
+        double sorteio = aleatorio.nextDouble();
+        if (sorteio < 0.70) {
+            return 4 + aleatorio.nextInt(9);
+        }
+        if (sorteio < 0.95) {
+            return 13 + aleatorio.nextInt(38);
+        }
+        return 51 + aleatorio.nextInt(250);
+    }
+
+    // A associação Sala -> Equipamento é @OneToMany: cada equipamento pertence a no
+    // máximo uma sala. Cerca de 80% deles ficam associados a alguma sala.
+    private void gerarEquipamentos(int quantidade, List<String> idsSalas) {
+        List<Object[]> equipamentos = new ArrayList<>();
+        List<Object[]> associacoes = new ArrayList<>();
+        for (int i = 1; i <= quantidade; i++) {
+            equipamentos.add(new Object[] { (long) i, String.format("Equip %05d", i), "Gerado" });
+            gravarSeCheio("insert into equipamento (id, nome, descricao) values (?, ?, ?)", equipamentos, false);
+            if (!idsSalas.isEmpty() && aleatorio.nextDouble() < 0.8) {
+                associacoes.add(new Object[] { idsSalas.get(aleatorio.nextInt(idsSalas.size())), (long) i });
+            }
+        }
+        gravarSeCheio("insert into equipamento (id, nome, descricao) values (?, ?, ?)", equipamentos, true);
+        gravarSeCheio("insert into sala_equipamentos (sala_id, equipamentos_id) values (?, ?)", associacoes, true);
+        jdbc.execute("alter sequence equipamento_seq restart with " + (quantidade + 100));
+    }
+
+    // Peso de cada sala, com cauda longa: poucas salas concentram muitas reservas.
+    private double[] popularidades(int salas) {
+        double[] pesos = new double[salas];
+        for (int i = 0; i < salas; i++) {
+            pesos[i] = Math.exp(aleatorio.nextGaussian());
+        }
+        return pesos;
+    }
+
+    private int gerarReservas(int total, List<String> idsSalas, List<LocalDate> dias, double[] popularidade) {
+        if (idsSalas.isEmpty() || total == 0) {
+            return 0;
+        }
+        double somaDosPesos = 0;
+        for (double peso : popularidade) {
+            somaDosPesos += peso;
+        }
+
+        String sql = "insert into reserva (id_reserva, nome_responsavel, sala_id, data_inicio, data_fim) "
+                + "values (?, ?, ?, ?, ?)";
+        List<Object[]> lote = new ArrayList<>();
+        long id = 1;
+        for (int s = 0; s < idsSalas.size() && id <= total; s++) {
+            // Reservas por dia útil desta sala, proporcionais à popularidade
+            double porDia = total * popularidade[s] / somaDosPesos / dias.size();
+            for (LocalDate dia : dias) {
+                int doDia = sortearQuantidade(porDia);
+                LocalDateTime cursor = dia.atTime(ABERTURA);
+                for (int r = 0; r < doDia && id <= total; r++) {
+                    cursor = cursor.plusMinutes(30L * aleatorio.nextInt(3));
+                    LocalDateTime fim = cursor.plusMinutes(30L * (1 + aleatorio.nextInt(6)));
+                    if (fim.toLocalTime().isAfter(FECHAMENTO) || !fim.toLocalDate().equals(dia)) {
+                        break;
+                    }
+                    lote.add(new Object[] { id++, "Responsavel " + aleatorio.nextInt(10_000), idsSalas.get(s),
+                            Timestamp.valueOf(cursor), Timestamp.valueOf(fim) });
+                    gravarSeCheio(sql, lote, false);
+                    cursor = fim;
+                }
+            }
+        }
+        gravarSeCheio(sql, lote, true);
+        jdbc.execute("alter sequence reserva_seq restart with " + (id + 100));
+        return (int) (id - 1);
+    }
+
+    // Quantidade inteira com média 'media': parte inteira mais um sorteio da fração.
+    private int sortearQuantidade(double media) {
+        int inteira = (int) media;
+        return inteira + (aleatorio.nextDouble() < media - inteira ? 1 : 0);
+    }
+
+    private static List<LocalDate> diasUteis(LocalDate inicio, LocalDate fim) {
+        List<LocalDate> dias = new ArrayList<>();
+        for (LocalDate dia = inicio; dia.isBefore(fim); dia = dia.plusDays(1)) {
+            if (dia.getDayOfWeek() != DayOfWeek.SATURDAY && dia.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                dias.add(dia);
+            }
+        }
+        return dias;
+    }
+
+    private void gravarSeCheio(String sql, List<Object[]> lote, boolean forcar) {
+        if (lote.size() >= LOTE_JDBC || (forcar && !lote.isEmpty())) {
+            jdbc.batchUpdate(sql, lote);
+            lote.clear();
+        }
+    }
+}
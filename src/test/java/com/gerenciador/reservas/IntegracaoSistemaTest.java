@@ -1,34 +1,84 @@
 package com.gerenciador.reservas;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import org.hibernate.Hibernate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.ui.Model;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.support.BindingAwareModelMap;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.springframework.web.servlet.mvc.support.RedirectAttributesModelMap;
 
+import com.gerenciador.reservas.controller.CalendarioApiController;
 import com.gerenciador.reservas.controller.EquipamentoController;
+import com.gerenciador.reservas.controller.ImportacaoApiController;
+import com.gerenciador.reservas.controller.ReservaApiController;
 import com.gerenciador.reservas.controller.ReservaController;
+import com.gerenciador.reservas.controller.SalaApiController;
 import com.gerenciador.reservas.controller.SalaController;
+import com.gerenciador.reservas.controller.SerieController;
+import com.gerenciador.reservas.controller.UtilizacaoApiController;
+import com.gerenciador.reservas.model.Frequencia;
+import com.gerenciador.reservas.model.IntervaloReservado;
 import com.gerenciador.reservas.model.Equipamento;
 import com.gerenciador.reservas.model.Reserva;
 import com.gerenciador.reservas.model.Sala;
+import com.gerenciador.reservas.model.SerieDeReservas;
 import com.gerenciador.reservas.repository.EquipamentoRepository;
 import com.gerenciador.reservas.repository.ReservaRepository;
 import com.gerenciador.reservas.repository.SalaRepository;
+import com.gerenciador.reservas.repository.SerieDeReservasRepository;
+import com.gerenciador.reservas.service.ArquivoDeReservas;
+import com.gerenciador.reservas.service.CatalogoDeSalas;
+import com.gerenciador.reservas.service.IndiceDeReservas;
+import com.gerenciador.reservas.service.UtilizacaoDasSalas;
+import com.gerenciador.reservas.viewModel.EstatisticasDoCatalogo;
+import com.gerenciador.reservas.viewModel.GradeDeOcupacao;
+import com.gerenciador.reservas.viewModel.HorarioLivre;
+import com.gerenciador.reservas.viewModel.PaginaDeReservas;
+import com.gerenciador.reservas.viewModel.PedidoReserva;
+import com.gerenciador.reservas.viewModel.ResultadoImportacao;
+import com.gerenciador.reservas.viewModel.ResultadoImportacao.ErroDeLinha;
+import com.gerenciador.reservas.viewModel.ResultadoLote;
+import com.gerenciador.reservas.viewModel.ReservaViewModel;
+import com.gerenciador.reservas.viewModel.UtilizacaoNoPeriodo;
 
 @SpringBootTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -41,11 +91,39 @@ class IntegracaoSistemaTest {
     @Autowired
     private ReservaController reservaController;
     @Autowired
+    private ReservaApiController reservaApiController;
+    @Autowired
+    private SerieController serieController;
+    @Autowired
+    private CatalogoDeSalas catalogo;
+    @Autowired
+    private SalaApiController salaApiController;
+    @Autowired
     private SalaRepository salaRepository;
     @Autowired
     private EquipamentoRepository equipamentoRepository;
     @Autowired
     private ReservaRepository reservaRepository;
+    @Autowired
+    private SerieDeReservasRepository serieRepository;
+    @Autowired
+    private MeterRegistry registro;
+    @Autowired
+    private ImportacaoApiController importacaoApiController;
+    @Autowired
+    private CalendarioApiController calendarioApiController;
+    @Autowired
+    private UtilizacaoApiController utilizacaoApiController;
+    @Autowired
+    private UtilizacaoDasSalas utilizacao;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private ArquivoDeReservas arquivo;
+    @Autowired
+    private IndiceDeReservas indice;
+    @Autowired
+    private WebApplicationContext contexto;
 
     private RedirectAttributes redirectAttrs;
     private Model model;
@@ -93,7 +171,7 @@ class IntegracaoSistemaTest {
         // Act
         LocalDateTime inicio = LocalDateTime.now().plusDays(1).withNano(0);
         LocalDateTime fim = inicio.plusHours(2);
-        reservaController.processarReserva("S50", "Teste de Integração", inicio, fim, model);
+        reservaController.processarReserva("S50", "Teste de Integração", inicio, fim, null, model, redirectAttrs);
 
         // Assert Principal: Verificar se a reserva foi persistida corretamente no banco
         assertEquals("Teste de Integração", reservaRepository.findAll().get(0).getNomeResponsavel());
@@ -142,13 +220,14 @@ class IntegracaoSistemaTest {
         LocalDateTime fim = LocalDateTime.of(2025, 11, 20, 15, 0);
         
         // Primeira reserva (sucesso implícito para o teste de conflito)
-        reservaController.processarReserva(sala.getId(), "Ana", inicio, fim, model);
+        reservaController.processarReserva(sala.getId(), "Ana", inicio, fim, null, model, redirectAttrs);
 
         // Act: Tentar conflito
         LocalDateTime inicioConflito = LocalDateTime.of(2025, 11, 20, 14, 30);
         LocalDateTime fimConflito = LocalDateTime.of(2025, 11, 20, 15, 30);
         Model modelConflito = new BindingAwareModelMap();
-        reservaController.processarReserva(sala.getId(), "Bruno", inicioConflito, fimConflito, modelConflito);
+        reservaController.processarReserva(sala.getId(), "Bruno", inicioConflito, fimConflito, null, modelConflito,
+                redirectAttrs);
 
         // Assert Principal: Verificar se a mensagem de erro específica de conflito foi gerada
         assertEquals("O horário solicitado para esta sala já está reservado.", 
@@ -244,4 +323,813 @@ class IntegracaoSistemaTest {
         // Assert Principal: A sala não deve mais existir no banco
         assertFalse(salaRepository.existsById("S_DEL"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("CT11: Deve gravar todas as reservas de um lote sem conflitos (Integração)")
+    void integracao_CT11_LoteValido() {
+        // Arrange
+        salaRepository.save(new Sala("S_LOTE", "Sala Lote", 30));
+        salaRepository.save(new Sala("S_LOTE2", "Sala Lote 2", 30));
+        LocalDateTime segunda = LocalDateTime.of(2025, 11, 17, 10, 0);
+        List<PedidoReserva> pedidos = List.of(
+                new PedidoReserva("S_LOTE", "Turma A", segunda, segunda.plusHours(2)),
+                new PedidoReserva("S_LOTE", "Turma B", segunda.plusHours(2), segunda.plusHours(4)),
+                new PedidoReserva("S_LOTE2", "Turma C", segunda, segunda.plusHours(2)));
+
+        // Act
+        ResultadoLote resultado = reservaApiController.reservarEmLote(pedidos).getBody();
+
+        // Assert Principal: as três linhas devem ter sido gravadas
+        assertTrue(resultado.gravado());
+        assertEquals(3, reservaRepository.count());
+    }
+
+    @Test
+    @DisplayName("CT12: Não deve gravar nada quando uma linha do lote conflita (Integração)")
+    void integracao_CT12_LoteComConflito() {
+        // Arrange
+        Sala sala = salaRepository.save(new Sala("S_LOTE", "Sala Lote", 30));
+        LocalDateTime terca = LocalDateTime.of(2025, 11, 18, 10, 0);
+        reservaController.processarReserva(sala.getId(), "Existente", terca.plusDays(1), terca.plusDays(1).plusHours(1), null, model, redirectAttrs);
+        List<PedidoReserva> pedidos = List.of(
+                new PedidoReserva("S_LOTE", "Turma A", terca, terca.plusHours(2)),
+                new PedidoReserva("S_LOTE", "Turma B", terca.plusHours(1), terca.plusHours(3)),
+                new PedidoReserva("S_LOTE", "Turma C", terca.plusDays(1), terca.plusDays(1).plusHours(2)));
+
+        // Act
+        ResultadoLote resultado = reservaApiController.reservarEmLote(pedidos).getBody();
+
+        // Assert Principal: linhas 2 (conflito interno) e 3 (conflito com existente) rejeitadas, nada gravado
+        assertFalse(resultado.gravado());
+        assertEquals(List.of(2, 3), resultado.rejeitadas().stream().map(ResultadoLote.LinhaRejeitada::linha).toList());
+        assertEquals(1, reservaRepository.count());
+    }
+
+    @Test
+    @DisplayName("CT13: Deve recusar série semanal que conflita com uma reserva existente (Integração)")
+    void integracao_CT13_SerieComConflito() {
+        // Arrange: reserva avulsa na quarta semana
+        Sala sala = salaRepository.save(new Sala("S_SERIE", "Sala Série", 20));
+        LocalDateTime terca = LocalDateTime.of(2025, 11, 18, 10, 0);
+        reservaController.processarReserva(sala.getId(), "Avulsa", terca.plusWeeks(3).plusHours(1),
+                terca.plusWeeks(3).plusHours(3), null, model, redirectAttrs);
+
+        // Act
+        serieController.criarSerie(sala.getId(), "Turma Semanal", terca, terca.plusHours(2), Frequencia.SEMANAL, 16,
+                redirectAttrs);
+
+        // Assert Principal: nenhuma ocorrência gravada e o erro cita a data em conflito
+        assertEquals(1, reservaRepository.count());
+        assertTrue(((String) redirectAttrs.getFlashAttributes().get("mensagemErro")).contains("2025-12-09"));
+    }
+
+    @Test
+    @DisplayName("CT14: Deve criar e cancelar uma série inteira de uma vez (Integração)")
+    void integracao_CT14_CriarECancelarSerie() {
+        // Arrange
+        Sala sala = salaRepository.save(new Sala("S_SERIE", "Sala Série", 20));
+        LocalDateTime terca = LocalDateTime.of(2025, 11, 18, 10, 0);
+        serieController.criarSerie(sala.getId(), "Turma Semanal", terca, terca.plusHours(2), Frequencia.SEMANAL, 16,
+                redirectAttrs);
+        assertEquals(16, reservaRepository.count());
+
+        // Act
+        serieController.cancelarSerie(serieRepository.findAll().get(0).getId(), new RedirectAttributesModelMap());
+
+        // Assert Principal: série e ocorrências removidas, horário livre novamente
+        assertEquals(0, reservaRepository.count());
+        Model modelNova = new BindingAwareModelMap();
+        reservaController.processarReserva(sala.getId(), "Nova", terca, terca.plusHours(2), null, modelNova, redirectAttrs);
+        assertEquals("Reserva realizada com sucesso!", modelNova.getAttribute("mensagemSucesso"));
+    }
+
+    @Test
+    @DisplayName("CT15: Busca deve trazer só salas livres e adequadas, da menor para a maior (Integração)")
+    void integracao_CT15_BuscaDeSalasLivres() {
+        // Arrange
+        Equipamento projetor = equipamentoRepository.save(new Equipamento("Projetor", ""));
+        salaRepository.save(new Sala("S_GRANDE", "Auditório", 100));
+        salaRepository.save(new Sala("S_MEDIA", "Sala Média", 30));
+        salaRepository.save(new Sala("S_PEQ", "Sala Pequena", 8));
+        Sala ocupada = salaRepository.save(new Sala("S_OCUP", "Sala Ocupada", 20));
+        LocalDateTime inicio = LocalDateTime.of(2025, 11, 20, 14, 0);
+        reservaController.processarReserva(ocupada.getId(), "Ana", inicio, inicio.plusHours(1), null, model, redirectAttrs);
+
+        // Act
+        List<Sala> livres = catalogo.buscarSalasLivres(inicio, inicio.plusHours(2), 10, List.of());
+
+        // Assert Principal: sem a pequena e a ocupada, em ordem de capacidade
+        assertEquals(List.of("S_MEDIA", "S_GRANDE"), livres.stream().map(Sala::getId).toList());
+
+        // Act 2: associar o projetor ao auditório deve refletir na busca seguinte
+        Sala auditorio = salaRepository.findById("S_GRANDE").orElseThrow();
+        auditorio.setEquipamentos(List.of(projetor));
+        salaRepository.save(auditorio);
+        List<Sala> comProjetor = catalogo.buscarSalasLivres(inicio, inicio.plusHours(2), 10, List.of(projetor.getId()));
+
+        // Assert: só o auditório tem projetor
+        assertEquals(List.of("S_GRANDE"), comProjetor.stream().map(Sala::getId).toList());
+    }
+
+    @Test
+    @DisplayName("CT16: Deve sugerir os próximos horários livres quando a reserva conflita (Integração)")
+    void integracao_CT16_HorariosLivresSugeridos() {
+        // Arrange: sala ocupada das 8h às 10h e das 10h30 às 12h
+        Sala sala = salaRepository.save(new Sala("S_SUG", "Sala Sugestão", 10));
+        LocalDateTime oitoHoras = LocalDateTime.of(2025, 11, 20, 8, 0);
+        reservaController.processarReserva(sala.getId(), "Ana", oitoHoras, oitoHoras.plusHours(2), null, model, redirectAttrs);
+        reservaController.processarReserva(sala.getId(), "Bia", oitoHoras.plusMinutes(150), oitoHoras.plusHours(4), null, model, redirectAttrs);
+
+        // Act: pedido de 1h às 9h conflita
+        Model modelConflito = new BindingAwareModelMap();
+        reservaController.processarReserva(sala.getId(), "Caio", oitoHoras.plusHours(1), oitoHoras.plusHours(2), null,
+                modelConflito, redirectAttrs);
+
+        // Assert Principal: a janela de 30min é pulada e a primeira sugestão começa às 12h
+        @SuppressWarnings("unchecked")
+        List<HorarioLivre> sugeridos = (List<HorarioLivre>) modelConflito.getAttribute("horariosSugeridos");
+        assertEquals(oitoHoras.plusHours(4), sugeridos.get(0).inicio());
+
+        // Assert: a API devolve as duas janelas livres do período
+        List<HorarioLivre> livres = salaApiController.proximosHorariosLivres(sala.getId(), 30, oitoHoras,
+                oitoHoras.plusHours(6), 5);
+        assertEquals(List.of(new HorarioLivre(oitoHoras.plusHours(2), oitoHoras.plusMinutes(150)),
+                new HorarioLivre(oitoHoras.plusHours(4), oitoHoras.plusHours(6))), livres);
+    }
+
+    @Test
+    @DisplayName("CT17: Equipamentos só devem ser carregados quando o caso de uso pede (Integração)")
+    void integracao_CT17_EquipamentosCarregadosSobDemanda() {
+        // Arrange
+        Equipamento projetor = equipamentoRepository.save(new Equipamento("Projetor", ""));
+        Sala sala = new Sala("S_LAZY", "Sala Lazy", 10);
+        sala.setEquipamentos(List.of(projetor));
+        salaRepository.save(sala);
+        Reserva reserva = reservaRepository.save(new Reserva("Ana", sala, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(1).plusHours(1)));
+
+        // Act
+        Reserva lida = reservaRepository.findById(reserva.getIdReserva()).orElseThrow();
+        Model modelHome = new BindingAwareModelMap();
+        reservaController.exibirFormulario(modelHome);
+
+        // Assert Principal: ler uma reserva não arrasta os equipamentos da sala
+        assertFalse(Hibernate.isInitialized(lida.getSala().getEquipamentos()));
+
+        // Assert: a página principal recebe as salas já com os equipamentos
+        @SuppressWarnings("unchecked")
+        List<Sala> salasDoModel = (List<Sala>) modelHome.getAttribute("salas");
+        assertTrue(Hibernate.isInitialized(salasDoModel.get(0).getEquipamentos()));
+        assertEquals(1, salasDoModel.get(0).getEquipamentos().size());
+    }
+
+    @Test
+    @DisplayName("CT18: O catálogo em memória deve ser invalidado ao salvar uma sala (Integração)")
+    void integracao_CT18_CatalogoInvalidadoAoSalvarSala() {
+        // Arrange: primeira leitura monta o catálogo, a segunda é um acerto
+        salaRepository.save(new Sala("S_CAT1", "Sala Catalogo", 10));
+        catalogo.getSalas();
+        EstatisticasDoCatalogo antes = catalogo.getEstatisticas();
+        catalogo.getSalas();
+        assertEquals(antes.acertos() + 1, catalogo.getEstatisticas().acertos());
+
+        // Act: salvar pela tela de salas
+        salaController.salvarSala(new Sala("S_CAT2", "Outra Sala", 5), bindingResult, redirectAttrs, model);
+
+        // Assert Principal: a leitura seguinte já enxerga a sala nova
+        assertEquals(List.of("S_CAT1", "S_CAT2"), catalogo.getSalas().stream().map(Sala::getId).toList());
+        assertTrue(catalogo.getEstatisticas().invalidacoes() > antes.invalidacoes());
+        assertEquals(antes.faltas() + 1, catalogo.getEstatisticas().faltas());
+    }
+
+    @Test
+    @DisplayName("CT19: Pedidos de reserva devem ser contados por desfecho e cronometrados (Integração)")
+    void integracao_CT19_MetricasDaReserva() {
+        // Arrange
+        salaRepository.save(new Sala("S_MET", "Sala Métricas", 10));
+        LocalDateTime inicio = LocalDateTime.of(2025, 12, 1, 9, 0);
+
+        // Act: uma reserva aceita, um conflito e um pedido com datas invertidas
+        reservaController.processarReserva("S_MET", "Ana", inicio, inicio.plusHours(1), null, model, redirectAttrs);
+        reservaController.processarReserva("S_MET", "Bruno", inicio, inicio.plusHours(1), null, model, redirectAttrs);
+        reservaController.processarReserva("S_MET", "Caio", inicio, inicio.minusHours(1), null, model, redirectAttrs);
+
+        // Assert Principal
+        assertEquals(1, pedidos("none"));
+        assertEquals(1, pedidos("IllegalStateException"));
+        assertEquals(1, pedidos("IllegalArgumentException"));
+        assertEquals(3, registro.get("reservas.reservar").timers().stream().mapToLong(t -> t.count()).sum());
+        assertTrue(registro.get("reservas.trava.espera").timer().count() >= 2);
+    }
+
+    private double pedidos(String excecao) {
+        return registro.get("reservas.pedidos").tag("exception", excecao).counter().count();
+    }
+
+    @Test
+    @DisplayName("CT20: A exportação deve trazer só as reservas do período, em CSV e NDJSON (Integração)")
+    void integracao_CT20_ExportacaoDeReservas() throws Exception {
+        // Arrange: duas reservas em dezembro e uma em janeiro
+        Sala sala = salaRepository.save(new Sala("S_EXP", "Sala Exportação", 10));
+        LocalDateTime dezembro = LocalDateTime.of(2025, 12, 1, 9, 0);
+        reservaRepository.save(new Reserva("Silva, Ana", sala, dezembro, dezembro.plusHours(1)));
+        reservaRepository.save(new Reserva("Bruno \"B\"", sala, dezembro.plusDays(1), dezembro.plusDays(1).plusHours(1)));
+        reservaRepository.save(new Reserva("Caio", sala, dezembro.plusMonths(1), dezembro.plusMonths(1).plusHours(1)));
+        MockHttpServletResponse csv = new MockHttpServletResponse();
+        MockHttpServletResponse ndjson = new MockHttpServletResponse();
+
+        // Act
+        reservaApiController.exportar("csv", dezembro.withDayOfMonth(1), dezembro.plusMonths(1).withDayOfMonth(1), csv);
+        reservaApiController.exportar("ndjson", null, null, ndjson);
+
+        // Assert Principal: cabeçalho e as duas reservas de dezembro, com aspas do CSV
+        List<String> linhas = csv.getContentAsString().lines().toList();
+        assertEquals(3, linhas.size());
+        assertEquals("idReserva,idSala,nomeSala,nomeResponsavel,dataInicio,dataFim", linhas.get(0));
+        assertTrue(linhas.get(1).endsWith(",S_EXP,Sala Exportação,\"Silva, Ana\",2025-12-01T09:00,2025-12-01T10:00"));
+        assertTrue(linhas.get(2).contains(",\"Bruno \"\"B\"\"\","));
+        assertTrue(csv.getContentType().startsWith("text/csv"));
+
+        // Assert: sem período, um objeto JSON por reserva
+        List<String> objetos = ndjson.getContentAsString().lines().toList();
+        assertEquals(3, objetos.size());
+        assertTrue(objetos.get(2).contains("\"nomeResponsavel\":\"Caio\""));
+        assertTrue(objetos.get(2).contains("\"dataInicio\":\"2026-01-01T09:00:00\""));
+    }
+
+    @Test
+    @DisplayName("CT21: A importação por CSV deve gravar as linhas válidas e relatar as inválidas (Integração)")
+    void integracao_CT21_ImportacaoDeSalasEEquipamentos() throws Exception {
+        // Arrange: uma sala repetida, uma com capacidade inválida, um equipamento de sala inexistente
+        // e, num segundo arquivo de salas, aspas que nunca fecham
+        String salas = "id,nome,capacidade\n"
+                + "IMP1,Sala Importada,20\n"
+                + "IMP2,\"Sala Dois\",8\n"
+                + "IMP1,Sala Repetida,5\n"
+                + "IMP3,Sala Três,muitos\n";
+        String equipamentos = "nome,descricao,idSala\n"
+                + "Projetor,\"HDMI, 4K\",IMP1\n"
+                + "Quadro,,\n"
+                + "Lousa,,NAOEXISTE\n";
+        String salasComAspasAbertas = "id,nome,capacidade\n"
+                + "IMP4,\"Sala Quatro,10\n"
+                + "IMP5,Sala Cinco,12\n";
+
+        // Act
+        ResultadoImportacao resultadoSalas = importacaoApiController.importarSalas(
+                new MockMultipartFile("arquivo", "salas.csv", "text/csv", salas.getBytes()));
+        ResultadoImportacao resultadoEquipamentos = importacaoApiController.importarEquipamentos(
+                new MockMultipartFile("arquivo", "equipamentos.csv", "text/csv", equipamentos.getBytes()));
+        ResultadoImportacao resultadoAspas = importacaoApiController.importarSalas(
+                new MockMultipartFile("arquivo", "salas2.csv", "text/csv", salasComAspasAbertas.getBytes()));
+
+        // Assert Principal
+        assertEquals(4, resultadoSalas.linhasLidas());
+        assertEquals(2, resultadoSalas.gravadas());
+        assertEquals(List.of(new ErroDeLinha(4, "Já existe uma sala com o ID 'IMP1'."),
+                new ErroDeLinha(5, "A capacidade deve ser um número inteiro.")), resultadoSalas.erros());
+        assertEquals(2, resultadoEquipamentos.gravadas());
+        assertEquals(List.of(new ErroDeLinha(4, "Sala 'NAOEXISTE' não encontrada.")), resultadoEquipamentos.erros());
+        // A linha das aspas abertas é relatada e a leitura continua na linha seguinte
+        assertEquals(2, resultadoAspas.linhasLidas());
+        assertEquals(1, resultadoAspas.gravadas());
+        assertEquals(List.of(new ErroDeLinha(2,
+                "Aspas abertas neste registro não foram fechadas até o fim do arquivo.")), resultadoAspas.erros());
+        assertTrue(salaRepository.findById("IMP5").isPresent());
+
+        // Assert: o projetor entrou associado à sala e o catálogo enxerga tudo
+        Sala imp1 = salaRepository.findById("IMP1").orElseThrow();
+        assertEquals(1, imp1.getEquipamentos().size());
+        assertEquals("HDMI, 4K", imp1.getEquipamentos().get(0).getDescricao());
+        assertEquals(3, catalogo.getSalas().stream().filter(s -> s.getId().startsWith("IMP")).count());
+        assertEquals(2, catalogo.getEquipamentos().size());
+    }
+
+    @Test
+    @DisplayName("CT22: A API deve responder 304 enquanto as reservas da sala não mudarem (Integração)")
+    void integracao_CT22_GetCondicionalDeReservas() {
+        // Arrange
+        Sala sala = salaRepository.save(new Sala("S_ETAG", "Sala Quiosque", 10));
+        Sala outra = salaRepository.save(new Sala("S_OUTRA", "Outra Sala", 10));
+        LocalDateTime de = LocalDateTime.of(2025, 12, 1, 0, 0);
+        reservaRepository.save(new Reserva("Ana", sala, de.plusHours(9), de.plusHours(10)));
+        ResponseEntity<PaginaDeReservas> primeira = listarReservasDaSala("S_ETAG", de, null);
+        String etag = primeira.getHeaders().getETag();
+
+        // Act
+        ResponseEntity<PaginaDeReservas> repetida = listarReservasDaSala("S_ETAG", de, etag);
+        reservaRepository.save(new Reserva("Bruno", outra, de.plusHours(9), de.plusHours(10)));
+        ResponseEntity<PaginaDeReservas> aposReservarOutraSala = listarReservasDaSala("S_ETAG", de, etag);
+        reservaRepository.save(new Reserva("Caio", sala, de.plusHours(11), de.plusHours(12)));
+        ResponseEntity<PaginaDeReservas> aposReservarAMesmaSala = listarReservasDaSala("S_ETAG", de, etag);
+
+        // Assert Principal
+        assertEquals(HttpStatus.OK, primeira.getStatusCode());
+        assertEquals(1, primeira.getBody().reservas().size());
+        assertEquals(HttpStatus.NOT_MODIFIED, repetida.getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, aposReservarOutraSala.getStatusCode());
+        assertEquals(HttpStatus.OK, aposReservarAMesmaSala.getStatusCode());
+        assertEquals(2, aposReservarAMesmaSala.getBody().reservas().size());
+        assertFalse(etag.equals(aposReservarAMesmaSala.getHeaders().getETag()));
+    }
+
+    private ResponseEntity<PaginaDeReservas> listarReservasDaSala(String idSala, LocalDateTime de, String etag) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/reservas");
+        if (etag != null) {
+            request.addHeader("If-None-Match", etag);
+        }
+        return reservaApiController.listarReservas(idSala, de, null, null, null, null,
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+    }
+
+    @Test
+    @DisplayName("CT23: Telas conectadas ao stream devem receber só os eventos da sala filtrada, também ao reconectar (Integração)")
+    void integracao_CT23_StreamDeEventos() throws Exception {
+        // Arrange
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(contexto).build();
+        Sala sala = salaRepository.save(new Sala("S_SSE", "Sala Saguao", 10));
+        Sala outra = salaRepository.save(new Sala("S_OUTRA", "Outra Sala", 10));
+        LocalDateTime inicio = LocalDateTime.of(2025, 12, 2, 9, 0);
+        MvcResult tela = mockMvc.perform(get("/api/v1/reservas/eventos").param("idSala", "S_SSE"))
+                .andExpect(request().asyncStarted()).andReturn();
+        aguardar(() -> registro.get("reservas.eventos.telas").gauge().value() == 1);
+
+        // Act
+        Reserva reserva = reservaRepository.save(new Reserva("Ana", sala, inicio, inicio.plusHours(1)));
+        reservaRepository.save(new Reserva("Bruno", outra, inicio, inicio.plusHours(1)));
+        reservaRepository.delete(reserva);
+        aguardar(() -> tela.getResponse().getContentAsString().contains("reserva-cancelada"));
+        String recebido = tela.getResponse().getContentAsString();
+        String primeiroId = recebido.substring(recebido.indexOf("id:") + 3, recebido.indexOf('\n'));
+        MvcResult reconectada = mockMvc.perform(get("/api/v1/reservas/eventos").param("idSala", "S_SSE")
+                .header("Last-Event-ID", primeiroId)).andReturn();
+        aguardar(() -> reconectada.getResponse().getContentAsString().contains("reserva-cancelada"));
+
+        // Assert Principal
+        assertTrue(recebido.contains("event:reserva-criada"));
+        assertTrue(recebido.contains("\"idReserva\":" + reserva.getIdReserva()));
+        assertTrue(recebido.contains("\"dataInicio\":\"2025-12-02T09:00:00\""));
+        assertFalse(recebido.contains("Bruno"));
+        assertFalse(reconectada.getResponse().getContentAsString().contains("reserva-criada"));
+    }
+
+    @Test
+    @DisplayName("CT24: O pedido de reserva deve responder só o fragmento ou redirecionar, e a página principal deve aceitar GET condicional (Integração)")
+    void integracao_CT24_RespostaParcialDaReserva() throws Exception {
+        // Arrange
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(contexto).build();
+        MockHttpSession sessao = new MockHttpSession();
+        salaRepository.save(new Sala("S_PRG", "Sala Parcial", 10));
+        LocalDateTime inicio = LocalDateTime.of(2025, 12, 3, 9, 0);
+
+        // Act
+        MvcResult parcial = mockMvc.perform(post("/reservar").session(sessao).header("X-Requested-With", "XMLHttpRequest")
+                .param("idSala", "S_PRG").param("nomeResponsavel", "Ana")
+                .param("dataInicio", inicio.toString()).param("dataFim", inicio.plusHours(1).toString()))
+                .andReturn();
+        String fragmento = mockMvc.perform(asyncDispatch(parcial)).andReturn().getResponse().getContentAsString();
+        MvcResult classico = mockMvc.perform(post("/reservar").session(sessao)
+                .param("idSala", "S_PRG").param("nomeResponsavel", "Bruno")
+                .param("dataInicio", inicio.toString()).param("dataFim", inicio.plusHours(1).toString()))
+                .andReturn();
+        MvcResult redirecionado = mockMvc.perform(asyncDispatch(classico)).andReturn();
+        // A primeira visita depois do redirecionamento traz a mensagem e não entra no cache
+        MvcResult comMensagem = mockMvc.perform(get("/").session(sessao)).andReturn();
+        String etag = mockMvc.perform(get("/").session(sessao)).andReturn().getResponse().getHeader("ETag");
+        int semMudanca = mockMvc.perform(get("/").session(sessao).header("If-None-Match", etag)).andReturn()
+                .getResponse().getStatus();
+
+        // Assert Principal
+        assertTrue(fragmento.contains("Reserva realizada com sucesso!"));
+        assertTrue(fragmento.contains("<td>Ana</td>"));
+        assertFalse(fragmento.contains("Salas Disponíveis"));
+        assertEquals("/", redirecionado.getResponse().getRedirectedUrl());
+        assertEquals("O horário solicitado para esta sala já está reservado.",
+                redirecionado.getFlashMap().get("mensagemErro"));
+        assertTrue(comMensagem.getResponse().getContentAsString().contains("já está reservado"));
+        assertEquals(null, comMensagem.getResponse().getHeader("ETag"));
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), semMudanca);
+    }
+
+    @Test
+    @DisplayName("CT25: A grade de ocupação deve marcar as faixas de 15 minutos tocadas pelas reservas, também depois de cancelar (Integração)")
+    void integracao_CT25_GradeDeOcupacao() {
+        // Arrange: Ana e Bruno dividem a faixa das 10h; a de Caio atravessa a meia-noite
+        Sala sala = salaRepository.save(new Sala("S_CAL", "Sala Calendario", 10));
+        LocalDateTime segunda = LocalDateTime.of(2025, 12, 1, 0, 0);
+        Reserva ana = reservaRepository.save(new Reserva("Ana", sala, segunda.plusHours(9), segunda.plusMinutes(605)));
+        reservaRepository.save(new Reserva("Bruno", sala, segunda.plusMinutes(610), segunda.plusHours(11)));
+        reservaRepository.save(new Reserva("Caio", sala, segunda.plusDays(1).plusMinutes(23 * 60 + 30),
+                segunda.plusDays(2).plusMinutes(30)));
+
+        // Act
+        reservaRepository.delete(ana);
+        GradeDeOcupacao grade = calendarioApiController.grade(LocalDate.of(2025, 12, 1), 7, List.of("S_CAL"),
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/api/v1/calendario"),
+                        new MockHttpServletResponse())).getBody();
+
+        // Assert Principal
+        List<String> dias = grade.salas().get(0).ocupacao();
+        assertEquals(7, dias.size());
+        assertEquals("0".repeat(40) + "1111" + "0".repeat(52), dias.get(0));
+        assertEquals("0".repeat(94) + "11", dias.get(1));
+        assertEquals("11" + "0".repeat(94), dias.get(2));
+        assertEquals("0".repeat(96), dias.get(3));
+        assertTrue(grade.salas().get(0).bytesEmMemoria() > 0);
+    }
+
+    @Test
+    @DisplayName("CT26: O relatório de utilização deve acompanhar reservas gravadas, alteradas e canceladas, e a verificação deve corrigir os contadores (Integração)")
+    void integracao_CT26_RelatorioDeUtilizacao() {
+        // Arrange
+        Sala sala = salaRepository.save(new Sala("S_UTIL", "Sala Utilizacao", 10));
+        LocalDateTime segunda = LocalDateTime.of(2025, 12, 1, 0, 0);
+        reservaRepository.save(new Reserva("Ana", sala, segunda.plusHours(9), segunda.plusMinutes(630)));
+        Reserva bruno = reservaRepository.save(new Reserva("Bruno", sala, segunda.plusDays(1).plusHours(14),
+                segunda.plusDays(1).plusHours(16)));
+        Reserva caio = reservaRepository.save(new Reserva("Caio", sala, segunda.plusDays(2).plusHours(8),
+                segunda.plusDays(2).plusHours(9)));
+
+        // Act
+        bruno.setDataFim(segunda.plusDays(1).plusMinutes(14 * 60 + 30));
+        reservaRepository.save(bruno);
+        reservaRepository.delete(caio);
+        int divergenciasSemAlteracaoPorFora = utilizacao.verificar();
+        // Gravada direto no banco: só a verificação enxerga
+        jdbc.update("insert into reserva (id_reserva, nome_responsavel, sala_id, data_inicio, data_fim) "
+                + "values (9999, 'Por fora', 'S_UTIL', ?, ?)", segunda.plusDays(3).plusHours(11),
+                segunda.plusDays(3).plusHours(12));
+        int divergenciasComAlteracaoPorFora = utilizacao.verificar();
+        UtilizacaoNoPeriodo relatorio = utilizacaoApiController.relatorio(segunda.toLocalDate(),
+                segunda.toLocalDate().plusWeeks(1), List.of("S_UTIL"),
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/api/v1/utilizacao"),
+                        new MockHttpServletResponse())).getBody();
+
+        // Assert Principal: 90 + 30 + 60 minutos em 7 dias de 10 horas
+        assertEquals(0, divergenciasSemAlteracaoPorFora);
+        assertEquals(1, divergenciasComAlteracaoPorFora);
+        assertEquals(180, relatorio.salas().get(0).minutosReservados());
+        assertEquals(0.0429, relatorio.salas().get(0).taxa());
+        assertEquals(60, relatorio.horas().get(9).minutosReservados());
+        assertEquals(30, relatorio.horas().get(10).minutosReservados());
+        assertEquals(0, relatorio.horas().get(8).minutosReservados());
+        assertEquals(90, relatorio.diasDaSemana().get(0).minutosReservados());
+        assertEquals(0.15, relatorio.diasDaSemana().get(0).taxa());
+    }
+
+    @Test
+    @DisplayName("CT27: O arquivamento deve mover as reservas terminadas para o histórico sem perder ocupação, utilização e conflitos (Integração)")
+    void integracao_CT27_ArquivamentoDeReservas() throws Exception {
+        // Arrange: duas reservas antigas e uma recente; blocos de uma reserva
+        Sala sala = salaRepository.save(new Sala("S_ARQ", "Sala Arquivo", 10));
+        LocalDateTime segunda = LocalDateTime.of(2025, 11, 3, 0, 0);
+        reservaRepository.save(new Reserva("Ana", sala, segunda.plusHours(9), segunda.plusHours(10)));
+        reservaRepository.save(new Reserva("Bruno", sala, segunda.plusHours(14), segunda.plusHours(15)));
+        reservaRepository.save(new Reserva("Caio", sala, segunda.plusWeeks(4).plusHours(9),
+                segunda.plusWeeks(4).plusHours(10)));
+        ReflectionTestUtils.setField(arquivo, "lote", 1);
+
+        // Act
+        int arquivadas = arquivo.arquivar(segunda.plusWeeks(1));
+        PaginaDeReservas historico = reservaApiController.listarHistorico("S_ARQ", null, null, null, null, null,
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/api/v1/reservas/historico"),
+                        new MockHttpServletResponse())).getBody();
+        ResultadoLote sobreAna = reservaApiController.reservarEmLote(List.of(
+                new PedidoReserva("S_ARQ", "Davi", segunda.plusMinutes(9 * 60 + 30), segunda.plusHours(11))))
+                .getBody();
+        List<HorarioLivre> livres = salaApiController.proximosHorariosLivres("S_ARQ", 60, segunda.plusHours(8),
+                segunda.plusHours(16), 5);
+        MockHttpServletResponse exportacao = new MockHttpServletResponse();
+        reservaApiController.exportar("ndjson", null, null, exportacao);
+        MockHttpServletResponse exportacaoDesdeBruno = new MockHttpServletResponse();
+        reservaApiController.exportar("ndjson", segunda.plusHours(12), null, exportacaoDesdeBruno);
+        indice.carregar();
+        GradeDeOcupacao grade = calendarioApiController.grade(segunda.toLocalDate(), 1, List.of("S_ARQ"),
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/api/v1/calendario"),
+                        new MockHttpServletResponse())).getBody();
+
+        // Assert Principal
+        assertEquals(2, arquivadas);
+        assertEquals(1, reservaRepository.count());
+        assertEquals(List.of("Ana", "Bruno"),
+                historico.reservas().stream().map(ReservaViewModel::getNomeResponsavel).toList());
+        assertFalse(sobreAna.gravado());
+        assertEquals(List.of(new HorarioLivre(segunda.plusHours(8), segunda.plusHours(9)),
+                new HorarioLivre(segunda.plusHours(10), segunda.plusHours(14)),
+                new HorarioLivre(segunda.plusHours(15), segunda.plusHours(16))), livres);
+        assertEquals("0".repeat(36) + "1111" + "0".repeat(16) + "1111" + "0".repeat(36),
+                grade.salas().get(0).ocupacao().get(0));
+        assertEquals(60, utilizacao.minutosReservados("S_ARQ", segunda.toLocalDate(), 14));
+        assertEquals(0, utilizacao.verificar());
+
+        // Assert: a exportação atravessa o limite do arquivo, na ordem de início
+        assertEquals(List.of("Ana", "Bruno", "Caio"), responsaveisExportados(exportacao));
+        assertEquals(List.of("Bruno", "Caio"), responsaveisExportados(exportacaoDesdeBruno));
+    }
+
+    private static List<String> responsaveisExportados(MockHttpServletResponse ndjson) throws Exception {
+        ObjectMapper json = new ObjectMapper();
+        List<String> nomes = new ArrayList<>();
+        for (String linha : ndjson.getContentAsString().lines().toList()) {
+            nomes.add(json.readTree(linha).get("nomeResponsavel").asText());
+        }
+        return nomes;
+    }
+
+    @Test
+    @DisplayName("CT28: Reserva com início igual ao fim deve ser recusada com mensagem, mesmo dentro de um horário ocupado (Integração)")
+    void integracao_CT28_ReservaSemDuracao() throws Exception {
+        // Arrange
+        Sala sala = salaRepository.save(new Sala("S_ZERO", "Sala Zero", 10));
+        LocalDateTime inicio = LocalDateTime.of(2025, 11, 20, 14, 0);
+        reservaController.processarReserva(sala.getId(), "Ana", inicio, inicio.plusHours(1), null, model,
+                redirectAttrs).get();
+
+        // Act
+        Model modelSemDuracao = new BindingAwareModelMap();
+        String vista = reservaController.processarReserva(sala.getId(), "Bruno", inicio.plusMinutes(30),
+                inicio.plusMinutes(30), "XMLHttpRequest", modelSemDuracao, redirectAttrs).get();
+
+        // Assert Principal
+        assertEquals("index :: resultado-reserva", vista);
+        assertEquals("A data de fim da reserva deve ser posterior à data de início.",
+                modelSemDuracao.getAttribute("mensagemErro"));
+        assertEquals(1, reservaRepository.count());
+    }
+
+    @Test
+    @DisplayName("CT29: Tela que reconecta com o id de um evento de outra execução do servidor deve receber recarregar (Integração)")
+    void integracao_CT29_ReconexaoDepoisDeReiniciar() throws Exception {
+        // Arrange
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(contexto).build();
+        Sala sala = salaRepository.save(new Sala("S_BOOT", "Sala Reinicio", 10));
+        LocalDateTime inicio = LocalDateTime.of(2025, 12, 4, 9, 0);
+        MvcResult tela = mockMvc.perform(get("/api/v1/reservas/eventos").param("idSala", "S_BOOT")).andReturn();
+        aguardar(() -> registro.get("reservas.eventos.telas").gauge().value() == 1);
+        reservaRepository.save(new Reserva("Ana", sala, inicio, inicio.plusHours(1)));
+        aguardar(() -> tela.getResponse().getContentAsString().contains("reserva-criada"));
+        String recebido = tela.getResponse().getContentAsString();
+        String id = recebido.substring(recebido.indexOf("id:") + 3, recebido.indexOf('\n'));
+        // Mesmo número de evento, outra execução
+        String idDeOutraExecucao = "0" + id.substring(id.indexOf('-'));
+
+        // Act
+        MvcResult mesmaExecucao = mockMvc.perform(get("/api/v1/reservas/eventos").param("idSala", "S_BOOT")
+                .header("Last-Event-ID", id)).andReturn();
+        MvcResult outraExecucao = mockMvc.perform(get("/api/v1/reservas/eventos").param("idSala", "S_BOOT")
+                .header("Last-Event-ID", idDeOutraExecucao)).andReturn();
+        aguardar(() -> outraExecucao.getResponse().getContentAsString().contains("recarregar"));
+        aguardar(() -> registro.get("reservas.eventos.telas").gauge().value() == 3);
+
+        // Assert Principal
+        assertFalse(mesmaExecucao.getResponse().getContentAsString().contains("recarregar"));
+        assertFalse(outraExecucao.getResponse().getContentAsString().contains("reserva-criada"));
+    }
+
+    @Test
+    @DisplayName("CT30: Lote com uma linha nula deve ser recusado com 422 apontando a linha (Integração)")
+    void integracao_CT30_LoteComLinhaNula() throws Exception {
+        // Arrange
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(contexto).build();
+        salaRepository.save(new Sala("S_NULA", "Sala Nula", 10));
+        String corpo = "[{\"idSala\":\"S_NULA\",\"nomeResponsavel\":\"Ana\","
+                + "\"dataInicio\":\"2025-12-05T09:00:00\",\"dataFim\":\"2025-12-05T10:00:00\"}, null]";
+
+        // Act
+        MvcResult resposta = mockMvc.perform(post("/api/v1/reservas/lote")
+                .contentType(MediaType.APPLICATION_JSON).content(corpo)).andReturn();
+
+        // Assert Principal
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY.value(), resposta.getResponse().getStatus());
+        assertTrue(resposta.getResponse().getContentAsString().contains("\"linha\":2"));
+        assertEquals(0, reservaRepository.count());
+    }
+
+    @Test
+    @DisplayName("CT31: Paginação com só metade da chave de continuação deve responder 400 (Integração)")
+    void integracao_CT31_CursorIncompleto() throws Exception {
+        // Arrange
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(contexto).build();
+        String aposInicio = LocalDateTime.of(2025, 12, 8, 9, 0).toString();
+
+        // Act
+        int api = mockMvc.perform(get("/api/v1/reservas").param("aposInicio", aposInicio)).andReturn()
+                .getResponse().getStatus();
+        int historico = mockMvc.perform(get("/api/v1/reservas/historico").param("aposId", "7")).andReturn()
+                .getResponse().getStatus();
+        int pagina = mockMvc.perform(get("/").param("aposInicio", aposInicio)).andReturn()
+                .getResponse().getStatus();
+
+        // Assert Principal
+        assertEquals(HttpStatus.BAD_REQUEST.value(), api);
+        assertEquals(HttpStatus.BAD_REQUEST.value(), historico);
+        assertEquals(HttpStatus.BAD_REQUEST.value(), pagina);
+    }
+
+    @Test
+    @DisplayName("CT32: A lista de salas deve ser paginada por id, continuando depois da última sala exibida (Integração)")
+    void integracao_CT32_ListaDeSalasPaginada() {
+        // Arrange
+        salaRepository.save(new Sala("S_PAG3", "Sala Pagina C", 10));
+        salaRepository.save(new Sala("S_PAG1", "Sala Pagina A", 10));
+        salaRepository.save(new Sala("S_PAG2", "Sala Pagina B", 10));
+        ReflectionTestUtils.setField(salaController, "tamanhoPagina", 2);
+        Model segunda = new BindingAwareModelMap();
+
+        // Act
+        salaController.listarSalas(null, model);
+        salaController.listarSalas((String) model.getAttribute("proximoId"), segunda);
+
+        // Assert Principal
+        assertEquals(List.of("S_PAG1", "S_PAG2"), idsDasSalas(model));
+        assertEquals("S_PAG2", model.getAttribute("proximoId"));
+        assertEquals(List.of("S_PAG3"), idsDasSalas(segunda));
+        assertNull(segunda.getAttribute("proximoId"));
+    }
+
+    @Test
+    @DisplayName("CT33: Série cuja última ocorrência saiu do horizonte deve ser arquivada inteira e não pode mais ser alterada (Integração)")
+    void integracao_CT33_ArquivamentoDeSeries() {
+        // Arrange: uma série já terminada e outra que passa do limite; blocos de uma reserva
+        Sala sala = salaRepository.save(new Sala("S_ARQ", "Sala Arquivo", 10));
+        LocalDateTime segunda = LocalDateTime.of(2025, 11, 3, 9, 0);
+        serieController.criarSerie(sala.getId(), "Turma Antiga", segunda, segunda.plusHours(1), Frequencia.SEMANAL, 3,
+                redirectAttrs);
+        serieController.criarSerie(sala.getId(), "Turma Atual", segunda.plusHours(3), segunda.plusHours(4),
+                Frequencia.SEMANAL, 6, redirectAttrs);
+        ReflectionTestUtils.setField(arquivo, "lote", 1);
+        List<SerieDeReservas> series = serieRepository.findAll(Sort.by("id"));
+        Long antiga = series.get(0).getId();
+        Long atual = series.get(1).getId();
+
+        // Act
+        int arquivadas = arquivo.arquivar(segunda.plusWeeks(4));
+        RedirectAttributes aoEditar = new RedirectAttributesModelMap();
+        serieController.salvarSerie(antiga, "Turma Antiga", segunda, segunda.plusHours(2), Frequencia.SEMANAL, 3,
+                aoEditar);
+        RedirectAttributes aoCancelar = new RedirectAttributesModelMap();
+        serieController.cancelarSerie(antiga, aoCancelar);
+
+        // Assert Principal: as três ocorrências foram juntas, mesmo com lote 1
+        assertEquals(3, arquivadas);
+        assertTrue(serieRepository.findById(antiga).orElseThrow().isArquivada());
+        assertFalse(serieRepository.findById(atual).orElseThrow().isArquivada());
+        assertEquals(6, reservaRepository.count());
+        assertEquals(List.of(antiga, antiga, antiga), jdbc.queryForList(
+                "select serie_id from reserva_arquivada order by data_inicio", Long.class));
+        assertEquals("A série já foi arquivada e não pode mais ser alterada.",
+                aoEditar.getFlashAttributes().get("mensagemErro"));
+        assertEquals("A série já foi arquivada e não pode mais ser alterada.",
+                aoCancelar.getFlashAttributes().get("mensagemErro"));
+        assertEquals(0, utilizacao.verificar());
+    }
+
+    @Test
+    @DisplayName("CT34: Busca de horários livres com sala inexistente, duração inválida ou período invertido deve responder 400 (Integração)")
+    void integracao_CT34_HorariosLivresComParametrosInvalidos() throws Exception {
+        // Arrange
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(contexto).build();
+        salaRepository.save(new Sala("S_LIVRE", "Sala Livre", 10));
+        String de = LocalDateTime.of(2025, 12, 8, 8, 0).toString();
+        String ate = LocalDateTime.of(2025, 12, 8, 18, 0).toString();
+
+        // Act
+        int salaInexistente = mockMvc.perform(get("/api/v1/salas/S_NENHUMA/horarios-livres")
+                .param("duracaoMinutos", "60").param("de", de).param("ate", ate)).andReturn()
+                .getResponse().getStatus();
+        int semDuracao = mockMvc.perform(get("/api/v1/salas/S_LIVRE/horarios-livres")
+                .param("duracaoMinutos", "0").param("de", de).param("ate", ate)).andReturn()
+                .getResponse().getStatus();
+        int periodoInvertido = mockMvc.perform(get("/api/v1/salas/S_LIVRE/horarios-livres")
+                .param("duracaoMinutos", "60").param("de", ate).param("ate", de)).andReturn()
+                .getResponse().getStatus();
+        int valido = mockMvc.perform(get("/api/v1/salas/S_LIVRE/horarios-livres")
+                .param("duracaoMinutos", "60").param("de", de).param("ate", ate)).andReturn()
+                .getResponse().getStatus();
+
+        // Assert Principal
+        assertEquals(HttpStatus.BAD_REQUEST.value(), salaInexistente);
+        assertEquals(HttpStatus.BAD_REQUEST.value(), semDuracao);
+        assertEquals(HttpStatus.BAD_REQUEST.value(), periodoInvertido);
+        assertEquals(HttpStatus.OK.value(), valido);
+    }
+
+    @Test
+    @DisplayName("CT35: Verificação da utilização não deve trocar os contadores com uma gravação já no banco e ainda não repassada (Integração)")
+    void integracao_CT35_VerificacaoComGravacaoPendente() {
+        // Arrange: a reserva chega ao banco, mas o aviso depois do commit ainda não
+        // passou pelo índice (ver ReservaListener)
+        Sala sala = salaRepository.save(new Sala("S_UTIL", "Sala Utilização", 10));
+        LocalDateTime inicio = LocalDateTime.of(2025, 12, 9, 9, 0);
+        indice.iniciarAlteracao();
+        jdbc.update("insert into reserva (id_reserva, nome_responsavel, sala_id, data_inicio, data_fim) "
+                + "values (999, 'Ana', 'S_UTIL', ?, ?)", inicio, inicio.plusHours(1));
+
+        // Act
+        int comPendente = utilizacao.verificar();
+        indice.registrar(new IntervaloReservado(999L, sala.getId(), inicio, inicio.plusHours(1)));
+        indice.concluirAlteracao();
+        int depoisDoAviso = utilizacao.verificar();
+
+        // Assert Principal: contada uma vez só
+        assertEquals(-1, comPendente);
+        assertEquals(0, depoisDoAviso);
+        assertEquals(60, utilizacao.minutosReservados("S_UTIL", inicio.toLocalDate(), 9));
+    }
+
+    @Test
+    @DisplayName("CT36: A página principal deve detalhar só a primeira página de salas e trazer os seletores prontos (Integração)")
+    void integracao_CT36_SalasNaPaginaPrincipal() {
+        // Arrange
+        salaRepository.save(new Sala("S_OPC1", "Sala Reunião", 10));
+        salaRepository.save(new Sala("S_OPC2", "Sala C", 10));
+        salaRepository.save(new Sala("S_OPC3", "Sala D", 10));
+        ReflectionTestUtils.setField(reservaController, "tamanhoPaginaDeSalas", 2);
+
+        // Act
+        reservaController.exibirFormulario("S_OPC2", null, null, null, null, model, null);
+
+        // Assert Principal
+        assertEquals(2, ((List<?>) model.getAttribute("salasDetalhadas")).size());
+        assertEquals(true, model.getAttribute("maisSalas"));
+        String opcoes = (String) model.getAttribute("opcoesDeSalas");
+        String doFiltro = (String) model.getAttribute("opcoesDoFiltro");
+        assertTrue(opcoes.contains("<option value=\"S_OPC1\">Sala Reunião</option>"));
+        assertFalse(opcoes.contains("selected"));
+        assertTrue(doFiltro.contains("<option value=\"S_OPC2\" selected>Sala C</option>"));
+        assertEquals(1, doFiltro.split("selected", -1).length - 1);
+    }
+
+    @Test
+    @DisplayName("CT37: Editar uma série deve trocar todas as ocorrências, mesmo sobrepondo as antigas (Integração)")
+    void integracao_CT37_EditarSerie() {
+        // Arrange
+        Sala sala = salaRepository.save(new Sala("S_SERIE", "Sala Série", 20));
+        LocalDateTime terca = LocalDateTime.of(2025, 11, 18, 10, 0);
+        serieController.criarSerie(sala.getId(), "Turma Semanal", terca, terca.plusHours(2), Frequencia.SEMANAL, 4,
+                redirectAttrs);
+        Long idSerie = serieRepository.findAll().get(0).getId();
+
+        // Act: meia hora mais tarde e com duas semanas a mais
+        RedirectAttributes aoEditar = new RedirectAttributesModelMap();
+        serieController.salvarSerie(idSerie, "Turma Nova", terca.plusMinutes(30), terca.plusMinutes(150),
+                Frequencia.SEMANAL, 6, aoEditar);
+
+        // Assert Principal
+        assertEquals("Reserva recorrente atualizada com sucesso!",
+                aoEditar.getFlashAttributes().get("mensagemSucesso"));
+        List<Reserva> ocorrencias = reservaRepository.findAll(Sort.by("dataInicio"));
+        assertEquals(6, ocorrencias.size());
+        assertEquals(terca.plusMinutes(30), ocorrencias.get(0).getDataInicio());
+        assertEquals(terca.plusWeeks(5).plusMinutes(30), ocorrencias.get(5).getDataInicio());
+        assertTrue(ocorrencias.stream().allMatch(r -> r.getNomeResponsavel().equals("Turma Nova")));
+        // O início antigo ficou livre
+        Model modelNova = new BindingAwareModelMap();
+        reservaController.processarReserva(sala.getId(), "Avulsa", terca, terca.plusMinutes(30), null, modelNova,
+                redirectAttrs);
+        assertEquals("Reserva realizada com sucesso!", modelNova.getAttribute("mensagemSucesso"));
+    }
+
+    @Test
+    @DisplayName("CT38: Edição de série em conflito ou sem duração deve ser recusada sem alterar as ocorrências (Integração)")
+    void integracao_CT38_EditarSerieRecusada() {
+        // Arrange: reserva avulsa à tarde na segunda semana
+        Sala sala = salaRepository.save(new Sala("S_SERIE", "Sala Série", 20));
+        LocalDateTime terca = LocalDateTime.of(2025, 11, 18, 10, 0);
+        serieController.criarSerie(sala.getId(), "Turma Semanal", terca, terca.plusHours(2), Frequencia.SEMANAL, 4,
+                redirectAttrs);
+        reservaController.processarReserva(sala.getId(), "Avulsa", terca.plusWeeks(1).plusHours(4),
+                terca.plusWeeks(1).plusHours(5), null, model, redirectAttrs);
+        Long idSerie = serieRepository.findAll().get(0).getId();
+
+        // Act
+        RedirectAttributes emConflito = new RedirectAttributesModelMap();
+        serieController.salvarSerie(idSerie, "Turma Semanal", terca.plusHours(4), terca.plusHours(6),
+                Frequencia.SEMANAL, 4, emConflito);
+        RedirectAttributes semDuracao = new RedirectAttributesModelMap();
+        serieController.salvarSerie(idSerie, "Turma Semanal", terca, terca, Frequencia.SEMANAL, 4, semDuracao);
+
+        // Assert Principal
+        assertTrue(((String) emConflito.getFlashAttributes().get("mensagemErro")).contains("2025-11-25"));
+        assertEquals("A data de fim da reserva deve ser posterior à data de início.",
+                semDuracao.getFlashAttributes().get("mensagemErro"));
+        List<Reserva> ocorrencias = reservaRepository.findBySerie(serieRepository.findById(idSerie).orElseThrow());
+        assertEquals(4, ocorrencias.size());
+        assertTrue(ocorrencias.stream().allMatch(r -> r.getDataInicio().getHour() == 10
+                && r.getDataFim().getHour() == 12));
+        assertEquals(terca.plusHours(2), serieRepository.findById(idSerie).orElseThrow().getDataFim());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> idsDasSalas(Model model) {
+        return ((List<Sala>) model.getAttribute("salas")).stream().map(Sala::getId).toList();
+    }
+
+    private static void aguardar(Callable<Boolean> condicao) throws Exception {
+        long limite = System.nanoTime() + 10_000_000_000L;
+        while (!condicao.call()) {
+            assertTrue(System.nanoTime() < limite, "condição não atendida em 10 s");
+            Thread.sleep(20);
+        }
+    }
+}
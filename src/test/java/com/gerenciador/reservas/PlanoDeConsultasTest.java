@@ -0,0 +1,212 @@
+package com.gerenciador.reservas;
+
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.gerenciador.reservas.model.Frequencia;
+import com.gerenciador.reservas.model.Reserva;
+import com.gerenciador.reservas.model.Sala;
+import com.gerenciador.reservas.model.SerieDeReservas;
+import com.gerenciador.reservas.repository.ReservaArquivadaRepository;
+import com.gerenciador.reservas.repository.ReservaRepository;
+import com.gerenciador.reservas.repository.SalaRepository;
+import com.gerenciador.reservas.repository.SerieDeReservasRepository;
+
+/**
+ * Regressão de planos de execução: cada consulta frequente dos repositórios é
+ * executada uma vez, o SQL gerado pelo Hibernate é capturado e o H2 explica o
+ * plano. O teste falha se alguma delas voltar a varrer a tabela inteira.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.gerenciador.reservas.CapturaDeSql")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class PlanoDeConsultasTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 11, 3, 8, 0);
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private SalaRepository salaRepository;
+    @Autowired
+    private SerieDeReservasRepository serieRepository;
+    @Autowired
+    private ReservaArquivadaRepository arquivoRepository;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Sala sala;
+
+    @BeforeEach
+    void setUp() {
+        List<Reserva> reservas = new ArrayList<>();
+        for (int s = 0; s < 5; s++) {
+            Sala atual = salaRepository.save(new Sala("S_PL" + s, "Sala Plano " + s, 10));
+            for (int i = 0; i < 40; i++) {
+                reservas.add(new Reserva("R" + i, atual, BASE.plusHours(i), BASE.plusHours(i).plusMinutes(50)));
+            }
+            sala = atual;
+        }
+        reservaRepository.saveAll(reservas);
+        CapturaDeSql.limpar();
+    }
+
+    @Test
+    @DisplayName("CT01: Checagem de conflito deve usar índice")
+    void plano_CT01_Conflito() throws SQLException {
+        // Act
+        reservaRepository.findBySalaAndDataFimAfterAndDataInicioBefore(sala, BASE, BASE.plusHours(2));
+
+        // Assert Principal
+        assertSemVarreduraDeTabela();
+    }
+
+    @Test
+    @DisplayName("CT02: Janela de reservas da sala (com e sem limite) deve usar índice")
+    void plano_CT02_JanelaDaSala() throws SQLException {
+        // Act
+        reservaRepository.findIntervalosNaJanela(sala.getId(), BASE, BASE.plusDays(1));
+        reservaRepository.findIntervalosNaJanela(sala.getId(), BASE, BASE.plusDays(1), Limit.of(64));
+
+        // Assert Principal
+        assertSemVarreduraDeTabela();
+    }
+
+    @Test
+    @DisplayName("CT03: Listagem paginada deve usar índice, com e sem filtro de sala")
+    void plano_CT03_ListagemPaginada() throws SQLException {
+        // Act
+        reservaRepository.findPagina(BASE.minusHours(1), BASE, null, null, null, Limit.of(21));
+        reservaRepository.findPaginaDaSala(sala.getId(), BASE.plusHours(3), BASE, BASE.plusDays(1),
+                BASE.plusHours(3), 10L, Limit.of(21));
+
+        // Assert Principal
+        assertSemVarreduraDeTabela();
+    }
+
+    @Test
+    @DisplayName("CT04: Ocorrências de uma série devem ser lidas por índice")
+    void plano_CT04_OcorrenciasDaSerie() throws SQLException {
+        // Arrange
+        SerieDeReservas serie = serieRepository.save(new SerieDeReservas("Ana", sala, Frequencia.SEMANAL,
+                BASE, BASE.plusHours(1), 4));
+        CapturaDeSql.limpar();
+
+        // Act
+        reservaRepository.findBySerie(serie);
+
+        // Assert Principal
+        assertSemVarreduraDeTabela();
+    }
+
+    @Test
+    @DisplayName("CT05: Estado da agenda do modo otimista deve ler a sala e as reservas por índice")
+    void plano_CT05_EstadoDaAgenda() throws SQLException {
+        // Act
+        salaRepository.findEstadoDaAgenda(sala.getId(), BASE.minusHours(1), BASE, BASE.plusHours(2));
+
+        // Assert Principal
+        assertSemVarreduraDeTabela();
+    }
+
+    @Test
+    @DisplayName("CT06: Blocos do arquivamento devem ser lidos por índice, do primeiro ao seguinte")
+    void plano_CT06_BlocosDoArquivamento() throws SQLException {
+        // Act
+        reservaRepository.findIntervalosParaArquivar(BASE.plusHours(20), null, null, Limit.of(1000));
+        reservaRepository.findIntervalosParaArquivar(BASE.plusHours(20), BASE.plusHours(5), 10L, Limit.of(1000));
+
+        // Assert Principal
+        assertSemVarreduraDeTabela();
+    }
+
+    @Test
+    @DisplayName("CT07: Janela de reservas arquivadas da sala deve usar índice")
+    void plano_CT07_JanelaDoHistorico() throws SQLException {
+        // Act
+        arquivoRepository.findIntervalosNaJanela(sala.getId(), BASE, BASE.plusDays(1), Limit.of(1));
+
+        // Assert Principal
+        assertSemVarreduraDeTabela();
+    }
+
+    @Test
+    @DisplayName("CT08: Arquivamento de uma série deve travar a série e as ocorrências por índice")
+    void plano_CT08_TravasDoArquivamentoDeSeries() throws SQLException {
+        // Arrange
+        SerieDeReservas serie = serieRepository.save(new SerieDeReservas("Ana", sala, Frequencia.SEMANAL,
+                BASE, BASE.plusHours(1), 4));
+        CapturaDeSql.limpar();
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            serieRepository.travar(serie.getId());
+            reservaRepository.travarOcorrencias(serie);
+        });
+
+        // Assert Principal
+        assertSemVarreduraDeTabela();
+    }
+
+    private void assertSemVarreduraDeTabela() throws SQLException {
+        List<String> consultas = CapturaDeSql.capturados().stream()
+                .filter(sql -> sql.trim().toLowerCase().startsWith("select"))
+                .toList();
+        assertFalse(consultas.isEmpty(), "Nenhuma consulta capturada");
+        for (String sql : consultas) {
+            String plano = explicar(sql);
+            assertFalse(plano.contains("tableScan"), "Consulta sem índice:\n" + sql + "\nPlano:\n" + plano);
+            assertTrue(plano.contains("/*"), plano);
+        }
+    }
+
+    // Pede ao H2 o plano da consulta, com valores fictícios do tipo de cada parâmetro.
+    private String explicar(String sql) throws SQLException {
+        try (Connection conexao = dataSource.getConnection();
+                PreparedStatement explain = conexao.prepareStatement("EXPLAIN " + sql)) {
+            ParameterMetaData parametros = explain.getParameterMetaData();
+            for (int i = 1; i <= parametros.getParameterCount(); i++) {
+                explain.setObject(i, valorFicticio(parametros.getParameterType(i)));
+            }
+            try (ResultSet plano = explain.executeQuery()) {
+                StringBuilder texto = new StringBuilder();
+                while (plano.next()) {
+                    texto.append(plano.getString(1)).append('\n');
+                }
+                return texto.toString();
+            }
+        }
+    }
+
+    private Object valorFicticio(int tipo) {
+        return switch (tipo) {
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> Timestamp.valueOf(BASE);
+            case Types.BIGINT -> 1L;
+            case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> 1;
+            default -> "S_PL0";
+        };
+    }
+}
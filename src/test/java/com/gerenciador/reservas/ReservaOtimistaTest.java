@@ -0,0 +1,133 @@
+package com.gerenciador.reservas;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.gerenciador.reservas.model.Reserva;
+import com.gerenciador.reservas.model.Sala;
+import com.gerenciador.reservas.repository.ReservaRepository;
+import com.gerenciador.reservas.repository.SalaRepository;
+import com.gerenciador.reservas.service.GerenciadorDeReservas;
+
+/**
+ * Pedidos de reserva no modo OTIMISTA: sem travas, com contador por sala e novas
+ * tentativas quando outra gravação chega antes.
+ */
+@SpringBootTest(properties = "reservas.reserva.modo=otimista")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ReservaOtimistaTest {
+
+    private static final int THREADS = 16;
+    private static final int PEDIDOS = 200;
+
+    @Autowired
+    private GerenciadorDeReservas gerenciador;
+    @Autowired
+    private SalaRepository salaRepository;
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private MeterRegistry registro;
+
+    @Test
+    @DisplayName("CT01: No modo otimista, só um de centenas de pedidos simultâneos para o mesmo horário deve vencer")
+    void otimista_CT01_MesmaSalaMesmoHorario() throws Exception {
+        // Arrange
+        Sala sala = salaRepository.save(new Sala("S_OTIM", "Sala Otimista", 10));
+        LocalDateTime inicio = LocalDateTime.of(2025, 11, 20, 14, 0);
+
+        // Act
+        List<Throwable> falhas = executarEmParalelo(PEDIDOS,
+                i -> gerenciador.reservar(sala, "Pessoa " + i, inicio.plusMinutes(i % 30), inicio.plusHours(1)).join());
+
+        // Assert Principal: uma reserva gravada; os outros pedidos recusados por
+        // conflito (ou por colisões demais), nunca gravados por cima
+        assertEquals(1, reservaRepository.count());
+        assertEquals(PEDIDOS - 1, falhas.size());
+        for (Throwable falha : falhas) {
+            assertTrue(falha instanceof IllegalStateException || falha instanceof RejectedExecutionException,
+                    falha.toString());
+        }
+        assertEquals(1, salaRepository.findById("S_OTIM").orElseThrow().getReservasGravadas());
+    }
+
+    @Test
+    @DisplayName("CT02: Pedidos sem conflito na mesma sala devem entrar todos, com as colisões contadas nas métricas")
+    void otimista_CT02_HorariosDiferentes() throws Exception {
+        // Arrange
+        Sala sala = salaRepository.save(new Sala("S_OTIM2", "Sala Otimista 2", 10));
+        LocalDateTime inicio = LocalDateTime.of(2025, 11, 21, 8, 0);
+
+        // Act: cada pedido em meia hora própria, todos disputando o contador da sala
+        List<Throwable> falhas = executarEmParalelo(PEDIDOS, i -> {
+            LocalDateTime horario = inicio.plusMinutes(30L * i);
+            return reservarInsistindo(sala, horario, horario.plusMinutes(30));
+        });
+
+        // Assert Principal
+        assertTrue(falhas.isEmpty(), falhas.toString());
+        assertEquals(PEDIDOS, reservaRepository.count());
+        assertEquals(PEDIDOS, salaRepository.findById("S_OTIM2").orElseThrow().getReservasGravadas());
+        double tentativas = registro.get("reservas.otimista.tentativas").counter().count();
+        double colisoes = registro.get("reservas.otimista.colisoes").counters().stream()
+                .mapToDouble(c -> c.count()).sum();
+        assertEquals(tentativas - PEDIDOS, colisoes);
+    }
+
+    // Quem desiste por colisões demais pede de novo, como o usuário faria
+    private Reserva reservarInsistindo(Sala sala, LocalDateTime inicio, LocalDateTime fim) {
+        while (true) {
+            try {
+                return gerenciador.reservar(sala, "Pessoa", inicio, fim).join();
+            } catch (RuntimeException e) {
+                if (!(e.getCause() instanceof RejectedExecutionException)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private List<Throwable> executarEmParalelo(int pedidos, PedidoNumerado pedido) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Reserva>> resultados = new ArrayList<>();
+            for (int i = 0; i < pedidos; i++) {
+                int numero = i;
+                resultados.add(executor.submit(() -> pedido.executar(numero)));
+            }
+            List<Throwable> falhas = new ArrayList<>();
+            for (Future<Reserva> resultado : resultados) {
+                try {
+                    resultado.get(60, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    Throwable causa = e.getCause();
+                    falhas.add(causa.getCause() != null ? causa.getCause() : causa);
+                }
+            }
+            return falhas;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface PedidoNumerado {
+        Reserva executar(int numero);
+    }
+}
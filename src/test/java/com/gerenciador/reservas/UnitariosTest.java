@@ -1,12 +1,15 @@
 package com.gerenciador.reservas;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,12 +18,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.gerenciador.reservas.model.Equipamento;
+import com.gerenciador.reservas.model.IntervaloReservado;
 import com.gerenciador.reservas.model.Reserva;
 import com.gerenciador.reservas.model.Sala;
+import com.gerenciador.reservas.repository.EquipamentoRepository;
+import com.gerenciador.reservas.repository.ReservaArquivadaRepository;
 import com.gerenciador.reservas.repository.ReservaRepository;
+import com.gerenciador.reservas.repository.SalaRepository;
+import com.gerenciador.reservas.service.ArquivoDeReservas;
+import com.gerenciador.reservas.service.CatalogoDeSalas;
 import com.gerenciador.reservas.service.GerenciadorDeReservas;
+import com.gerenciador.reservas.service.IndiceDeReservas;
 
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
@@ -275,4 +286,103 @@ class UnitariosTest {
 
         assertEquals("A data de fim da reserva não pode ser anterior à data de início.", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    // --- Testes do Índice de Reservas em memória (CT26-CT29) ---
+
+    @Test
+    @DisplayName("CT26: Índice detecta sobreposição com reserva existente")
+    void CT26_Indice_DetectaSobreposicao() {
+        IndiceDeReservas indice = novoIndice();
+        indice.registrar(new IntervaloReservado(1L, "S01", inicioBase, fimBase));
+
+        assertTrue(indice.temConflito("S01", inicioBase.plusMinutes(30), fimBase.plusMinutes(30)));
+        assertTrue(indice.temConflito("S01", inicioBase.minusMinutes(30), inicioBase.plusMinutes(1)));
+    }
+
+    @Test
+    @DisplayName("CT27: Índice aceita reservas encostadas e em outras salas")
+    void CT27_Indice_ReservaEncostada() {
+        IndiceDeReservas indice = novoIndice();
+        indice.registrar(new IntervaloReservado(1L, "S01", inicioBase, fimBase));
+
+        assertFalse(indice.temConflito("S01", fimBase, fimBase.plusHours(1)));
+        assertFalse(indice.temConflito("S01", inicioBase.minusHours(1), inicioBase));
+        assertFalse(indice.temConflito("S02", inicioBase, fimBase));
+    }
+
+    @Test
+    @DisplayName("CT28: Índice libera o horário após remover ou mover a reserva")
+    void CT28_Indice_RemoverEAtualizar() {
+        IndiceDeReservas indice = novoIndice();
+        indice.registrar(new IntervaloReservado(1L, "S01", inicioBase, fimBase));
+        indice.registrar(new IntervaloReservado(1L, "S01", inicioBase.plusDays(1), fimBase.plusDays(1)));
+
+        assertFalse(indice.temConflito("S01", inicioBase, fimBase));
+        assertTrue(indice.temConflito("S01", inicioBase.plusDays(1), fimBase.plusDays(1)));
+
+        indice.remover(1L);
+        assertFalse(indice.temConflito("S01", inicioBase.plusDays(1), fimBase.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("CT29: Sala com reservas sobrepostas deixa de ser respondida pelo índice")
+    void CT29_Indice_SalaInconsistente() {
+        IndiceDeReservas indice = novoIndice();
+        when(reservaRepository.findAllIntervalos()).thenReturn(List.of(
+                new IntervaloReservado(1L, "S01", inicioBase, fimBase),
+                new IntervaloReservado(2L, "S01", inicioBase.plusMinutes(30), fimBase.plusMinutes(30))));
+        ReflectionTestUtils.setField(indice, "reservaRepository", reservaRepository);
+
+        indice.carregar();
+
+        assertFalse(indice.isConfiavel("S01"));
+        assertTrue(indice.isConfiavel("S02"));
+    }
+
+    @Test
+    @DisplayName("CT30: Catálogo ignora equipamento da sala que a leitura de equipamentos não trouxe")
+    void CT30_Catalogo_EquipamentoDesconhecido() {
+        Equipamento projetor = new Equipamento("Projetor", "");
+        projetor.setId(1L);
+        Equipamento novo = new Equipamento("Lousa", "");
+        novo.setId(2L);
+        salaBase.setEquipamentos(List.of(projetor, novo));
+        SalaRepository salaRepository = mock(SalaRepository.class);
+        EquipamentoRepository equipamentoRepository = mock(EquipamentoRepository.class);
+        when(salaRepository.findAllComEquipamentos()).thenReturn(List.of(salaBase));
+        when(equipamentoRepository.findAll()).thenReturn(List.of(projetor));
+        CatalogoDeSalas catalogo = new CatalogoDeSalas();
+        ReflectionTestUtils.setField(catalogo, "salaRepository", salaRepository);
+        ReflectionTestUtils.setField(catalogo, "equipamentoRepository", equipamentoRepository);
+        ReflectionTestUtils.setField(catalogo, "reservaRepository", reservaRepository);
+        ReflectionTestUtils.setField(catalogo, "indice", novoIndice());
+        ReflectionTestUtils.setField(catalogo, "arquivo", mock(ArquivoDeReservas.class));
+
+        List<Sala> livres = catalogo.buscarSalasLivres(inicioBase, fimBase, 1, List.of(1L));
+
+        assertEquals(List.of(salaBase), livres);
+        assertTrue(catalogo.buscarSalasLivres(inicioBase, fimBase, 1, List.of(2L)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("CT31: Busca de salas livres recusa intervalo invertido ou vazio com as mensagens da reserva")
+    void CT31_Catalogo_IntervaloInvalido() {
+        CatalogoDeSalas catalogo = new CatalogoDeSalas();
+
+        IllegalArgumentException invertido = assertThrows(IllegalArgumentException.class,
+                () -> catalogo.buscarSalasLivres(fimBase, inicioBase, 1, List.of()));
+        IllegalArgumentException vazio = assertThrows(IllegalArgumentException.class,
+                () -> catalogo.buscarSalasLivres(inicioBase, inicioBase, 1, List.of()));
+
+        assertEquals("A data de fim da reserva não pode ser anterior à data de início.", invertido.getMessage());
+        assertEquals("A data de fim da reserva deve ser posterior à data de início.", vazio.getMessage());
+    }
+
+    // Índice fora do Spring: sem ouvintes, e o histórico de reservas arquivadas
+    // começa vazio
+    private static IndiceDeReservas novoIndice() {
+        IndiceDeReservas indice = new IndiceDeReservas();
+        ReflectionTestUtils.setField(indice, "arquivoRepository", mock(ReservaArquivadaRepository.class));
+        return indice;
+    }
+}